@@ -0,0 +1,79 @@
+package com.valkryst.benchmark.manager;
+
+import com.valkryst.benchmark.manager.ManagerFixture.SelectionCase;
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.EvaluationStrategy;
+import com.valkryst.dds.manager.EventQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DDSManager.determineResponses evaluated serially against the same batch split into
+ * parts, to find the cost at which splitting a batch starts to pay off.
+ *
+ * The cost of a batch, as used by EvaluationStrategy, is its number of queries multiplied by
+ * the number of Rules and distinct Criterion of the queried Event, which is at most
+ * batchSize * ruleCount * (1 + criteriaPerRule) here. Once the lowest cost at which two parts
+ * beat one part is found, half of it is the cost threshold to pass to
+ * EvaluationStrategy.forkJoin, as a batch is split into two parts once its cost reaches twice
+ * the threshold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchCrossoverBenchmark {
+    @Param({"8", "128"})
+    private int ruleCount;
+
+    @Param({"4"})
+    private int criteriaPerRule;
+
+    @Param({"1", "16", "256"})
+    private int batchSize;
+
+    /** The number of parts to split each batch into, where one part is evaluated serially. */
+    @Param({"1", "2", "4"})
+    private int parts;
+
+    private DDSManager manager;
+    private ForkJoinPool pool;
+    private List<EventQuery> list_queries;
+
+    @Setup
+    public void setup() {
+        manager = ManagerFixture.create(SelectionCase.E, ruleCount, criteriaPerRule, null, 0);
+
+        if (parts == 1) {
+            manager.setEvaluationStrategy(EvaluationStrategy.SERIAL);
+        } else {
+            // A threshold of one splits every batch into as many parts as the pool has threads:
+            pool = new ForkJoinPool(parts);
+            manager.setEvaluationStrategy(EvaluationStrategy.forkJoin(pool, 1));
+        }
+
+        list_queries = new ArrayList<>(batchSize);
+
+        for (int i = 0 ; i < batchSize ; i++) {
+            list_queries.add(new EventQuery(ManagerFixture.EVENT));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void determineResponses() {
+        manager.determineResponses(list_queries);
+    }
+}
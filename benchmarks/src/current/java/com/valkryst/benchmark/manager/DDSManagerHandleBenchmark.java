@@ -0,0 +1,56 @@
+package com.valkryst.benchmark.manager;
+
+import com.valkryst.benchmark.manager.ManagerFixture.SelectionCase;
+import com.valkryst.dds.manager.ContextHandle;
+import com.valkryst.dds.manager.DDSManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DDSManager.determineResponse for each of its selection cases, by Event ID and
+ * Context handle, which the original Dynamic Dialog System doesn't have.
+ *
+ * Before each query, the first Context moves to its next value, so that each query pays for
+ * re-evaluating the Criterion of one changed Context, as it would during play.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DDSManagerHandleBenchmark {
+    @Param({"B", "C", "D", "E"})
+    private SelectionCase selectionCase;
+
+    @Param({"8", "128", "2048"})
+    private int ruleCount;
+
+    @Param({"1", "4", "16"})
+    private int criteriaPerRule;
+
+    @Param({"1"})
+    private int subscriberCount;
+
+    private DDSManager manager;
+    private ContextHandle handle;
+    private int eventId;
+    private int nextValue;
+    private long totalResponses;
+
+    @Setup
+    public void setup() {
+        manager = ManagerFixture.create(selectionCase, ruleCount, criteriaPerRule,
+                                        (ddsManager, response) -> totalResponses++, subscriberCount);
+        handle = manager.handle("Context 0");
+        eventId = manager.getEventId(ManagerFixture.EVENT);
+    }
+
+    @Benchmark
+    public long determineResponse() {
+        manager.setLong(handle, nextValue++ % ManagerFixture.CONTEXT_VALUES);
+        manager.determineResponse(eventId);
+        return totalResponses;
+    }
+}
@@ -0,0 +1,84 @@
+package com.valkryst.benchmark.manager;
+
+import com.valkryst.dds.generator.DatabaseGenerator;
+import com.valkryst.dds.generator.ZipfDistribution;
+import com.valkryst.dds.manager.ContextHandle;
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.object.Context;
+import com.valkryst.dds.object.ValueType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DDSManager.determineResponse against large generated databases.
+ *
+ * The queried Events are drawn with the same skew as the Rules were spread across them, and
+ * before each query one INTEGER Context moves to a new value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class GeneratedDatabaseBenchmark {
+    /** The number of queries drawn up-front, a power of two so that the next query is found by masking. */
+    private static final int TOTAL_QUERIES = 1 << 12;
+
+    @Param({"10000", "100000"})
+    private int totalRules;
+
+    @Param({"0", "1"})
+    private double eventSkew;
+
+    private DDSManager manager;
+    private int[] array_eventIds;
+    private ContextHandle[] array_handles;
+    private long[] array_values;
+    private int nextQuery;
+
+    @Setup
+    public void setup() {
+        final DatabaseGenerator generator = new DatabaseGenerator(42);
+        generator.setTotalRules(totalRules);
+        generator.setTotalEvents(Math.max(1, totalRules / 100));
+        generator.setTotalContexts(Math.max(1, totalRules / 50));
+        generator.setEventSkew(eventSkew);
+        manager = generator.generate();
+
+        final List<ContextHandle> list_handles = new ArrayList<>();
+
+        for (final Context context : manager.getHashMap_contexts().values()) {
+            if (context.getValueType() == ValueType.INTEGER) {
+                list_handles.add(manager.handle(context.getName()));
+            }
+        }
+
+        // The queries are drawn from a fixed seed, so that every run makes the same queries:
+        final Random random = new Random(0);
+        final ZipfDistribution eventDistribution = new ZipfDistribution(generator.getTotalEvents(), eventSkew);
+        array_eventIds = new int[TOTAL_QUERIES];
+        array_handles = new ContextHandle[TOTAL_QUERIES];
+        array_values = new long[TOTAL_QUERIES];
+
+        for (int i = 0 ; i < TOTAL_QUERIES ; i++) {
+            array_eventIds[i] = manager.getEventId("Event " + eventDistribution.sample(random));
+            array_handles[i] = list_handles.get(random.nextInt(list_handles.size()));
+            array_values[i] = random.nextInt(generator.getTotalValues());
+        }
+
+        // The first query compiles the database, which isn't measured:
+        manager.determineResponse(array_eventIds[0]);
+    }
+
+    @Benchmark
+    public void determineResponse() {
+        final int query = nextQuery++ & (TOTAL_QUERIES - 1);
+        manager.setLong(array_handles[query], array_values[query]);
+        manager.determineResponse(array_eventIds[query]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.valkryst.benchmark.collection;
+
+import com.valkryst.dds.collection.SplayTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Measures SplayTree.get and SplayTree.put, with keys drawn uniformly from the tree. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplayTreeBenchmark {
+    /** The number of keys drawn from, a power of two so that the next key is found by masking. */
+    private static final int TOTAL_DRAWS = 1 << 16;
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private SplayTree<Integer, Integer> splayTree;
+    private Integer[] array_draws;
+    private int nextDraw;
+
+    @Setup
+    public void setup() {
+        splayTree = new SplayTree<>();
+
+        for (int i = 0 ; i < size ; i++) {
+            splayTree.put(i, i);
+        }
+
+        // The keys are drawn from a fixed seed, so that every run splays the same way:
+        final Random random = new Random(0);
+        array_draws = new Integer[TOTAL_DRAWS];
+
+        for (int i = 0 ; i < TOTAL_DRAWS ; i++) {
+            array_draws[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        return splayTree.get(array_draws[nextDraw++ & (TOTAL_DRAWS - 1)]);
+    }
+
+    @Benchmark
+    public void put() {
+        final Integer key = array_draws[nextDraw++ & (TOTAL_DRAWS - 1)];
+        splayTree.put(key, key);
+    }
+}
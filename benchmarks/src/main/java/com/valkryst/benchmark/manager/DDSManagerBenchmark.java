@@ -0,0 +1,53 @@
+package com.valkryst.benchmark.manager;
+
+import com.valkryst.benchmark.manager.ManagerFixture.SelectionCase;
+import com.valkryst.dds.manager.DDSManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DDSManager.determineResponse for each of its selection cases, through the String API.
+ *
+ * Before each query, the first Context moves to its next value, so that each query pays for
+ * re-evaluating the Criterion of one changed Context, as it would during play.
+ *
+ * Only the API of the original Dynamic Dialog System is used, so that this can be run against
+ * it. DDSManagerHandleBenchmark measures the same queries by Event ID and Context handle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DDSManagerBenchmark {
+    @Param({"B", "C", "D", "E"})
+    private SelectionCase selectionCase;
+
+    @Param({"8", "128", "2048"})
+    private int ruleCount;
+
+    @Param({"1", "4", "16"})
+    private int criteriaPerRule;
+
+    @Param({"1"})
+    private int subscriberCount;
+
+    private DDSManager manager;
+    private int nextValue;
+    private long totalResponses;
+
+    @Setup
+    public void setup() {
+        manager = ManagerFixture.create(selectionCase, ruleCount, criteriaPerRule,
+                                        (ddsManager, response) -> totalResponses++, subscriberCount);
+    }
+
+    @Benchmark
+    public long determineResponseByName() {
+        manager.setValue("Context 0", ManagerFixture.CONTEXT_VALUE_STRINGS[nextValue++ % ManagerFixture.CONTEXT_VALUES]);
+        manager.determineResponse(ManagerFixture.EVENT);
+        return totalResponses;
+    }
+}
@@ -0,0 +1,151 @@
+package com.valkryst.benchmark.manager;
+
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.Notifiable;
+import com.valkryst.dds.object.*;
+
+import java.util.ArrayList;
+
+/** Builds the DDSManagers that are measured by the benchmarks. */
+public final class ManagerFixture {
+    /** The Event that triggers the Rules of every fixture. */
+    public static final String EVENT = "ON_ALIEN_DEATH";
+    /** The response type of the Responses of every fixture. */
+    public static final String RESPONSE_TYPE = "AUDIO";
+    /** The number of distinct values that the Contexts of a fixture cycle through. */
+    public static final int CONTEXT_VALUES = 16;
+    /** The distinct values that the Contexts of a fixture cycle through, as Strings, so that setting them doesn't allocate. */
+    public static final String[] CONTEXT_VALUE_STRINGS = new String[CONTEXT_VALUES];
+
+    static {
+        for (int i = 0 ; i < CONTEXT_VALUES ; i++) {
+            CONTEXT_VALUE_STRINGS[i] = String.valueOf(i);
+        }
+    }
+
+    /** The ways in which DDSManager.determineResponse can select a Rule. */
+    public enum SelectionCase {
+        /** A single Rule is triggered. */
+        B,
+        /** Several Rules are triggered, and some have never been used. */
+        C,
+        /** Several Rules are triggered, and none have any Criterion. */
+        D,
+        /** Several Rules are triggered, all have been used, and all have Criterion. */
+        E
+    }
+
+    /** Prevent the fixture from being constructed. */
+    private ManagerFixture() {}
+
+    /**
+     * Builds a DDSManager whose Event is answered by the specified selection
+     * case.
+     *
+     * The Criterion of each Rule compare the Contexts named "Context 0" to
+     * "Context n" against thresholds between 0 and CONTEXT_VALUES, so as the
+     * Contexts cycle through their values, the scores of the Rules change.
+     *
+     * @param selectionCase
+     *         The selection case.
+     *
+     * @param ruleCount
+     *         The number of Rules triggered by the Event, ignored for case B,
+     *         which always has a single Rule.
+     *
+     * @param criteriaPerRule
+     *         The number of Criterion of each Rule, ignored for case D, whose
+     *         Rules have no Criterion.
+     *
+     * @param subscriber
+     *         The subscriber to notify of every Response, or null if there is
+     *         none.
+     *
+     * @param subscriberCount
+     *         The number of times to subscribe the subscriber, each under a
+     *         distinct wrapper, so that it's notified that many times per
+     *         Response.
+     *
+     * @return
+     *         The DDSManager.
+     */
+    public static DDSManager create(final SelectionCase selectionCase, final int ruleCount, final int criteriaPerRule,
+                                    final Notifiable subscriber, final int subscriberCount) {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        manager.addEvent(EVENT);
+
+        final int totalContexts = Math.max(1, criteriaPerRule);
+        final Context[] contexts = new Context[totalContexts];
+
+        for (int i = 0 ; i < totalContexts ; i++) {
+            contexts[i] = new Context("Context " + i, ValueType.INTEGER, "0");
+            manager.addContext(contexts[i]);
+        }
+
+        final int totalRules = (selectionCase == SelectionCase.B ? 1 : ruleCount);
+        final int totalCriteria = (selectionCase == SelectionCase.D ? 0 : criteriaPerRule);
+
+        for (int rule = 0 ; rule < totalRules ; rule++) {
+            // Only case C has Rules that have never been used:
+            final long lastUsedTime = (selectionCase == SelectionCase.C ? 0 : 1 + rule);
+            addRule(manager, new Rule(EVENT, "Rule " + rule, lastUsedTime), contexts, rule, totalCriteria);
+        }
+
+        if (selectionCase == SelectionCase.C) {
+            /*
+             * The chosen Rule is marked as used, so a Rule that can never be
+             * chosen is added, to keep the Event in case C.
+             */
+            final Rule rule = new Rule(EVENT, "Never Chosen", 0);
+            final Criterion criterion = new Criterion(contexts[0], ComparisonType.EQUAL_TO, ValueType.INTEGER, "-1", 1, false);
+
+            manager.addRule(rule);
+            manager.addCriterion(criterion);
+            manager.addRuleEventAssociation(EVENT, rule);
+            manager.addRuleCriterionAssociation(rule, criterion);
+        }
+
+        for (int i = 0 ; i < subscriberCount && subscriber != null ; i++) {
+            manager.getPublisher().addResponseSubscriber(RESPONSE_TYPE, (ddsManager, response) -> subscriber.handleResponse(ddsManager, response));
+        }
+
+        return manager;
+    }
+
+    /**
+     * Adds a Rule, along with its Criterion and a Response, to a DDSManager.
+     *
+     * @param manager
+     *         The DDSManager.
+     *
+     * @param rule
+     *         The Rule.
+     *
+     * @param contexts
+     *         The Contexts of the DDSManager.
+     *
+     * @param index
+     *         The index of the Rule, used to vary its thresholds.
+     *
+     * @param totalCriteria
+     *         The number of Criterion to give the Rule.
+     */
+    private static void addRule(final DDSManager manager, final Rule rule, final Context[] contexts, final int index,
+                                final int totalCriteria) {
+        final Response response = new Response(RESPONSE_TYPE, rule.getDescription());
+
+        manager.addRule(rule);
+        manager.addResponse(response);
+        manager.addRuleEventAssociation(EVENT, rule);
+        manager.addRuleResponseAssociation(rule, response);
+
+        for (int i = 0 ; i < totalCriteria ; i++) {
+            final String threshold = String.valueOf((index + i) % CONTEXT_VALUES);
+            final Criterion criterion = new Criterion(contexts[i % contexts.length], ComparisonType.LESS_THAN_OR_EQUAL_TO,
+                                                      ValueType.INTEGER, threshold, 1, false);
+
+            manager.addCriterion(criterion);
+            manager.addRuleCriterionAssociation(rule, criterion);
+        }
+    }
+}
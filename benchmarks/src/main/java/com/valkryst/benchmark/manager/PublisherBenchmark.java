@@ -0,0 +1,40 @@
+package com.valkryst.benchmark.manager;
+
+import com.valkryst.benchmark.manager.ManagerFixture.SelectionCase;
+import com.valkryst.dds.manager.DDSManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the fan-out of the Publisher, by publishing the Response of a single Rule to a
+ * varying number of subscribers.
+ *
+ * The Publisher only publishes the Responses of the Rules that its DDSManager selects, so the
+ * Responses are published through the cheapest selection, case B, whose cost is measured alone
+ * by the zero subscriber run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublisherBenchmark {
+    @Param({"0", "1", "16", "256"})
+    private int subscriberCount;
+
+    private DDSManager manager;
+    private long totalResponses;
+
+    @Setup
+    public void setup() {
+        manager = ManagerFixture.create(SelectionCase.B, 1, 1, (ddsManager, response) -> totalResponses++, subscriberCount);
+    }
+
+    @Benchmark
+    public long publishResponses() {
+        manager.determineResponse(ManagerFixture.EVENT);
+        return totalResponses;
+    }
+}
@@ -0,0 +1,59 @@
+package com.valkryst.benchmark.manager;
+
+import com.valkryst.benchmark.manager.ManagerFixture.SelectionCase;
+import com.valkryst.dds.manager.DDSManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a serialized DDSManager, both alone and along with its first query, which
+ * compiles the loaded Rules.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"8", "128", "2048"})
+    private int ruleCount;
+
+    @Param({"1", "4", "16"})
+    private int criteriaPerRule;
+
+    private byte[] serializedManager;
+
+    @Setup
+    public void setup() throws IOException {
+        // Subscribers aren't serializable, so the serialized DDSManager has none:
+        final DDSManager manager = ManagerFixture.create(SelectionCase.E, ruleCount, criteriaPerRule, null, 0);
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+        try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(manager);
+        }
+
+        serializedManager = byteArrayOutputStream.toByteArray();
+    }
+
+    @Benchmark
+    public DDSManager load() throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(serializedManager))) {
+            return (DDSManager) objectInputStream.readObject();
+        }
+    }
+
+    @Benchmark
+    public DDSManager loadAndDetermineResponse() throws IOException, ClassNotFoundException {
+        final DDSManager manager = load();
+        manager.determineResponse(ManagerFixture.EVENT);
+        return manager;
+    }
+}
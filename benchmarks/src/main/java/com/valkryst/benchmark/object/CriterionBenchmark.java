@@ -0,0 +1,59 @@
+package com.valkryst.benchmark.object;
+
+import com.valkryst.dds.object.ComparisonType;
+import com.valkryst.dds.object.Context;
+import com.valkryst.dds.object.Criterion;
+import com.valkryst.dds.object.ValueType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures Criterion.update for each ValueType. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriterionBenchmark {
+    @Param({"BYTE", "SHORT", "INTEGER", "LONG", "FLOAT", "DOUBLE", "BOOLEAN", "STRING"})
+    private ValueType valueType;
+
+    @Param({"EQUAL_TO", "LESS_THAN"})
+    private ComparisonType comparisonType;
+
+    private Criterion criterion;
+
+    @Setup
+    public void setup() {
+        final String value;
+
+        switch (valueType) {
+            case BOOLEAN: {
+                value = "TRUE";
+                break;
+            }
+            case STRING: {
+                value = "Alien";
+                break;
+            }
+            default: {
+                value = "1";
+            }
+        }
+
+        // BOOLEAN and STRING values can only be compared for equality:
+        final boolean isOrdered = valueType != ValueType.BOOLEAN && valueType != ValueType.STRING;
+        final ComparisonType comparisonType = (isOrdered ? this.comparisonType : ComparisonType.EQUAL_TO);
+
+        criterion = new Criterion(new Context("Context", valueType, value), comparisonType, valueType, value, 1, false);
+    }
+
+    // update and isTrue are deprecated, but are the only way to evaluate a Criterion in the baseline:
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public boolean update() {
+        criterion.update();
+        return criterion.isTrue();
+    }
+}
@@ -0,0 +1,37 @@
+package com.valkryst.dds.manager;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads, where the running Java version supports them.
+ *
+ * This is the Java 21 version, which is packaged under META-INF/versions/21 and replaces the
+ * Java 8 version of this class when the jar is run on Java 21 or later.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {}
+
+    /** @return Whether virtual threads are supported. */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Creates a ThreadFactory that creates a virtual thread for each task.
+     *
+     * @param namePrefix
+     *         The prefix of the name of each thread, which is followed by a
+     *         counter.
+     *
+     * @return
+     *         The ThreadFactory.
+     *
+     * @throws UnsupportedOperationException
+     *         Thrown if virtual threads are not supported.
+     */
+    public static ThreadFactory newThreadFactory(final String namePrefix) throws UnsupportedOperationException {
+        Objects.requireNonNull(namePrefix, "namePrefix");
+        return Thread.ofVirtual().name(namePrefix, 0).factory();
+    }
+}
@@ -0,0 +1,446 @@
+package com.valkryst.dds.generator;
+
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.object.*;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates synthetic Contexts, Criterion, Rules, and Responses, for testing a Dynamic Dialog
+ * System at scales far beyond any hand-authored database.
+ *
+ * The Rules are spread across the Events by a ZipfDistribution, so that a few Events trigger
+ * most of the Rules, and their Criterion read the Contexts by another, so that a few Contexts
+ * are shared by most of the Criterion. The ValueType of each Context and the ComparisonType of
+ * each Criterion are drawn by weight.
+ *
+ * Generation is deterministic, a generator with the same settings and seed always generates the
+ * same database, in the same order.
+ */
+public class DatabaseGenerator {
+    /** The ValueTypes whose Contexts can be compared by a Criterion. */
+    private static final ValueType[] COMPARABLE_VALUE_TYPES = {
+        ValueType.BYTE, ValueType.SHORT, ValueType.INTEGER, ValueType.LONG,
+        ValueType.FLOAT, ValueType.DOUBLE, ValueType.BOOLEAN, ValueType.STRING
+    };
+
+    /** The seed of the Random used to generate the database. */
+    @Getter @Setter private long seed;
+
+    /** The number of Events. */
+    @Getter @Setter private int totalEvents = 100;
+    /** The exponent of the ZipfDistribution of Rules across the Events, zero for a uniform distribution. */
+    @Getter @Setter private double eventSkew = 1;
+
+    /** The number of Contexts. */
+    @Getter @Setter private int totalContexts = 200;
+    /** The exponent of the ZipfDistribution of Criterion across the Contexts, zero for a uniform distribution. */
+    @Getter @Setter private double contextSkew = 1;
+    /** The number of distinct values of each numeric or STRING Context, and of each Criterion's comparison value. */
+    @Getter @Setter private int totalValues = 100;
+
+    /** The number of Rules. */
+    @Getter @Setter private int totalRules = 1000;
+    /** The fewest Criterion of any Rule. */
+    @Getter @Setter private int minimumCriteriaPerRule = 1;
+    /** The most Criterion of any Rule. */
+    @Getter @Setter private int maximumCriteriaPerRule = 4;
+    /** Whether each Criterion is given a random weight, rather than a weight of 1. */
+    @Getter @Setter private boolean isWeighted = true;
+    /** The fraction of Rules that have been used before. */
+    @Getter @Setter private double usedRuleRatio = 0.5;
+
+    /** The number of response types. */
+    @Getter @Setter private int totalResponseTypes = 4;
+    /** The number of Responses of each Rule. */
+    @Getter @Setter private int responsesPerRule = 1;
+
+    /** The weight of each ValueType, by ordinal. */
+    private final double[] array_valueTypeWeights = new double[ValueType.values().length];
+    /** The weight of each ComparisonType, by ordinal. */
+    private final double[] array_comparisonTypeWeights = new double[ComparisonType.values().length];
+
+    /**
+     * Construct a new DatabaseGenerator.
+     *
+     * @param seed
+     *         The seed of the Random used to generate the database.
+     */
+    public DatabaseGenerator(final long seed) {
+        this.seed = seed;
+
+        setValueTypeWeight(ValueType.BYTE, 1);
+        setValueTypeWeight(ValueType.SHORT, 1);
+        setValueTypeWeight(ValueType.INTEGER, 4);
+        setValueTypeWeight(ValueType.LONG, 1);
+        setValueTypeWeight(ValueType.FLOAT, 2);
+        setValueTypeWeight(ValueType.DOUBLE, 1);
+        setValueTypeWeight(ValueType.BOOLEAN, 3);
+        setValueTypeWeight(ValueType.STRING, 2);
+
+        for (final ComparisonType comparisonType : ComparisonType.values()) {
+            setComparisonTypeWeight(comparisonType, 1);
+        }
+    }
+
+    /**
+     * Sets the weight with which the ValueType is drawn for each Context.
+     *
+     * @param valueType
+     *         The ValueType.
+     *
+     * @param weight
+     *         The weight.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the weight is negative, or if it's positive and the
+     *         ValueType cannot be compared by a Criterion.
+     */
+    public void setValueTypeWeight(@NonNull final ValueType valueType, final double weight) throws IllegalArgumentException {
+        if (! (weight >= 0)) {
+            throw new IllegalArgumentException("A ValueType cannot have a weight of " + weight + ".");
+        }
+
+        if (weight > 0 && ! isComparable(valueType)) {
+            throw new IllegalArgumentException("The " + valueType + " value type cannot be compared by a Criterion.");
+        }
+
+        array_valueTypeWeights[valueType.ordinal()] = weight;
+    }
+
+    /**
+     * Sets the weight with which the ComparisonType is drawn for each
+     * Criterion.
+     *
+     * BOOLEAN and STRING Criterion are only drawn from the EQUAL_TO and
+     * NOT_EQUAL_TO types, as they cannot be ordered.
+     *
+     * @param comparisonType
+     *         The ComparisonType.
+     *
+     * @param weight
+     *         The weight.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the weight is negative.
+     */
+    public void setComparisonTypeWeight(@NonNull final ComparisonType comparisonType, final double weight) throws IllegalArgumentException {
+        if (! (weight >= 0)) {
+            throw new IllegalArgumentException("A ComparisonType cannot have a weight of " + weight + ".");
+        }
+
+        array_comparisonTypeWeights[comparisonType.ordinal()] = weight;
+    }
+
+    /**
+     * Generates a database into a new DDSManager.
+     *
+     * @return
+     *         The DDSManager.
+     *
+     * @throws IllegalStateException
+     *         Thrown if the settings of the generator are invalid.
+     */
+    public DDSManager generate() throws IllegalStateException {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        populate(manager);
+        return manager;
+    }
+
+    /**
+     * Generates a database, then serializes it to a stream, so that it can
+     * later be loaded as a DDSManager.
+     *
+     * @param outputStream
+     *         The stream.
+     *
+     * @throws IOException
+     *         Thrown if the database cannot be written to the stream.
+     *
+     * @throws IllegalStateException
+     *         Thrown if the settings of the generator are invalid.
+     */
+    public void write(@NonNull final OutputStream outputStream) throws IOException, IllegalStateException {
+        final ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(generate());
+        objectOutputStream.flush();
+    }
+
+    /**
+     * Generates a database, then serializes it to a file, so that it can
+     * later be loaded as a DDSManager.
+     *
+     * @param file
+     *         The file.
+     *
+     * @throws IOException
+     *         Thrown if the database cannot be written to the file.
+     *
+     * @throws IllegalStateException
+     *         Thrown if the settings of the generator are invalid.
+     */
+    public void write(@NonNull final File file) throws IOException, IllegalStateException {
+        try (final FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+            write(fileOutputStream);
+        }
+    }
+
+    /**
+     * Generates a database into an existing DDSManager.
+     *
+     * The generated Events are named "Event 0" to "Event n", the Contexts
+     * "Context 0" to "Context n", the Rules "Rule 0" to "Rule n", and the
+     * response types "Response Type 0" to "Response Type n", so they can be
+     * looked up after generation.
+     *
+     * @param manager
+     *         The DDSManager.
+     *
+     * @throws IllegalStateException
+     *         Thrown if the settings of the generator are invalid.
+     */
+    public void populate(@NonNull final DDSManager manager) throws IllegalStateException {
+        checkSettings();
+
+        final Random random = new Random(seed);
+
+        final String[] events = new String[totalEvents];
+
+        for (int i = 0 ; i < totalEvents ; i++) {
+            events[i] = "Event " + i;
+            manager.addEvent(events[i]);
+        }
+
+        final String[] responseTypes = new String[totalResponseTypes];
+
+        for (int i = 0 ; i < totalResponseTypes ; i++) {
+            responseTypes[i] = "Response Type " + i;
+
+            if (! manager.getArrayList_responseTypes().contains(responseTypes[i])) {
+                manager.getArrayList_responseTypes().add(responseTypes[i]);
+            }
+        }
+
+        final Context[] contexts = new Context[totalContexts];
+
+        for (int i = 0 ; i < totalContexts ; i++) {
+            final ValueType valueType = COMPARABLE_VALUE_TYPES[sample(random, array_valueTypeWeights, COMPARABLE_VALUE_TYPES)];
+            contexts[i] = new Context("Context " + i, valueType, generateValue(random, valueType));
+            manager.addContext(contexts[i]);
+        }
+
+        final ZipfDistribution eventDistribution = new ZipfDistribution(totalEvents, eventSkew);
+        final ZipfDistribution contextDistribution = new ZipfDistribution(totalContexts, contextSkew);
+
+        for (int i = 0 ; i < totalRules ; i++) {
+            final long lastUsedTime = (random.nextDouble() < usedRuleRatio ? 1 + random.nextInt(86_400_000) : 0);
+            final Rule rule = new Rule(events[eventDistribution.sample(random)], "Rule " + i, lastUsedTime);
+            manager.addRule(rule);
+            manager.addRuleEventAssociation(rule.getEvent(), rule);
+
+            final int totalCriteria = minimumCriteriaPerRule + random.nextInt(maximumCriteriaPerRule - minimumCriteriaPerRule + 1);
+
+            for (int j = 0 ; j < totalCriteria ; j++) {
+                final Context context = contexts[contextDistribution.sample(random)];
+                final ValueType valueType = context.getValueType();
+                final double weight = (isWeighted ? 1 - random.nextDouble() : 1);
+                final Criterion criterion = new Criterion(context, generateComparisonType(random, valueType), valueType,
+                                                          generateValue(random, valueType), weight, false);
+
+                manager.addCriterion(criterion);
+                manager.addRuleCriterionAssociation(rule, criterion);
+            }
+
+            for (int j = 0 ; j < responsesPerRule ; j++) {
+                final Response response = new Response(responseTypes[random.nextInt(totalResponseTypes)], rule.getDescription() + " Response " + j);
+                manager.addResponse(response);
+                manager.addRuleResponseAssociation(rule, response);
+            }
+        }
+    }
+
+    /**
+     * Checks that the settings of the generator can generate a database.
+     *
+     * @throws IllegalStateException
+     *         Thrown if any of the settings are invalid.
+     */
+    private void checkSettings() throws IllegalStateException {
+        if (totalEvents < 1 || totalContexts < 1 || totalValues < 1 || totalResponseTypes < 1) {
+            throw new IllegalStateException("A DatabaseGenerator must generate at-least one Event, Context, value, and response type.");
+        }
+
+        if (totalRules < 0 || responsesPerRule < 0) {
+            throw new IllegalStateException("A DatabaseGenerator cannot generate a negative number of Rules or Responses.");
+        }
+
+        if (minimumCriteriaPerRule < 0 || maximumCriteriaPerRule < minimumCriteriaPerRule) {
+            throw new IllegalStateException("A DatabaseGenerator cannot generate between " + minimumCriteriaPerRule + " and "
+                                            + maximumCriteriaPerRule + " Criterion per Rule.");
+        }
+
+        if (! (eventSkew >= 0) || ! (contextSkew >= 0)) {
+            throw new IllegalStateException("A DatabaseGenerator cannot have a negative skew.");
+        }
+
+        if (! (usedRuleRatio >= 0 && usedRuleRatio <= 1)) {
+            throw new IllegalStateException("A DatabaseGenerator cannot have a used Rule ratio of " + usedRuleRatio + ".");
+        }
+
+        double totalWeight = 0;
+
+        for (final ValueType valueType : COMPARABLE_VALUE_TYPES) {
+            totalWeight += array_valueTypeWeights[valueType.ordinal()];
+        }
+
+        if (totalWeight == 0) {
+            throw new IllegalStateException("A DatabaseGenerator must have at-least one ValueType with a positive weight.");
+        }
+    }
+
+    /**
+     * Draws a ComparisonType that can be used with the specified ValueType.
+     *
+     * @param random
+     *         The Random.
+     *
+     * @param valueType
+     *         The ValueType.
+     *
+     * @return
+     *         The ComparisonType.
+     */
+    private ComparisonType generateComparisonType(final Random random, final ValueType valueType) {
+        final ComparisonType[] comparisonTypes;
+
+        if (valueType == ValueType.BOOLEAN || valueType == ValueType.STRING) {
+            comparisonTypes = new ComparisonType[] { ComparisonType.EQUAL_TO, ComparisonType.NOT_EQUAL_TO };
+        } else {
+            comparisonTypes = ComparisonType.values();
+        }
+
+        // When none of the usable ComparisonTypes have a weight, equality is used:
+        final int index = sample(random, array_comparisonTypeWeights, comparisonTypes);
+        return (index == -1 ? ComparisonType.EQUAL_TO : comparisonTypes[index]);
+    }
+
+    /**
+     * Generates a value of the specified ValueType.
+     *
+     * Numeric values are drawn from 0 to totalValues, and decimal values are
+     * drawn in quarters, so that equality comparisons are sometimes TRUE.
+     *
+     * @param random
+     *         The Random.
+     *
+     * @param valueType
+     *         The ValueType.
+     *
+     * @return
+     *         The value.
+     */
+    private String generateValue(final Random random, final ValueType valueType) {
+        switch (valueType) {
+            case BYTE: {
+                return String.valueOf(random.nextInt(Math.min(totalValues, Byte.MAX_VALUE + 1)));
+            }
+            case SHORT: {
+                return String.valueOf(random.nextInt(Math.min(totalValues, Short.MAX_VALUE + 1)));
+            }
+            case INTEGER:
+            case LONG: {
+                return String.valueOf(random.nextInt(totalValues));
+            }
+            case FLOAT:
+            case DOUBLE: {
+                return String.valueOf(random.nextInt(totalValues) + random.nextInt(4) / 4.0);
+            }
+            case BOOLEAN: {
+                return (random.nextBoolean() ? "TRUE" : "FALSE");
+            }
+            case STRING: {
+                return "Value " + random.nextInt(totalValues);
+            }
+            default: {
+                throw new IllegalArgumentException("The " + valueType + " value type cannot be compared by a Criterion.");
+            }
+        }
+    }
+
+    /**
+     * Draws one of the specified enum constants, by the weights of their
+     * ordinals.
+     *
+     * @param random
+     *         The Random.
+     *
+     * @param weights
+     *         The weight of each constant, by ordinal.
+     *
+     * @param constants
+     *         The constants to draw from.
+     *
+     * @return
+     *         The index of the drawn constant within the constants, or -1 if
+     *         none of the constants have a positive weight.
+     */
+    private static int sample(final Random random, final double[] weights, final Enum<?>[] constants) {
+        double totalWeight = 0;
+
+        for (final Enum<?> constant : constants) {
+            totalWeight += weights[constant.ordinal()];
+        }
+
+        if (totalWeight == 0) {
+            return -1;
+        }
+
+        double target = random.nextDouble() * totalWeight;
+
+        for (int i = 0 ; i < constants.length ; i++) {
+            target -= weights[constants[i].ordinal()];
+
+            if (target < 0) {
+                return i;
+            }
+        }
+
+        // Rounding can leave a little of the target behind, so the last weighted constant is drawn:
+        for (int i = constants.length - 1 ; i >= 0 ; i--) {
+            if (weights[constants[i].ordinal()] > 0) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Determines whether Contexts of the specified ValueType can be compared
+     * by a Criterion.
+     *
+     * @param valueType
+     *         The ValueType.
+     *
+     * @return
+     *         Whether the ValueType can be compared.
+     */
+    private static boolean isComparable(final ValueType valueType) {
+        for (final ValueType comparableValueType : COMPARABLE_VALUE_TYPES) {
+            if (comparableValueType == valueType) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,83 @@
+package com.valkryst.dds.generator;
+
+import lombok.NonNull;
+
+import java.util.Random;
+
+/**
+ * A Zipf distribution over the ranks 0 to n-1, in which the probability of rank k is
+ * proportional to 1 / (k + 1)^s.
+ *
+ * An exponent of zero gives a uniform distribution, and larger exponents concentrate more of
+ * the samples onto the lowest ranks, as the popularity of Events and the sharing of Contexts
+ * tends to be within hand-authored databases.
+ */
+public final class ZipfDistribution {
+    /** The cumulative weight of each rank, and of every rank before it. */
+    private final double[] array_cumulativeWeights;
+
+    /**
+     * Construct a new ZipfDistribution.
+     *
+     * @param size
+     *         The number of ranks.
+     *
+     * @param exponent
+     *         The exponent, s.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the size is not positive, or if the exponent is negative
+     *         or not a number.
+     */
+    public ZipfDistribution(final int size, final double exponent) throws IllegalArgumentException {
+        if (size < 1) {
+            throw new IllegalArgumentException("A ZipfDistribution must have at-least one rank, but was given " + size + ".");
+        }
+
+        if (! (exponent >= 0)) {
+            throw new IllegalArgumentException("A ZipfDistribution cannot have an exponent of " + exponent + ".");
+        }
+
+        array_cumulativeWeights = new double[size];
+        double totalWeight = 0;
+
+        for (int rank = 0 ; rank < size ; rank++) {
+            totalWeight += 1 / Math.pow(rank + 1, exponent);
+            array_cumulativeWeights[rank] = totalWeight;
+        }
+    }
+
+    /**
+     * Samples a rank.
+     *
+     * @param random
+     *         The Random to sample with.
+     *
+     * @return
+     *         The rank.
+     */
+    public int sample(@NonNull final Random random) {
+        final double target = random.nextDouble() * array_cumulativeWeights[array_cumulativeWeights.length - 1];
+
+        // Find the first rank whose cumulative weight exceeds the target:
+        int low = 0;
+        int high = array_cumulativeWeights.length - 1;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (array_cumulativeWeights[middle] <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /** @return The number of ranks. */
+    public int size() {
+        return array_cumulativeWeights.length;
+    }
+}
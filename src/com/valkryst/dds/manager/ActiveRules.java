@@ -0,0 +1,221 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.manager.RuleDatabase.CompiledRule;
+
+/**
+ * The Rules of an EventNetwork that have a positive score within a single RuleEvaluation.
+ *
+ * The active Rules are kept ordered by descending score, so that a selection can stop as soon
+ * as no remaining Rule can beat the best Rule found so far. Scores change a few Rules at a time,
+ * so the order is repaired lazily, with an insertion sort, only when it's next needed.
+ */
+final class ActiveRules {
+    /** The EventNetwork. */
+    final EventNetwork network;
+    /** The RuleEvaluation that holds the scores of the Rules. */
+    final RuleEvaluation evaluation;
+
+    /** The positions of the Rules with a positive score, ordered by descending score once sorted. */
+    private final int[] array_activeRules;
+    /** The index of each Rule within array_activeRules, or -1 if the Rule isn't active. */
+    private final int[] array_activeIndices;
+    /** The number of Rules within array_activeRules. */
+    private int totalActiveRules;
+    /** Whether array_activeRules is ordered by descending score. */
+    private boolean isSorted = true;
+
+    /** The oldest last used time of the Rules, as of the last call to updateLastUsedTimes. */
+    private long oldestLastUsedTime;
+    /** The newest last used time of the Rules, as of the last call to updateLastUsedTimes. */
+    private long newestLastUsedTime;
+    /**
+     * The position of the first Rule that may never have been used.
+     *
+     * Rules never become unused again after being used, so this only moves forward.
+     */
+    private int firstPossiblyUnusedRule;
+
+    /**
+     * Construct a new ActiveRules.
+     *
+     * @param network
+     *         The EventNetwork.
+     *
+     * @param evaluation
+     *         The RuleEvaluation that holds the scores of the Rules.
+     */
+    ActiveRules(final EventNetwork network, final RuleEvaluation evaluation) {
+        this.network = network;
+        this.evaluation = evaluation;
+
+        array_activeRules = new int[network.array_rules.length];
+        array_activeIndices = new int[network.array_rules.length];
+
+        for (int position = 0 ; position < array_activeIndices.length ; position++) {
+            array_activeIndices[position] = -1;
+        }
+    }
+
+    /**
+     * Notifies the set that the score of the Rule at the specified position
+     * has changed, adding or removing it as needed.
+     *
+     * @param position
+     *         The position of the Rule.
+     *
+     * @param isActive
+     *         Whether the Rule now has a positive score.
+     */
+    void updateRule(final int position, final boolean isActive) {
+        final int index = array_activeIndices[position];
+
+        if (isActive && index == -1) {
+            array_activeIndices[position] = totalActiveRules;
+            array_activeRules[totalActiveRules++] = position;
+        } else if (! isActive && index != -1) {
+            // Move the last active Rule into the removed Rule's place:
+            final int lastPosition = array_activeRules[--totalActiveRules];
+            array_activeRules[index] = lastPosition;
+            array_activeIndices[lastPosition] = index;
+            array_activeIndices[position] = -1;
+        }
+
+        isSorted = false;
+    }
+
+    /**
+     * Orders the active Rules by descending score, and then by ascending
+     * position, if they aren't already.
+     *
+     * Only a few Rules change score between selections, so the active Rules
+     * are usually close to sorted, which an insertion sort repairs in close
+     * to linear time.
+     */
+    void sortActiveRules() {
+        if (isSorted) {
+            return;
+        }
+
+        for (int i = 1 ; i < totalActiveRules ; i++) {
+            final int position = array_activeRules[i];
+            final double score = score(position);
+            int j = i - 1;
+
+            while (j >= 0 && isOrderedBefore(score, position, array_activeRules[j])) {
+                array_activeRules[j + 1] = array_activeRules[j];
+                array_activeIndices[array_activeRules[j + 1]] = j + 1;
+                j--;
+            }
+
+            array_activeRules[j + 1] = position;
+            array_activeIndices[position] = j + 1;
+        }
+
+        isSorted = true;
+    }
+
+    /**
+     * Determines whether a Rule belongs before another Rule within the
+     * sorted active Rules.
+     *
+     * @param score
+     *         The score of the Rule.
+     *
+     * @param position
+     *         The position of the Rule.
+     *
+     * @param otherPosition
+     *         The position of the other Rule.
+     *
+     * @return
+     *         Whether the Rule has a higher score than the other Rule, or an
+     *         equal score and a lower position.
+     */
+    private boolean isOrderedBefore(final double score, final int position, final int otherPosition) {
+        final double otherScore = score(otherPosition);
+        return score > otherScore || (score == otherScore && position < otherPosition);
+    }
+
+    /**
+     * Determines the score of the Rule at the specified position.
+     *
+     * @param position
+     *         The position of the Rule.
+     *
+     * @return
+     *         The score of the Rule.
+     */
+    double score(final int position) {
+        return evaluation.score(network.array_rules[position]);
+    }
+
+    /**
+     * Determines the oldest and newest last used times of the Rules, in a
+     * single pass.
+     */
+    void updateLastUsedTimes() {
+        long oldest = Long.MAX_VALUE;
+        long newest = Long.MIN_VALUE;
+
+        for (final CompiledRule rule : network.array_rules) {
+            final long lastUsedTime = rule.rule.getLastUsedTime();
+            oldest = Math.min(oldest, lastUsedTime);
+            newest = Math.max(newest, lastUsedTime);
+        }
+
+        oldestLastUsedTime = oldest;
+        newestLastUsedTime = newest;
+    }
+
+    /** @return The oldest last used time of the Rules, as of the last call to updateLastUsedTimes. */
+    long getOldestLastUsedTime() {
+        return oldestLastUsedTime;
+    }
+
+    /** @return The newest last used time of the Rules, as of the last call to updateLastUsedTimes. */
+    long getNewestLastUsedTime() {
+        return newestLastUsedTime;
+    }
+
+    /** @return The number of Rules with a positive score. */
+    int getTotalActiveRules() {
+        return totalActiveRules;
+    }
+
+    /**
+     * Retrieves an active Rule.
+     *
+     * The active Rules are only ordered by descending score after a call to
+     * sortActiveRules.
+     *
+     * @param index
+     *         The index of the Rule within the set of active Rules.
+     *
+     * @return
+     *         The position of the Rule.
+     */
+    int getActiveRule(final int index) {
+        return array_activeRules[index];
+    }
+
+    /**
+     * Determines whether any of the Rules has a score of exactly zero,
+     * rather than a positive score or no score at all.
+     *
+     * @return
+     *         Whether any of the Rules has a score of zero.
+     */
+    boolean hasZeroScoredRule() {
+        return network.getTotalScorableRules() > totalActiveRules;
+    }
+
+    /** @return Whether at-least one Rule has never been used. */
+    boolean hasUnusedRule() {
+        while (firstPossiblyUnusedRule < network.array_rules.length
+               && network.array_rules[firstPossiblyUnusedRule].rule.getLastUsedTime() != 0) {
+            firstPossiblyUnusedRule++;
+        }
+
+        return firstPossiblyUnusedRule < network.array_rules.length;
+    }
+}
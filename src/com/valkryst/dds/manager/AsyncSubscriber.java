@@ -0,0 +1,391 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.object.Response;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A subscriber that hands each Response to another subscriber on an Executor, so that the
+ * thread which determined the Response only pays for queueing it.
+ *
+ * Each AsyncSubscriber has its own bounded queue, which is drained in order by at most one
+ * task at a time, so its subscriber is never called concurrently. The Executor can be
+ * dedicated to the subscriber, such as a single thread executor, or shared with other
+ * subscribers, in which case each drain task hands its thread back after handling a queue's
+ * worth of Responses.
+ *
+ * When a Response arrives while the queue is full, the OverflowPolicy decides whether a queued
+ * Response is dropped, or the publishing thread waits. The BLOCK policy must not be used with
+ * an Executor that runs tasks on the publishing thread, as the queue would then never drain.
+ *
+ * Exceptions thrown by the subscriber are counted and otherwise ignored, so that one failed
+ * Response doesn't stop the Responses queued after it.
+ */
+public final class AsyncSubscriber implements Notifiable {
+    /** The subscriber to hand each Response to. */
+    @Getter private final Notifiable subscriber;
+    /** The way in which a Response that arrives while the queue is full is handled. */
+    @Getter private final OverflowPolicy overflowPolicy;
+    /** The Executor that drains the queue. */
+    private final Executor executor;
+
+    /** The lock that guards the queue. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled whenever a Response is taken from the queue. */
+    private final Condition notFull = lock.newCondition();
+    /** Signalled whenever the queue has been emptied and its drain task has finished. */
+    private final Condition drained = lock.newCondition();
+
+    /** The DDSManager that determined each queued Response, as a ring buffer. */
+    private final DDSManager[] array_managers;
+    /** The queued Responses, as a ring buffer. */
+    private final Response[] array_responses;
+    /** The time at which each queued Response was first queued, in nanoseconds. */
+    private final long[] array_queuedTimes;
+    /** The index of the oldest queued Response. */
+    private int head;
+    /** The number of queued Responses. */
+    private int size;
+    /** Whether a drain task has been submitted, and hasn't yet finished. */
+    private boolean isDraining;
+
+    /** The task that drains the queue. */
+    private final Runnable drainTask = this::drain;
+
+    /** The number of Responses handed to the subscriber. */
+    private final LongAdder handled = new LongAdder();
+    /** The number of Responses that were dropped, without being handed to the subscriber. */
+    private final LongAdder dropped = new LongAdder();
+    /** The number of Responses that replaced a queued Response, under the COALESCE policy. */
+    private final LongAdder coalesced = new LongAdder();
+    /** The number of Responses whose handling threw an exception. */
+    private final LongAdder failed = new LongAdder();
+    /** The longest time that any Response has waited in the queue before being handled, in nanoseconds. */
+    private volatile long maximumLagNanos;
+
+    /**
+     * Construct a new AsyncSubscriber.
+     *
+     * @param subscriber
+     *         The subscriber to hand each Response to.
+     *
+     * @param capacity
+     *         The largest number of Responses that can be queued.
+     *
+     * @param overflowPolicy
+     *         The way in which a Response that arrives while the queue is full
+     *         is handled.
+     *
+     * @param executor
+     *         The Executor that drains the queue.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the capacity is not positive.
+     */
+    public AsyncSubscriber(@NonNull final Notifiable subscriber, final int capacity, @NonNull final OverflowPolicy overflowPolicy,
+                           @NonNull final Executor executor) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of an AsyncSubscriber must be positive, but was " + capacity + ".");
+        }
+
+        this.subscriber = subscriber;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+
+        array_managers = new DDSManager[capacity];
+        array_responses = new Response[capacity];
+        array_queuedTimes = new long[capacity];
+    }
+
+    /**
+     * Queues a Response to be handed to the subscriber.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the Response.
+     *
+     * @param response
+     *         The Response.
+     *
+     * @throws RejectedExecutionException
+     *         Thrown if the Executor rejects the task that drains the queue.
+     */
+    @Override
+    public void handleResponse(final DDSManager ddsManager, final Response response) throws RejectedExecutionException {
+        lock.lock();
+
+        try {
+            if (size == array_responses.length && ! makeRoom(ddsManager, response)) {
+                return;
+            }
+
+            final int tail = (head + size++) % array_responses.length;
+            array_managers[tail] = ddsManager;
+            array_responses[tail] = response;
+            array_queuedTimes[tail] = System.nanoTime();
+
+            if (isDraining) {
+                return;
+            }
+
+            isDraining = true;
+        } finally {
+            lock.unlock();
+        }
+
+        schedule();
+    }
+
+    /**
+     * Makes room in the full queue for a new Response, according to the
+     * OverflowPolicy.
+     *
+     * Must be called while holding the lock.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the new Response.
+     *
+     * @param response
+     *         The new Response.
+     *
+     * @return
+     *         Whether the new Response must still be queued, rather than
+     *         having replaced a queued Response, or having been dropped.
+     */
+    private boolean makeRoom(final DDSManager ddsManager, final Response response) {
+        switch (overflowPolicy) {
+            case BLOCK: {
+                while (size == array_responses.length) {
+                    try {
+                        notFull.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+            case COALESCE: {
+                for (int i = size - 1 ; i >= 0 ; i--) {
+                    final int index = (head + i) % array_responses.length;
+
+                    if (array_responses[index].getResponseType().equals(response.getResponseType())) {
+                        // The replaced Response's queued time is kept, so that the lag isn't hidden:
+                        array_managers[index] = ddsManager;
+                        array_responses[index] = response;
+                        coalesced.increment();
+                        return false;
+                    }
+                }
+
+                removeHead();
+                dropped.increment();
+                return true;
+            }
+            default: {
+                removeHead();
+                dropped.increment();
+                return true;
+            }
+        }
+    }
+
+    /** Removes the oldest queued Response, which must exist, while holding the lock. */
+    private void removeHead() {
+        array_managers[head] = null;
+        array_responses[head] = null;
+        head = (head + 1) % array_responses.length;
+        size--;
+    }
+
+    /**
+     * Submits the task that drains the queue.
+     *
+     * @throws RejectedExecutionException
+     *         Thrown if the Executor rejects the task.
+     */
+    private void schedule() throws RejectedExecutionException {
+        try {
+            executor.execute(drainTask);
+        } catch (final RejectedExecutionException e) {
+            lock.lock();
+
+            try {
+                isDraining = false;
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Hands queued Responses to the subscriber, in order, until either the
+     * queue is empty or a queue's worth of Responses has been handled, in
+     * which case the task is re-submitted so that it shares the Executor.
+     *
+     * If the subscriber throws an Error, the task is still re-submitted
+     * before the Error is rethrown, so that the Responses queued after it
+     * are still handled.
+     */
+    private void drain() {
+        boolean isEmptied = false;
+
+        try {
+            for (int i = 0 ; i < array_responses.length ; i++) {
+                final DDSManager ddsManager;
+                final Response response;
+
+                lock.lock();
+
+                try {
+                    if (size == 0) {
+                        isDraining = false;
+                        drained.signalAll();
+                        isEmptied = true;
+                        return;
+                    }
+
+                    ddsManager = array_managers[head];
+                    response = array_responses[head];
+
+                    final long lagNanos = System.nanoTime() - array_queuedTimes[head];
+
+                    if (lagNanos > maximumLagNanos) {
+                        maximumLagNanos = lagNanos;
+                    }
+
+                    removeHead();
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    subscriber.handleResponse(ddsManager, response);
+                } catch (final RuntimeException e) {
+                    failed.increment();
+                } catch (final Error e) {
+                    failed.increment();
+                    throw e;
+                } finally {
+                    handled.increment();
+                }
+            }
+        } finally {
+            if (! isEmptied) {
+                reschedule();
+            }
+        }
+    }
+
+    /**
+     * Re-submits the task that drains the queue, from the end of the task.
+     *
+     * If the Executor rejects the task, schedule clears isDraining, so that
+     * the next Response to arrive submits the task again, and anyone waiting
+     * for the queue to drain is woken. There's no publisher to report the
+     * rejection to, so it isn't rethrown.
+     */
+    private void reschedule() {
+        try {
+            schedule();
+        } catch (final RejectedExecutionException ignored) {}
+    }
+
+    /**
+     * Waits until every queued Response has been handed to the subscriber.
+     *
+     * @param timeout
+     *         The longest time to wait.
+     *
+     * @param unit
+     *         The unit of the timeout.
+     *
+     * @return
+     *         Whether the queue was drained before the timeout elapsed.
+     *
+     * @throws InterruptedException
+     *         Thrown if the current thread is interrupted while waiting.
+     */
+    public boolean awaitDrained(final long timeout, @NonNull final TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lock();
+
+        try {
+            while (size > 0 || isDraining) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+
+                remainingNanos = drained.awaitNanos(remainingNanos);
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return The largest number of Responses that can be queued. */
+    public int getCapacity() {
+        return array_responses.length;
+    }
+
+    /** @return The number of queued Responses. */
+    public int getDepth() {
+        lock.lock();
+
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return The time that the oldest queued Response has been waiting, in nanoseconds, or zero if none are queued. */
+    public long getLagNanos() {
+        lock.lock();
+
+        try {
+            return (size == 0 ? 0 : System.nanoTime() - array_queuedTimes[head]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return The longest time that any Response has waited in the queue before being handled, in nanoseconds. */
+    public long getMaximumLagNanos() {
+        return maximumLagNanos;
+    }
+
+    /** @return The number of Responses handed to the subscriber. */
+    public long getHandledCount() {
+        return handled.sum();
+    }
+
+    /** @return The number of Responses that were dropped, without being handed to the subscriber. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** @return The number of Responses that replaced a queued Response, under the COALESCE policy. */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /** @return The number of Responses whose handling threw an exception. */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
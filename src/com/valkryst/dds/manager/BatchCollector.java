@@ -0,0 +1,92 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.metrics.MetricsListener;
+import com.valkryst.dds.object.Response;
+
+import java.util.Arrays;
+
+/**
+ * Collects the Responses of one publication into a ResponseBatch for each BatchNotifiable
+ * that subscribes to them, then hands each batch to its subscriber.
+ *
+ * A BatchCollector is pooled by the Publisher, and is only used by one thread at a time.
+ */
+final class BatchCollector {
+    /** The subscribers that have a batch, in the order that their first Response was collected. */
+    private BatchNotifiable[] array_subscribers = new BatchNotifiable[4];
+    /** The batch of each subscriber, which are kept and reused once they've been delivered. */
+    private ResponseBatch[] array_batches = new ResponseBatch[4];
+    /** The number of subscribers that have a batch. */
+    private int size;
+
+    /**
+     * Adds a Response to a subscriber's batch.
+     *
+     * @param subscriber
+     *         The subscriber.
+     *
+     * @param response
+     *         The Response.
+     */
+    void add(final BatchNotifiable subscriber, final Response response) {
+        // There are rarely more than a few batch subscribers, so they're found by a linear search:
+        for (int i = 0 ; i < size ; i++) {
+            if (array_subscribers[i] == subscriber) {
+                array_batches[i].add(response);
+                return;
+            }
+        }
+
+        if (size == array_subscribers.length) {
+            array_subscribers = Arrays.copyOf(array_subscribers, size * 2);
+            array_batches = Arrays.copyOf(array_batches, size * 2);
+        }
+
+        if (array_batches[size] == null) {
+            array_batches[size] = new ResponseBatch(8);
+        }
+
+        array_subscribers[size] = subscriber;
+        array_batches[size].add(response);
+        size++;
+    }
+
+    /**
+     * Hands each batch to its subscriber, then empties the collector.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the Responses.
+     *
+     * @param metricsListener
+     *         The listener to measure each subscriber's handleResponses with,
+     *         or null if they aren't measured.
+     */
+    void deliver(final DDSManager ddsManager, final MetricsListener metricsListener) {
+        try {
+            for (int i = 0 ; i < size ; i++) {
+                final BatchNotifiable subscriber = array_subscribers[i];
+                final ResponseBatch batch = array_batches[i];
+
+                if (metricsListener == null) {
+                    subscriber.handleResponses(ddsManager, batch);
+                } else {
+                    final long startTime = System.nanoTime();
+                    subscriber.handleResponses(ddsManager, batch);
+                    metricsListener.onResponseHandled(batch.get(0).getResponseType(), subscriber, System.nanoTime() - startTime);
+                }
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    /** Empties the collector, without handing any batch to its subscriber. */
+    void clear() {
+        for (int i = 0 ; i < size ; i++) {
+            array_subscribers[i] = null;
+            array_batches[i].clear();
+        }
+
+        size = 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.object.Response;
+
+/**
+ * A subscriber that handles all of the Responses of its response types which are published
+ * together as one batch, rather than one at a time.
+ *
+ * The Publisher hands a BatchNotifiable one batch for each determineResponse, and one batch
+ * for each call to determineResponses, which holds the Responses of every query of the call.
+ * The Responses of a batch are in the order that they were published.
+ */
+public interface BatchNotifiable extends Notifiable {
+    /**
+     * Handles a batch of Responses.
+     *
+     * The batch is reused once this returns, so it must not be kept.
+     *
+     * @param ddsManager
+     *         The data manager that handles all data within the Dynamic Dialog System.
+     *
+     * @param batch
+     *         The Responses to fulfill, which is never empty.
+     */
+    void handleResponses(final DDSManager ddsManager, final ResponseBatch batch);
+
+    /**
+     * Handles a single Response, as a batch of one, when it isn't published
+     * by a Publisher.
+     *
+     * @param ddsManager
+     *         The data manager that handles all data within the Dynamic Dialog System.
+     *
+     * @param response
+     *         The response to fulfill.
+     */
+    @Override
+    default void handleResponse(final DDSManager ddsManager, final Response response) {
+        final ResponseBatch batch = new ResponseBatch(1);
+        batch.add(response);
+        handleResponses(ddsManager, batch);
+    }
+}
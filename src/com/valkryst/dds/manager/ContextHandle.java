@@ -0,0 +1,37 @@
+package com.valkryst.dds.manager;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * A resolved reference to a Context within a DDSManager.
+ *
+ * Reading or writing a Context through its handle is an array index into the
+ * DDSManager's Context slots, rather than a lookup by name. A handle is only
+ * valid for the DDSManager that created it.
+ */
+@ToString
+public final class ContextHandle implements Serializable {
+    private static final long serialVersionUID = 3349615093071651206L;
+
+    /** The name of the Context. */
+    @Getter private final String name;
+    /** The slot of the Context within its DDSManager. */
+    @Getter private final int slot;
+
+    /**
+     * Construct a new ContextHandle.
+     *
+     * @param name
+     *         The name of the Context.
+     *
+     * @param slot
+     *         The slot of the Context within its DDSManager.
+     */
+    ContextHandle(final String name, final int slot) {
+        this.name = name;
+        this.slot = slot;
+    }
+}
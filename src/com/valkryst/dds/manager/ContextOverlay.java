@@ -0,0 +1,189 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.object.Context;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * A sparse layer of Contexts that override some of the Contexts of a DDSManager, for the
+ * duration of a single query.
+ *
+ * Overlays are chained, so a per-query overlay can be layered on top of a per-entity overlay,
+ * which is in turn layered on top of the DDSManager's own Contexts. When several layers
+ * override the same slot, the nearest layer wins.
+ *
+ * An overlay only holds the slots that it overrides, so any number of entities can share a
+ * single DDSManager and its compiled Rules. An overlay must not be changed while it is being
+ * used by a query.
+ */
+public final class ContextOverlay {
+    /** The overlay beneath this overlay, or null if this overlay is directly above the DDSManager. */
+    @Getter private final ContextOverlay parent;
+
+    /** The overridden slots. */
+    private int[] array_slots = new int[0];
+    /** The overriding Contexts, in the same order as their slots. */
+    private Context[] array_contexts = new Context[0];
+    /** The number of overridden slots. */
+    private int totalOverrides;
+
+    /** Construct a new ContextOverlay directly above a DDSManager. */
+    public ContextOverlay() {
+        this(null);
+    }
+
+    /**
+     * Construct a new ContextOverlay above another overlay.
+     *
+     * @param parent
+     *         The overlay beneath the new overlay, or null if the new overlay is
+     *         directly above the DDSManager.
+     */
+    public ContextOverlay(final ContextOverlay parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Overrides the Context of the specified slot.
+     *
+     * The overriding Context must have the same ValueType as the Context that
+     * it overrides.
+     *
+     * @param handle
+     *         The handle of the slot to override.
+     *
+     * @param context
+     *         The overriding Context.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the Context's name differs from the name of the handle.
+     */
+    public void put(@NonNull final ContextHandle handle, @NonNull final Context context) throws IllegalArgumentException {
+        if (! handle.getName().equals(context.getName())) {
+            throw new IllegalArgumentException("The Context '" + context.getName() + "' cannot override the Context '"
+                                               + handle.getName() + "'.");
+        }
+
+        final int index = indexOf(handle.getSlot());
+
+        if (index != -1) {
+            array_contexts[index] = context;
+            return;
+        }
+
+        if (totalOverrides == array_slots.length) {
+            array_slots = Arrays.copyOf(array_slots, Math.max(4, totalOverrides * 2));
+            array_contexts = Arrays.copyOf(array_contexts, array_slots.length);
+        }
+
+        array_slots[totalOverrides] = handle.getSlot();
+        array_contexts[totalOverrides++] = context;
+    }
+
+    /**
+     * Removes the override of the specified slot from this overlay.
+     *
+     * @param handle
+     *         The handle of the overridden slot.
+     */
+    public void remove(@NonNull final ContextHandle handle) {
+        final int index = indexOf(handle.getSlot());
+
+        if (index != -1) {
+            // Move the last override into the removed override's place:
+            totalOverrides--;
+            array_slots[index] = array_slots[totalOverrides];
+            array_contexts[index] = array_contexts[totalOverrides];
+            array_contexts[totalOverrides] = null;
+        }
+    }
+
+    /**
+     * Retrieves the Context that overrides the specified slot, within this
+     * overlay or any overlay beneath it.
+     *
+     * @param handle
+     *         The handle of the slot.
+     *
+     * @return
+     *         The overriding Context, or null if the slot isn't overridden.
+     */
+    public Context get(@NonNull final ContextHandle handle) {
+        return get(handle.getSlot());
+    }
+
+    /**
+     * Retrieves the Context that overrides the specified slot, within this
+     * overlay or any overlay beneath it.
+     *
+     * @param slot
+     *         The slot.
+     *
+     * @return
+     *         The overriding Context, or null if the slot isn't overridden.
+     */
+    Context get(final int slot) {
+        for (ContextOverlay overlay = this ; overlay != null ; overlay = overlay.parent) {
+            final int index = overlay.indexOf(slot);
+
+            if (index != -1) {
+                return overlay.array_contexts[index];
+            }
+        }
+
+        return null;
+    }
+
+    /** @return The number of slots overridden by this overlay, excluding the overlays beneath it. */
+    int getTotalOverrides() {
+        return totalOverrides;
+    }
+
+    /**
+     * Retrieves an overridden slot of this overlay.
+     *
+     * @param index
+     *         The index of the override.
+     *
+     * @return
+     *         The slot.
+     */
+    int getSlot(final int index) {
+        return array_slots[index];
+    }
+
+    /**
+     * Retrieves an overriding Context of this overlay.
+     *
+     * @param index
+     *         The index of the override.
+     *
+     * @return
+     *         The Context.
+     */
+    Context getContext(final int index) {
+        return array_contexts[index];
+    }
+
+    /**
+     * Finds the index of the override of the specified slot within this
+     * overlay.
+     *
+     * @param slot
+     *         The slot.
+     *
+     * @return
+     *         The index, or -1 if this overlay doesn't override the slot.
+     */
+    private int indexOf(final int slot) {
+        for (int i = 0 ; i < totalOverrides ; i++) {
+            if (array_slots[i] == slot) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
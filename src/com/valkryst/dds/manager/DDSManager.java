@@ -1,11 +1,17 @@
 package com.valkryst.dds.manager;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.valkryst.dds.manager.RuleDatabase.CompiledRule;
+import com.valkryst.dds.metrics.DialogQueryEvent;
+import com.valkryst.dds.metrics.FlightRecording;
+import com.valkryst.dds.metrics.MetricsListener;
+import com.valkryst.dds.metrics.SelectionCase;
 import com.valkryst.dds.object.*;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.Setter;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -20,10 +26,15 @@ public class DDSManager implements Serializable {
 
 
     /** The Events that can be used by the Dynamic Dialog System. */
-    @Getter @Setter @NonNull private ArrayList<String> arrayList_events;
+    @Getter @NonNull private ArrayList<String> arrayList_events;
 
     /** The ResponseTypes that can be used by the Dynamic Dialog System. */
-    @Getter @Setter @NonNull private ArrayList<String> arrayList_responseTypes;
+    @Getter @NonNull private ArrayList<String> arrayList_responseTypes;
+
+    /** The SymbolTable that interns every Event that has been added or associated with a Rule. */
+    private SymbolTable symbolTable_events = new SymbolTable();
+    /** The IDs of the Events within arrayList_events. */
+    private BitSet bitSet_addedEvents = new BitSet();
 
 
 
@@ -36,6 +47,10 @@ public class DDSManager implements Serializable {
 
     /** The HashMap of Contexts. */
     @Getter private final HashMap<String, Context> hashMap_contexts = new HashMap<>();
+    /** The ArrayList containing all Contexts, with their slots as indices. */
+    private ArrayList<Context> arrayList_contextSlots = new ArrayList<>();
+    /** The HashMap containing the handle of each Context slot, with the Context names as Keys. */
+    private HashMap<String, ContextHandle> hashMap_contextHandles = new HashMap<>();
 
     /** The ArrayListMultimap containing all associations between each Event and the Rules that it triggers. */
     private ArrayListMultimap<String, Rule> arrayListMultimap_ruleEventAssociations = ArrayListMultimap.create();
@@ -53,6 +68,15 @@ public class DDSManager implements Serializable {
     /** The ConcurrentHashMap containing Rule IDs and the time at which they were last used. */
     private ConcurrentHashMap<Rule, Long> hashMap_rules_lastUsedTime = new ConcurrentHashMap<>();
 
+    /** The compiled associations, or null if they must be recompiled. */
+    private transient volatile RuleDatabase ruleDatabase;
+    /** The strategy used to split batches of queries across threads, or null to use the default strategy. */
+    private transient volatile EvaluationStrategy evaluationStrategy;
+    /** The listener to measure each query with, or null if queries aren't measured. */
+    private transient volatile MetricsListener metricsListener;
+    /** The tracer to record a sample of the queries with, or null if queries aren't traced. */
+    private transient volatile SelectionTracer selectionTracer;
+
     /**
      * Construct a new DDSManager.
      *
@@ -63,61 +87,387 @@ public class DDSManager implements Serializable {
      *         The ResponseTypes that can be used by the Dynamic Dialog system.
      */
     public DDSManager(final ArrayList<String> arrayList_events, final ArrayList<String> arrayList_responseTypes) {
-        this.arrayList_events = arrayList_events;
-        this.arrayList_responseTypes = arrayList_responseTypes;
+        setArrayList_events(arrayList_events);
+        setArrayList_responseTypes(arrayList_responseTypes);
     }
 
 
     /**
-     * Updates all of the Criterions associated with the specified Rule.
+     * Determines which of the Rules triggered by the specified Event should
+     * be responded to, then publishes the Responses of that Rule.
      *
-     * @param rule
-     *         The Rule whose associated Criterions are to be updated.
+     * Any number of threads may determine responses concurrently, as each
+     * query evaluates the Rules within its own pooled RuleEvaluation. The
+     * Rules, Criterion, and associations of the Dynamic Dialog System must
+     * not be changed while responses are being determined, but the values
+     * of its Contexts may be.
      *
-     * @return
-     *         The total number of Criterions who, after being updated, evaluate
-     *         to TRUE.
+     * @param event
+     *         The Event.
      */
-    private int updateRuleCriterion(final Rule rule) {
-        int isTrueCounter = 0;
+    public void determineResponse(final String event) {
+        determineResponse(symbolTable_events.getId(event), null);
+    }
 
-        // Update the Data:
-        for(final Criterion criterion : arrayListMultimap_ruleCriterionAssociations.get(rule)) {
-            criterion.update();
+    /**
+     * Determines which of the Rules triggered by the specified Event should
+     * be responded to, then publishes the Responses of that Rule.
+     *
+     * @param eventId
+     *         The ID of the Event, as returned by getEventId.
+     */
+    public void determineResponse(final int eventId) {
+        determineResponse(eventId, null);
+    }
 
-            isTrueCounter += (criterion.isTrue() ? 1 : 0);
+    /**
+     * Determines which of the Rules triggered by the specified Event should
+     * be responded to, with some of the Contexts of the Dynamic Dialog System
+     * overridden, then publishes the Responses of that Rule.
+     *
+     * The overlay only affects this query, so any number of entities can
+     * share one Dynamic Dialog System by each querying it with their own
+     * overlay.
+     *
+     * @param event
+     *         The Event.
+     *
+     * @param overlay
+     *         The Contexts that override the Contexts of the Dynamic Dialog
+     *         System, or null if none are overridden.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if an overriding Context has a different ValueType than the
+     *         Context that it overrides.
+     */
+    public void determineResponse(final String event, final ContextOverlay overlay) throws IllegalArgumentException {
+        determineResponse(symbolTable_events.getId(event), overlay);
+    }
+
+    /**
+     * Determines which of the Rules triggered by the specified Event should
+     * be responded to, with some of the Contexts of the Dynamic Dialog System
+     * overridden, then publishes the Responses of that Rule.
+     *
+     * @param eventId
+     *         The ID of the Event, as returned by getEventId.
+     *
+     * @param overlay
+     *         The Contexts that override the Contexts of the Dynamic Dialog
+     *         System, or null if none are overridden.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if an overriding Context has a different ValueType than the
+     *         Context that it overrides.
+     */
+    public void determineResponse(final int eventId, final ContextOverlay overlay) throws IllegalArgumentException {
+        final MetricsListener metricsListener = this.metricsListener;
+        final long startTime = (metricsListener == null ? 0 : System.nanoTime());
+        final DialogQueryEvent queryEvent = FlightRecording.beginQuery();
+
+        final RuleDatabase ruleDatabase = getRuleDatabase();
+        final RuleEvaluation evaluation = ruleDatabase.acquireEvaluation();
+        final CompiledRule rule;
+        final SelectionCase selectionCase;
+        final int totalScannedRules;
+        final int totalEvaluatedConditions;
+
+        try {
+            evaluation.totalEvaluatedConditions = 0;
+            evaluation.refresh();
+            rule = determineRule(evaluation, eventId, overlay);
+
+            selectionCase = evaluation.selectionCase;
+            totalScannedRules = evaluation.totalScannedRules;
+            totalEvaluatedConditions = evaluation.totalEvaluatedConditions;
+        } finally {
+            ruleDatabase.releaseEvaluation(evaluation);
+        }
+
+        if (rule != null) {
+            respondTo(rule);
+        }
+
+        if (metricsListener != null) {
+            metricsListener.onEvaluation(getEvent(eventId), selectionCase, rule != null, totalScannedRules,
+                                         totalEvaluatedConditions, System.nanoTime() - startTime);
         }
 
-        return isTrueCounter;
+        if (queryEvent != null) {
+            FlightRecording.commitQuery(queryEvent, getEvent(eventId), getTotalCandidateRules(ruleDatabase, eventId),
+                                        totalScannedRules, totalEvaluatedConditions, selectionCase,
+                                        (rule == null ? null : rule.rule));
+        }
     }
 
-    public void determineResponse(final String event) {
-        // Determine the Triggered Rules and their Scores:
-        final List<Rule> set_triggeredRules = arrayListMultimap_ruleEventAssociations.get(event);
-        final ConcurrentHashMap<Rule, Double> hashMap_scores = new ConcurrentHashMap<>();
-
-        set_triggeredRules.parallelStream()
-                .forEachOrdered(rule -> {
-                    updateRuleCriterion(rule);
-                    hashMap_scores.put(rule, determineCriterionWeight(rule));
-                });
+    /**
+     * Determines which Rule should be responded to for each of the specified
+     * queries, then publishes the Responses of all of those Rules at once,
+     * so that each BatchNotifiable handles them in a single batch.
+     *
+     * The Contexts of the Dynamic Dialog System are evaluated once for the
+     * whole batch, and the queries are then answered in order, so a Rule
+     * that is used by one query counts as used for the queries after it.
+     *
+     * Costly batches may be split into parts that are evaluated on other
+     * threads, as decided by the EvaluationStrategy. The queries within
+     * each part are still answered in order, but a Rule that is used by
+     * one part may not yet count as used by the other parts.
+     *
+     * @param queries
+     *         The queries.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if an overriding Context of a query has a different
+     *         ValueType than the Context that it overrides. Every overlay is
+     *         checked before any query is answered, so no Rule is marked as
+     *         used and no Responses are published if this is thrown.
+     */
+    public void determineResponses(final Collection<EventQuery> queries) throws IllegalArgumentException {
+        final RuleDatabase ruleDatabase = getRuleDatabase();
+        final EventQuery[] array_queries = queries.toArray(new EventQuery[queries.size()]);
+        final int[] array_eventIds = new int[array_queries.length];
+        final CompiledRule[] array_chosenRules = new CompiledRule[array_queries.length];
+
+        // Estimate the cost of the batch by the Rules and Criterion of each queried Event:
+        long cost = 0;
+
+        for (int i = 0 ; i < array_queries.length ; i++) {
+            // Every overlay is checked before any Rule is marked as used, so that a rejected batch leaves no trace:
+            ruleDatabase.checkOverlay(array_queries[i].getOverlay());
+
+            array_eventIds[i] = symbolTable_events.getId(array_queries[i].getEvent());
+            final EventNetwork network = ruleDatabase.getNetwork(array_eventIds[i]);
+
+            if (network != null) {
+                cost += network.getCost();
+            }
+        }
+
+        final EvaluationStrategy evaluationStrategy = getEvaluationStrategy();
+        final int parallelism = Math.min(array_queries.length, evaluationStrategy.getParallelism(cost));
+
+        if (parallelism <= 1) {
+            determineRules(ruleDatabase, array_queries, array_eventIds, 0, array_queries.length, array_chosenRules);
+        } else {
+            final Runnable[] tasks = new Runnable[parallelism];
+
+            for (int i = 0 ; i < parallelism ; i++) {
+                final int start = (int) ((long) array_queries.length * i / parallelism);
+                final int end = (int) ((long) array_queries.length * (i + 1) / parallelism);
+                tasks[i] = () -> determineRules(ruleDatabase, array_queries, array_eventIds, start, end, array_chosenRules);
+            }
+
+            evaluationStrategy.run(tasks);
+        }
+
+        // The Responses of every query are published as one batch:
+        final BatchCollector collector = publisher.beginBatch();
+
+        try {
+            for (final CompiledRule rule : array_chosenRules) {
+                if (rule != null) {
+                    publisher.publishResponses(this, rule.array_responses, rule.array_responseTypes, collector);
+                }
+            }
+
+            publisher.endBatch(this, collector);
+        } finally {
+            publisher.releaseCollector(collector);
+        }
+    }
+
+    /**
+     * Determines which Rule should be responded to for a range of queries,
+     * within a single pooled RuleEvaluation, and marks each chosen Rule as
+     * used.
+     *
+     * @param ruleDatabase
+     *         The compiled associations.
+     *
+     * @param array_queries
+     *         The queries.
+     *
+     * @param array_eventIds
+     *         The ID of the Event of each query.
+     *
+     * @param start
+     *         The index of the first query of the range.
+     *
+     * @param end
+     *         The index after the last query of the range.
+     *
+     * @param array_chosenRules
+     *         The array to store the chosen Rule of each query into, or null
+     *         if no Rule should be responded to.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if an overriding Context of a query has a different
+     *         ValueType than the Context that it overrides.
+     */
+    private void determineRules(final RuleDatabase ruleDatabase, final EventQuery[] array_queries, final int[] array_eventIds,
+                                final int start, final int end, final CompiledRule[] array_chosenRules) throws IllegalArgumentException {
+        final MetricsListener metricsListener = this.metricsListener;
+        final RuleEvaluation evaluation = ruleDatabase.acquireEvaluation();
+
+        try {
+            evaluation.totalEvaluatedConditions = 0;
+            evaluation.refresh();
+
+            for (int i = start ; i < end ; i++) {
+                final long startTime = (metricsListener == null ? 0 : System.nanoTime());
+                final DialogQueryEvent queryEvent = FlightRecording.beginQuery();
+                final CompiledRule rule = determineRule(evaluation, array_eventIds[i], array_queries[i].getOverlay());
+
+                if (rule != null) {
+                    rule.rule.updateLastUsedTime();
+                }
+
+                array_chosenRules[i] = rule;
+
+                if (metricsListener != null) {
+                    metricsListener.onEvaluation(getEvent(array_eventIds[i]), evaluation.selectionCase, rule != null,
+                                                 evaluation.totalScannedRules, evaluation.totalEvaluatedConditions,
+                                                 System.nanoTime() - startTime);
+                }
+
+                if (queryEvent != null) {
+                    FlightRecording.commitQuery(queryEvent, getEvent(array_eventIds[i]),
+                                                getTotalCandidateRules(ruleDatabase, array_eventIds[i]),
+                                                evaluation.totalScannedRules, evaluation.totalEvaluatedConditions,
+                                                evaluation.selectionCase, (rule == null ? null : rule.rule));
+                }
+
+                evaluation.totalEvaluatedConditions = 0;
+            }
+        } finally {
+            ruleDatabase.releaseEvaluation(evaluation);
+        }
+    }
+
+    /**
+     * Determines which of the Rules triggered by an Event should be
+     * responded to, within a refreshed RuleEvaluation.
+     *
+     * @param evaluation
+     *         The RuleEvaluation.
+     *
+     * @param eventId
+     *         The ID of the Event.
+     *
+     * @param overlay
+     *         The Contexts that override the Contexts of the Dynamic Dialog
+     *         System, or null if none are overridden.
+     *
+     * @return
+     *         The Rule, or null if no Rule should be responded to.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if an overriding Context has a different ValueType than the
+     *         Context that it overrides.
+     */
+    private CompiledRule determineRule(final RuleEvaluation evaluation, final int eventId, final ContextOverlay overlay) throws IllegalArgumentException {
+        final SelectionTracer selectionTracer = this.selectionTracer;
+
+        if (overlay == null) {
+            return determineRule(evaluation, eventId, overlay, selectionTracer);
+        }
+
+        try {
+            evaluation.applyOverlay(overlay);
+            return determineRule(evaluation, eventId, overlay, selectionTracer);
+        } finally {
+            evaluation.removeOverlay();
+        }
+    }
+
+    /**
+     * Determines which of the Rules triggered by an Event should be
+     * responded to, within a refreshed RuleEvaluation that has the query's
+     * overlay applied, tracing the selection if it's sampled.
+     *
+     * @param evaluation
+     *         The RuleEvaluation.
+     *
+     * @param eventId
+     *         The ID of the Event.
+     *
+     * @param overlay
+     *         The applied ContextOverlay, or null if none is applied.
+     *
+     * @param selectionTracer
+     *         The tracer to record the selection with, or null if queries
+     *         aren't traced.
+     *
+     * @return
+     *         The Rule, or null if no Rule should be responded to.
+     */
+    private CompiledRule determineRule(final RuleEvaluation evaluation, final int eventId, final ContextOverlay overlay,
+                                       final SelectionTracer selectionTracer) {
+        final ActiveRules activeRules = evaluation.getActiveRules(eventId);
 
+        if (selectionTracer == null) {
+            return determineRule(evaluation, activeRules);
+        }
 
-        final int totalScoredRules = set_triggeredRules.size();
+        final SelectionTrace trace = selectionTracer.claim(getEvent(eventId), activeRules == null ? 0 : activeRules.network.array_rules.length);
 
-        if (totalScoredRules == 0) { // If no Rules were found
-            return;
-        } else if (totalScoredRules == 1) { // If one Rule was found
-            determineResponseCaseB(set_triggeredRules);
+        if (trace == null) {
+            return determineRule(evaluation, activeRules);
+        }
 
-        } else if (set_triggeredRules.parallelStream().anyMatch(rule -> rule.getLastUsedTime() == 0)) { // Multiple rules found, some not used before
-            determineResponseCaseC(set_triggeredRules, hashMap_scores);
+        try {
+            evaluation.recordCandidates(trace, activeRules, overlay);
+            evaluation.trace = trace;
 
-        } else if(set_triggeredRules.parallelStream().allMatch(r -> arrayListMultimap_ruleCriterionAssociations.get(r).size() == 0)) { // Multiple rules found, none have Criterion
-            determineResponseCaseD(set_triggeredRules);
+            final CompiledRule rule = determineRule(evaluation, activeRules);
+            trace.end(evaluation.selectionCase, rule == null ? null : rule.rule);
+            return rule;
+        } finally {
+            evaluation.trace = null;
+            selectionTracer.commit(trace);
+        }
+    }
+
+    /**
+     * Determines which of the Rules triggered by an Event should be
+     * responded to, recording the SelectionCase and the number of Rules
+     * considered into the RuleEvaluation.
+     *
+     * @param evaluation
+     *         The RuleEvaluation.
+     *
+     * @param activeRules
+     *         The ActiveRules of the triggering Event, or null if the Event
+     *         doesn't trigger any Rules.
+     *
+     * @return
+     *         The Rule, or null if no Rule should be responded to.
+     */
+    private CompiledRule determineRule(final RuleEvaluation evaluation, final ActiveRules activeRules) {
+        if (activeRules == null) { // If no Rules were found
+            evaluation.selectionCase = SelectionCase.A;
+            evaluation.totalScannedRules = 0;
+            return null;
+        } else if (activeRules.network.array_rules.length == 1) { // If one Rule was found
+            evaluation.selectionCase = SelectionCase.B;
+            evaluation.totalScannedRules = 1;
+            return determineResponseCaseB(activeRules);
+
+        } else if (activeRules.hasUnusedRule()) { // Multiple rules found, some not used before
+            evaluation.selectionCase = SelectionCase.C;
+            evaluation.totalScannedRules = activeRules.getTotalActiveRules();
+            return determineResponseCaseC(activeRules);
+
+        } else if (! activeRules.network.hasCriterion()) { // Multiple rules found, none have Criterion
+            evaluation.selectionCase = SelectionCase.D;
+            evaluation.totalScannedRules = activeRules.network.array_rules.length;
+            return determineResponseCaseD(activeRules);
 
         } else {
-            determineResponseCaseE(set_triggeredRules, hashMap_scores);
+            evaluation.selectionCase = SelectionCase.E;
+            evaluation.totalScannedRules = 0;
+            return determineResponseCaseE(activeRules);
         }
     }
 
@@ -125,13 +475,15 @@ public class DDSManager implements Serializable {
      * If only one Rule was found in the set of triggered rules,
      * then respond to it.
      *
-     * @param list_triggeredRules
-     *         The Rules of which one will be responded to.
+     * @param activeRules
+     *         The ActiveRules of the triggering Event.
+     *
+     * @return
+     *         The Rule to respond to.
      */
-    private void determineResponseCaseB(final List<Rule> list_triggeredRules) {
+    private CompiledRule determineResponseCaseB(final ActiveRules activeRules) {
         // If only one Rule is found, then respond to it.
-        list_triggeredRules.get(0).updateLastUsedTime();
-        publisher.publishResponses(this, arrayListMultimap_ruleResponseAssociations.get(list_triggeredRules.get(0)));
+        return activeRules.network.array_rules[0];
     }
 
     /**
@@ -139,33 +491,29 @@ public class DDSManager implements Serializable {
      * then the Rule with the highest Criterion weight and which has
      * never been run before will be used.
      *
-     * @param list_triggeredRules
-     *         The Rules of which one will be responded to.
+     * Only Rules with a positive score can be chosen, so only the
+     * active Rules of the EventNetwork are considered. When several
+     * Rules share the highest score, the first to be associated with
+     * the Event is chosen.
+     *
+     * @param activeRules
+     *         The ActiveRules of the triggering Event.
+     *
+     * @return
+     *         The Rule to respond to.
      */
-    private void determineResponseCaseC(final List<Rule> list_triggeredRules, final ConcurrentHashMap<Rule, Double> hashMap_scores) {
-        double highestWeight = 0;
-        double currentWeight = 0;
-
-        Rule ruleWithHighestWeight = null;
+    private CompiledRule determineResponseCaseC(final ActiveRules activeRules) {
+        // The active Rules are sorted by descending score, then by ascending position:
+        activeRules.sortActiveRules();
 
-        for(final Rule rule : list_triggeredRules) {
-            currentWeight = hashMap_scores.get(rule);
-
-            if(currentWeight > highestWeight) {
-                highestWeight = currentWeight;
-                ruleWithHighestWeight = rule;
-            }
-        }
+        final int positionWithHighestWeight = (activeRules.getTotalActiveRules() == 0 ? -1 : activeRules.getActiveRule(0));
 
-
-
-        if(ruleWithHighestWeight == null) {
+        if(positionWithHighestWeight == -1) {
             throw new IllegalStateException("The algorithm to determine which Rule to use, when there exists " +
                     " a Rule that has not been run before, has not chosen a Rule to " +
                     "respond to.");
         } else {
-            ruleWithHighestWeight.updateLastUsedTime();
-            publisher.publishResponses(this, arrayListMultimap_ruleResponseAssociations.get(ruleWithHighestWeight));
+            return activeRules.network.array_rules[positionWithHighestWeight];
         }
     }
 
@@ -174,17 +522,22 @@ public class DDSManager implements Serializable {
      * and none of them have any associated Criterion, then the
      * Rule that was least recently used will be used.
      *
-     * @param list_triggeredRules
-     *         The Rules of which one will be responded to.
+     * @param activeRules
+     *         The ActiveRules of the triggering Event.
+     *
+     * @return
+     *         The Rule to respond to.
      */
-    private void determineResponseCaseD(final List<Rule> list_triggeredRules) {
-        final Rule rule = list_triggeredRules.parallelStream()
-                                             .sorted(Comparator.comparingLong(Rule::getLastUsedTime))
-                                             .findFirst()
-                                             .get();
+    private CompiledRule determineResponseCaseD(final ActiveRules activeRules) {
+        CompiledRule leastRecentlyUsedRule = activeRules.network.array_rules[0];
+
+        for(final CompiledRule rule : activeRules.network.array_rules) {
+            if(rule.rule.getLastUsedTime() < leastRecentlyUsedRule.rule.getLastUsedTime()) {
+                leastRecentlyUsedRule = rule;
+            }
+        }
 
-        rule.updateLastUsedTime();
-        publisher.publishResponses(this, arrayListMultimap_ruleResponseAssociations.get(rule));
+        return leastRecentlyUsedRule;
     }
 
     /**
@@ -193,200 +546,278 @@ public class DDSManager implements Serializable {
      * taking into account both the scores and the last used times
      * of each Rule to determine which Rule to use.
      *
-     * All Rules with no Criterion will be ignored.
+     * All Rules without a positive score, including those with no
+     * Criterion, will be ignored, so only the active Rules of the
+     * EventNetwork are considered. When several Rules share the
+     * highest weighted average, one of them is randomly chosen.
+     *
+     * The tied Rules are sampled as they're found, rather than being
+     * collected, so that no scratch array has to be allocated.
      *
-     * @param list_triggeredRules
-     *         The Rules of which one or more will be responded to.
+     * @param activeRules
+     *         The ActiveRules of the triggering Event.
      *
-     * @param hashMap_scores
-     *         todo JavaDoc
+     * @return
+     *         The Rule to respond to, or null if no Rule has a positive
+     *         score.
      */
-    private void determineResponseCaseE(final List<Rule> list_triggeredRules, final ConcurrentHashMap<Rule, Double> hashMap_scores) {
-        final ArrayList<Integer> arrayList_incidesToUse = new ArrayList<>();
+    private CompiledRule determineResponseCaseE(final ActiveRules activeRules) {
+        final int totalActiveRules = activeRules.getTotalActiveRules();
 
+        if (totalActiveRules == 0) {
+            return null;
+        }
+
+        int positionToUse = -1;
+        int totalPositionsToUse = 0;
 
         double highestScore = 0;
         final long currentTime = System.currentTimeMillis();
-        int counter = 0;
 
-        final double lowestCriterionScore = getLowestCriterionScore(list_triggeredRules, hashMap_scores);
-        final double highestCriterionScore = getHighestCriterionScore(list_triggeredRules, hashMap_scores);
+        // The active Rules are sorted by descending score, so the score range is at either end:
+        activeRules.sortActiveRules();
+        activeRules.updateLastUsedTimes();
+
+        final double lowestCriterionScore = (activeRules.hasZeroScoredRule() ? 0 : activeRules.score(activeRules.getActiveRule(totalActiveRules - 1)));
+        final double highestCriterionScore = activeRules.score(activeRules.getActiveRule(0));
 
-        final double oldestLastUsedTime = getOldestLastUsedTime(list_triggeredRules);
-        final double newestLastUsedTime = getNewestLastUsedTime(list_triggeredRules);
+        final double oldestLastUsedTime = activeRules.getOldestLastUsedTime();
+        final double newestLastUsedTime = activeRules.getNewestLastUsedTime();
+
+        final double highestLUUTTerm = getHighestLUUTTerm(oldestLastUsedTime, newestLastUsedTime, currentTime);
 
         double normalizedScore;
         double normalizedLUUT;
         double finalScore;
 
-        for(final Rule rule : list_triggeredRules) {
-                /*
-                 * If there are Criterion associated with the Rule and at-least one of them evaluates
-                 * to TRUE, then continue.
-                 *
-                 * AND
-                 *
-                 * If there are no Criterion associated with the Rule, then continue.
-                 */
-            if(hashMap_scores.get(rule) > 0 && getAssociatedCriterions(rule).size() != 0) {
-                normalizedScore = normalize(hashMap_scores.get(rule), lowestCriterionScore, highestCriterionScore);
-                normalizedLUUT = normalize(rule.getLastUsedTime(), oldestLastUsedTime, newestLastUsedTime) * (currentTime - rule.getLastUsedTime())/1000;
-
-                finalScore = (normalizedScore * 0.6f) + (normalizedLUUT * 0.4f);
-
-                if(finalScore > highestScore) {
-                    arrayList_incidesToUse.clear();
-                    highestScore = finalScore;
-                } else if(finalScore == highestScore) {
-                    arrayList_incidesToUse.add(counter);
-                }
+        for(int i = 0 ; i < totalActiveRules ; i++) {
+            final int position = activeRules.getActiveRule(i);
+            final CompiledRule rule = activeRules.network.array_rules[position];
+
+            activeRules.evaluation.totalScannedRules++;
+            normalizedScore = normalize(activeRules.score(position), lowestCriterionScore, highestCriterionScore);
+
+            /*
+             * No remaining Rule has a higher score than this one, so if
+             * this Rule can't reach the best final score even with the
+             * highest possible last used time term, then neither can any
+             * of the remaining Rules.
+             */
+            if (totalPositionsToUse != 0 && (normalizedScore * 0.6f) + highestLUUTTerm < highestScore) {
+                break;
             }
 
-            counter ++;
-        }
+            normalizedLUUT = normalize(rule.rule.getLastUsedTime(), oldestLastUsedTime, newestLastUsedTime) * (currentTime - rule.rule.getLastUsedTime())/1000;
 
+            finalScore = (normalizedScore * 0.6f) + (normalizedLUUT * 0.4f);
 
-        /*
-         * If there is only one Rule with the highest score, then use
-         * it.
-         *
-         * If there are multiple Rules that share the highest score,
-         * then randomly pick one to use.
-         */
-        final int indexToUse = random.nextInt(arrayList_incidesToUse.size());
+            if (activeRules.evaluation.trace != null) {
+                activeRules.evaluation.trace.recordScores(position, normalizedScore, normalizedLUUT, finalScore);
+            }
+
+            /*
+             * If there is only one Rule with the highest score, then use
+             * it.
+             *
+             * If there are multiple Rules that share the highest score,
+             * then randomly pick one to use, by replacing the chosen Rule
+             * with the n-th tied Rule with a probability of 1/n.
+             */
+            if(finalScore > highestScore || totalPositionsToUse == 0) {
+                totalPositionsToUse = 1;
+                positionToUse = position;
+                highestScore = finalScore;
+            } else if(finalScore == highestScore && random.nextInt(++totalPositionsToUse) == 0) {
+                positionToUse = position;
+            }
+        }
 
-        list_triggeredRules.get(indexToUse).updateLastUsedTime();
-        publisher.publishResponses(this, arrayListMultimap_ruleResponseAssociations.get(list_triggeredRules.get(indexToUse)));
+        return activeRules.network.array_rules[positionToUse];
     }
 
     /**
-     * Determines the lowest Criterion score from the specified
-     * Rule<->Score associations.
+     * Determines an upper bound on the weighted last used time term of
+     * the final score of any Rule, as used by determineResponseCaseE.
+     *
+     * The term of a Rule last used at time t is proportional to
+     * (t - oldest) * (currentTime - t), which is greatest halfway
+     * between the oldest last used time and the current time, so the
+     * bound is found by evaluating the term at that time, clamped to
+     * the range of last used times.
+     *
+     * @param oldestLastUsedTime
+     *         The oldest last used time of any Rule.
      *
-     * @param list_triggeredRules
-     *         todo JavaDoc
+     * @param newestLastUsedTime
+     *         The newest last used time of any Rule.
      *
-     * @param hashMap_scores
-     *         todo JavaDoc
+     * @param currentTime
+     *         The current time.
      *
      * @return
-     *         The lowest Criterion score from the specified
-     *         Rule<->Score associations.
+     *         The upper bound.
      */
-    private double getLowestCriterionScore(final List<Rule> list_triggeredRules, final ConcurrentHashMap<Rule, Double> hashMap_scores) {
-        double lowest = Double.MAX_VALUE;
-        double currentVal;
-
-        for(final Rule rule : list_triggeredRules) {
-            currentVal = hashMap_scores.get(rule);
-
-            if(currentVal < lowest) {
-                lowest = currentVal;
-            }
-        }
+    private double getHighestLUUTTerm(final double oldestLastUsedTime, final double newestLastUsedTime, final long currentTime) {
+        final double peakTime = Math.max(oldestLastUsedTime, Math.min(newestLastUsedTime, (oldestLastUsedTime + currentTime) / 2));
+        final double normalizedLUUT = normalize(peakTime, oldestLastUsedTime, newestLastUsedTime) * (currentTime - peakTime)/1000;
 
-        return lowest;
+        // Pad the bound so that rounding never prunes a Rule which ties the best final score:
+        return Math.max(0, normalizedLUUT * 0.4f) * (1 + 1e-9) + 1e-12;
     }
 
     /**
-     * Determines the lowest Criterion score from the specified
-     * Rule<->Score associations.
+     * Updates the last used time of the specified Rule and publishes
+     * its Responses.
      *
-     * @param list_triggeredRules
-     *         todo JavaDoc
+     * @param rule
+     *         The Rule to respond to.
+     */
+    private void respondTo(final CompiledRule rule) {
+        rule.rule.updateLastUsedTime();
+        publisher.publishResponses(this, rule.array_responses, rule.array_responseTypes);
+    }
+
+    /**
+     * Retrieves the strategy used to split batches of queries across threads.
      *
-     * @param hashMap_scores
-     *         todo JavaDoc
+     * Unless another strategy has been set, EvaluationStrategy.DEFAULT is
+     * used.
      *
      * @return
-     *         The lowest Criterion score from the specified
-     *         Rule<->Score associations.
+     *         The strategy.
      */
-    private double getHighestCriterionScore(final List<Rule> list_triggeredRules, final ConcurrentHashMap<Rule, Double> hashMap_scores) {
-        double highest = Double.MIN_VALUE;
-        double currentVal;
-
-        for(final Rule rule : list_triggeredRules) {
-            currentVal = hashMap_scores.get(rule);
+    public EvaluationStrategy getEvaluationStrategy() {
+        final EvaluationStrategy evaluationStrategy = this.evaluationStrategy;
 
-            if(currentVal > highest) {
-                highest = currentVal;
-            }
+        if (evaluationStrategy == null) {
+            return EvaluationStrategy.DEFAULT;
         }
 
-        return highest;
+        return evaluationStrategy;
     }
 
     /**
-     * Determines the oldest last used time of any Rule
-     * from the specified rules.
+     * Sets the strategy used to split batches of queries across threads.
      *
-     * @param list_triggeredRules
-     *         todo JavaDoc
+     * @param evaluationStrategy
+     *         The strategy, or EvaluationStrategy.SERIAL to always evaluate
+     *         batches on the calling thread.
+     */
+    public void setEvaluationStrategy(@NonNull final EvaluationStrategy evaluationStrategy) {
+        this.evaluationStrategy = evaluationStrategy;
+    }
+
+    /**
+     * Retrieves the listener that every query and every notified subscriber
+     * is measured with.
      *
      * @return
-     *         The oldest last used time of any Rule
-     *         from the specified Rules.
+     *         The listener, or null if nothing is measured.
      */
-    private long getOldestLastUsedTime(final List<Rule> list_triggeredRules) {
-        long oldest = Long.MAX_VALUE;
-
-        for(final Rule rule : list_triggeredRules) {
-            if(rule.getLastUsedTime() < oldest) {
-                oldest = rule.getLastUsedTime();
-            }
-        }
-
-        return oldest;
+    public MetricsListener getMetricsListener() {
+        return metricsListener;
     }
 
     /**
-     * Determines the newest last used time of any Rule
-     * from the specified rules.
+     * Sets the listener that every query and every notified subscriber is
+     * measured with, such as a DDSMetrics.
      *
-     * @param set_triggeredRules
-     *         todo JavaDoc
+     * While no listener is set, queries aren't timed.
+     *
+     * @param metricsListener
+     *         The listener, or null to stop measuring.
+     */
+    public void setMetricsListener(final MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        publisher.setMetricsListener(metricsListener);
+    }
+
+    /**
+     * Retrieves the tracer that records a sample of the queries, to explain
+     * why they responded the way they did.
      *
      * @return
-     *         The newest last used time of any Rule
-     *         from the specified Rules.
+     *         The tracer, or null if queries aren't traced.
      */
-    private long getNewestLastUsedTime(final List<Rule> set_triggeredRules) {
-        long newest = Long.MIN_VALUE;
+    public SelectionTracer getSelectionTracer() {
+        return selectionTracer;
+    }
 
-        for(final Rule rule : set_triggeredRules) {
-            if(rule.getLastUsedTime() > newest) {
-                newest = rule.getLastUsedTime();
-            }
-        }
+    /**
+     * Sets the tracer that records a sample of the queries, to explain why
+     * they responded the way they did.
+     *
+     * While no tracer is set, the only cost to a query is checking for one.
+     *
+     * @param selectionTracer
+     *         The tracer, or null to stop tracing.
+     */
+    public void setSelectionTracer(final SelectionTracer selectionTracer) {
+        this.selectionTracer = selectionTracer;
+    }
 
-        return newest;
+    /**
+     * Determines the number of Rules triggered by the Event with the
+     * specified ID.
+     *
+     * @param ruleDatabase
+     *         The RuleDatabase.
+     *
+     * @param eventId
+     *         The ID.
+     *
+     * @return
+     *         The number of Rules.
+     */
+    private static int getTotalCandidateRules(final RuleDatabase ruleDatabase, final int eventId) {
+        final EventNetwork network = ruleDatabase.getNetwork(eventId);
+        return (network == null ? 0 : network.array_rules.length);
     }
 
     /**
-     * Determines the weight of all Criterion that evaluate to TRUE
-     * for the specified Rule.
+     * Retrieves the name of the Event with the specified ID.
      *
-     * @param rule
-     *         The Rule whose Criterion weight is to be evaluated.
+     * @param eventId
+     *         The ID.
      *
      * @return
-     *         The combined weight of all TRUE Criterion divided by the
-     *         weight of all Criterion combined.
+     *         The name, or null if no Event has the ID.
      */
-    private double determineCriterionWeight(final Rule rule) {
-        double totalWeight = 0;
-        double trueWeight = 0;
+    private String getEvent(final int eventId) {
+        if (eventId < 0 || eventId >= symbolTable_events.size()) {
+            return null;
+        }
 
-        for(final Criterion criterion : arrayListMultimap_ruleCriterionAssociations.get(rule)) {
-            totalWeight += criterion.getWeight();
+        return symbolTable_events.getName(eventId);
+    }
 
-            if(criterion.isTrue()) {
-                trueWeight += criterion.getWeight();
+    /**
+     * Retrieves the compiled associations, compiling them if they
+     * have changed since they were last compiled.
+     *
+     * @return
+     *         The compiled associations.
+     */
+    private RuleDatabase getRuleDatabase() {
+        RuleDatabase ruleDatabase = this.ruleDatabase;
+
+        if (ruleDatabase == null) {
+            synchronized (this) {
+                ruleDatabase = this.ruleDatabase;
+
+                if (ruleDatabase == null) {
+                    ruleDatabase = new RuleDatabase(arrayListMultimap_ruleEventAssociations,
+                                                    arrayListMultimap_ruleCriterionAssociations,
+                                                    arrayListMultimap_ruleResponseAssociations,
+                                                    symbolTable_events, publisher,
+                                                    hashMap_contextHandles,
+                                                    arrayList_contextSlots);
+                    this.ruleDatabase = ruleDatabase;
+                }
             }
         }
 
-        return trueWeight / totalWeight;
+        return ruleDatabase;
     }
 
     /**
@@ -440,38 +871,104 @@ public class DDSManager implements Serializable {
      */
     public Object getValue(final String key) {
         // Get Data:
-        final ValueType valueType = hashMap_contexts.get(key).getValueType();
-        final String value = hashMap_contexts.get(key).getValue();
+        final Context context = hashMap_contexts.get(key);
 
-
-        switch(valueType) {
+        switch(context.getValueType()) {
             case BYTE: {
-                return Byte.valueOf(value);
+                return (byte) context.getLong();
             }
             case SHORT: {
-                return Short.valueOf(value);
+                return (short) context.getLong();
             }
             case INTEGER: {
-                return Integer.valueOf(value);
+                return (int) context.getLong();
             }
             case LONG: {
-                return Long.valueOf(value);
+                return context.getLong();
             }
             case FLOAT: {
-                return Float.valueOf(value);
+                return (float) context.getDouble();
             }
             case DOUBLE: {
-                return Double.valueOf(value);
+                return context.getDouble();
             }
             case BOOLEAN: {
-                return Boolean.valueOf(value);
+                return context.getBoolean();
             }
             default: {
-                return value;
+                return context.getValue();
             }
         }
     }
 
+    /**
+     * Retrieves the value of the integral or decimal Context associated with the
+     * specified Key, without boxing it.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @return
+     *        The value, truncated if the Context is decimal.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     */
+    public int getInt(final String key) throws UnsupportedOperationException {
+        return (int) hashMap_contexts.get(key).getLong();
+    }
+
+    /**
+     * Retrieves the value of the integral or decimal Context associated with the
+     * specified Key, without boxing it.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @return
+     *        The value, truncated if the Context is decimal.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     */
+    public long getLong(final String key) throws UnsupportedOperationException {
+        return hashMap_contexts.get(key).getLong();
+    }
+
+    /**
+     * Retrieves the value of the integral or decimal Context associated with the
+     * specified Key, without boxing it.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @return
+     *        The value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     */
+    public double getDouble(final String key) throws UnsupportedOperationException {
+        return hashMap_contexts.get(key).getDouble();
+    }
+
+    /**
+     * Retrieves the value of the boolean Context associated with the specified Key,
+     * without boxing it.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @return
+     *        The value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is not boolean.
+     */
+    public boolean getBoolean(final String key) throws UnsupportedOperationException {
+        return hashMap_contexts.get(key).getBoolean();
+    }
+
     /**
      * Attempts to set the Value associated with the specified Key to
      * the specified Value within the splayTree_context.
@@ -481,11 +978,250 @@ public class DDSManager implements Serializable {
      *
      * @param newValue
      *        The new Value to place into the Context.
+     *
+     * @throws NumberFormatException
+     *        Thrown if the new Value cannot be parsed as the ValueType of the Context.
      */
-    public void setValue(final String key, final String newValue) {
+    public void setValue(final String key, final String newValue) throws NumberFormatException {
         hashMap_contexts.get(key).setValue(newValue);
     }
 
+    /**
+     * Sets the value of the integral or decimal Context associated with the
+     * specified Key, without allocating.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     *
+     * @throws IllegalArgumentException
+     *        Thrown if the value is outside of the range of the ValueType of
+     *        an integral Context.
+     */
+    public void setInt(final String key, final int newValue) throws UnsupportedOperationException, IllegalArgumentException {
+        hashMap_contexts.get(key).setInt(newValue);
+    }
+
+    /**
+     * Sets the value of the integral or decimal Context associated with the
+     * specified Key, without allocating.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     *
+     * @throws IllegalArgumentException
+     *        Thrown if the value is outside of the range of the ValueType of
+     *        an integral Context.
+     */
+    public void setLong(final String key, final long newValue) throws UnsupportedOperationException, IllegalArgumentException {
+        hashMap_contexts.get(key).setLong(newValue);
+    }
+
+    /**
+     * Sets the value of the decimal Context associated with the specified Key,
+     * without allocating.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is not decimal.
+     */
+    public void setDouble(final String key, final double newValue) throws UnsupportedOperationException {
+        hashMap_contexts.get(key).setDouble(newValue);
+    }
+
+    /**
+     * Sets the value of the boolean Context associated with the specified Key,
+     * without allocating.
+     *
+     * @param key
+     *        The Key associated with the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is not boolean.
+     */
+    public void setBoolean(final String key, final boolean newValue) throws UnsupportedOperationException {
+        hashMap_contexts.get(key).setBoolean(newValue);
+    }
+
+    /**
+     * Resolves the handle of the Context with the specified name.
+     *
+     * The handle can then be used to read and write the Context
+     * without looking it up by name.
+     *
+     * @param key
+     *        The name of the Context.
+     *
+     * @return
+     *        The handle of the Context.
+     *
+     * @throws IllegalArgumentException
+     *        Thrown if no Context with the specified name has been added.
+     */
+    public ContextHandle handle(final String key) throws IllegalArgumentException {
+        final ContextHandle handle = hashMap_contextHandles.get(key);
+
+        if (handle == null || arrayList_contextSlots.get(handle.getSlot()) == null) {
+            throw new IllegalArgumentException("A Context named '" + key + "' does not exist.");
+        }
+
+        return handle;
+    }
+
+    /**
+     * Retrieves the Context referred to by the specified handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @return
+     *        The Context.
+     */
+    public Context getContext(final ContextHandle handle) {
+        return arrayList_contextSlots.get(handle.getSlot());
+    }
+
+    /**
+     * Retrieves the value of the integral or decimal Context referred to by
+     * the specified handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @return
+     *        The value, truncated if the Context is decimal.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     */
+    public long getLong(final ContextHandle handle) throws UnsupportedOperationException {
+        return arrayList_contextSlots.get(handle.getSlot()).getLong();
+    }
+
+    /**
+     * Retrieves the value of the integral or decimal Context referred to by
+     * the specified handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @return
+     *        The value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     */
+    public double getDouble(final ContextHandle handle) throws UnsupportedOperationException {
+        return arrayList_contextSlots.get(handle.getSlot()).getDouble();
+    }
+
+    /**
+     * Retrieves the value of the boolean Context referred to by the specified
+     * handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @return
+     *        The value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is not boolean.
+     */
+    public boolean getBoolean(final ContextHandle handle) throws UnsupportedOperationException {
+        return arrayList_contextSlots.get(handle.getSlot()).getBoolean();
+    }
+
+    /**
+     * Sets the value of the Context referred to by the specified handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws NumberFormatException
+     *        Thrown if the new value cannot be parsed as the ValueType of the Context.
+     */
+    public void setValue(final ContextHandle handle, final String newValue) throws NumberFormatException {
+        arrayList_contextSlots.get(handle.getSlot()).setValue(newValue);
+    }
+
+    /**
+     * Sets the value of the integral or decimal Context referred to by the
+     * specified handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is neither integral nor decimal.
+     *
+     * @throws IllegalArgumentException
+     *        Thrown if the value is outside of the range of the ValueType of
+     *        an integral Context.
+     */
+    public void setLong(final ContextHandle handle, final long newValue) throws UnsupportedOperationException, IllegalArgumentException {
+        arrayList_contextSlots.get(handle.getSlot()).setLong(newValue);
+    }
+
+    /**
+     * Sets the value of the decimal Context referred to by the specified
+     * handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is not decimal.
+     */
+    public void setDouble(final ContextHandle handle, final double newValue) throws UnsupportedOperationException {
+        arrayList_contextSlots.get(handle.getSlot()).setDouble(newValue);
+    }
+
+    /**
+     * Sets the value of the boolean Context referred to by the specified
+     * handle.
+     *
+     * @param handle
+     *        The handle of the Context.
+     *
+     * @param newValue
+     *        The new value.
+     *
+     * @throws UnsupportedOperationException
+     *        Thrown if the Context is not boolean.
+     */
+    public void setBoolean(final ContextHandle handle, final boolean newValue) throws UnsupportedOperationException {
+        arrayList_contextSlots.get(handle.getSlot()).setBoolean(newValue);
+    }
+
     /**
      * Adds the specified Event into the Dynamic Dialog System.
      * If the Event already exists, then no duplicate is added.
@@ -494,21 +1230,86 @@ public class DDSManager implements Serializable {
      *         The Event to add.
      */
     public void addEvent(final String event) {
-        if(! arrayList_events.contains(event)) {
+        final int id = symbolTable_events.intern(event);
+
+        if(! bitSet_addedEvents.get(id)) {
+            bitSet_addedEvents.set(id);
             arrayList_events.add(event);
         }
     }
 
+    /**
+     * Sets the Events that can be used by the Dynamic Dialog System.
+     *
+     * The Events should only be added to through addEvent, once set.
+     *
+     * @param arrayList_events
+     *         The Events.
+     */
+    public void setArrayList_events(@NonNull final ArrayList<String> arrayList_events) {
+        this.arrayList_events = arrayList_events;
+        bitSet_addedEvents.clear();
+
+        for (final String event : arrayList_events) {
+            bitSet_addedEvents.set(symbolTable_events.intern(event));
+        }
+    }
+
+    /**
+     * Sets the ResponseTypes that can be used by the Dynamic Dialog System.
+     *
+     * @param arrayList_responseTypes
+     *         The ResponseTypes.
+     */
+    public void setArrayList_responseTypes(@NonNull final ArrayList<String> arrayList_responseTypes) {
+        this.arrayList_responseTypes = arrayList_responseTypes;
+
+        for (final String responseType : arrayList_responseTypes) {
+            publisher.internResponseType(responseType);
+        }
+    }
+
+    /**
+     * Retrieves the ID of the specified Event, which can be used to determine
+     * responses without looking the Event up by name.
+     *
+     * An Event keeps its ID for the lifetime of the Dynamic Dialog System.
+     *
+     * @param event
+     *         The Event.
+     *
+     * @return
+     *         The ID, or -1 if the Event has neither been added nor associated
+     *         with a Rule.
+     */
+    public int getEventId(final String event) {
+        return symbolTable_events.getId(event);
+    }
+
     /**
      * Adds the specified Context into the Dynamic Dialog System.
      * Ignores duplicate entries.
      *
+     * A Context that is re-added after being removed is placed back
+     * into its previous slot, so that its handles remain valid.
+     *
      * @param context
      *         The Context to add into the Dynamic Dialog System.
      */
     public void addContext(final Context context) {
         if (! hashMap_contexts.containsKey(context.getName())) {
             hashMap_contexts.put(context.getName(), context);
+
+            final ContextHandle handle = hashMap_contextHandles.get(context.getName());
+
+            if (handle == null) {
+                hashMap_contextHandles.put(context.getName(), new ContextHandle(context.getName(), arrayList_contextSlots.size()));
+                arrayList_contextSlots.add(context);
+            } else {
+                arrayList_contextSlots.set(handle.getSlot(), context);
+            }
+
+            ruleDatabase = null;
         }
     }
 
@@ -536,6 +1337,14 @@ public class DDSManager implements Serializable {
 
         // Remove the Context from the DDS:
         hashMap_contexts.remove(context.getName());
+
+        final ContextHandle handle = hashMap_contextHandles.get(context.getName());
+
+        if (handle != null) {
+            arrayList_contextSlots.set(handle.getSlot(), null);
+        }
+
+        ruleDatabase = null;
     }
 
     /**
@@ -545,6 +1354,7 @@ public class DDSManager implements Serializable {
      *         The Criterion to add into the Dynamic Dialog System.
      */
     public void addCriterion(final Criterion criterion) {
+        addContext(criterion.getContext());
         arrayList_criterion.add(criterion);
     }
 
@@ -582,6 +1392,7 @@ public class DDSManager implements Serializable {
      *         The Response to add into the Dynamic Dialog System.
      */
     public void addResponse(final Response response) {
+        publisher.internResponseType(response.getResponseType());
         arrayList_response.add(response);
     }
 
@@ -640,6 +1451,8 @@ public class DDSManager implements Serializable {
 
         // Remove the Rule from the DDS:
         arrayList_rules.remove(rule);
+
+        ruleDatabase = null;
     }
 
     /**
@@ -652,7 +1465,9 @@ public class DDSManager implements Serializable {
      *         The criterion to use in the association.
      */
     public void addRuleCriterionAssociation(final Rule rule, final Criterion criterion) {
+        addContext(criterion.getContext());
         arrayListMultimap_ruleCriterionAssociations.put(rule, criterion);
+        ruleDatabase = null;
     }
 
     /**
@@ -676,7 +1491,9 @@ public class DDSManager implements Serializable {
      *         The rule to use in the association.
      */
     public void addRuleEventAssociation(final String event, final Rule rule) {
+        symbolTable_events.intern(event);
         arrayListMultimap_ruleEventAssociations.put(event, rule);
+        ruleDatabase = null;
     }
 
     /**
@@ -701,7 +1518,9 @@ public class DDSManager implements Serializable {
      *         The response to use in the association.
      */
     public void addRuleResponseAssociation(final Rule rule, final Response response) {
+        publisher.internResponseType(response.getResponseType());
         arrayListMultimap_ruleResponseAssociations.put(rule, response);
+        ruleDatabase = null;
     }
 
     /**
@@ -713,6 +1532,7 @@ public class DDSManager implements Serializable {
      */
     private void removeRuleResponseAssociations(final Rule rule) {
         arrayListMultimap_ruleResponseAssociations.removeAll(rule);
+        ruleDatabase = null;
     }
 
 
@@ -726,10 +1546,12 @@ public class DDSManager implements Serializable {
      *         The Rule to search with.
      *
      * @return
-     *         A list containing all Criterions associated with the specified Rule.
+     *         An unmodifiable list containing all Criterions associated with the specified Rule.
+     *         Associations can only be changed through the DDSManager, so
+     *         that its compiled rules are rebuilt.
      */
     public List<Criterion> getAssociatedCriterions(final Rule rule) {
-        return arrayListMultimap_ruleCriterionAssociations.get(rule);
+        return Collections.unmodifiableList(arrayListMultimap_ruleCriterionAssociations.get(rule));
     }
 
     /**
@@ -759,10 +1581,12 @@ public class DDSManager implements Serializable {
      *         The Rule to search with.
      *
      * @return
-     *         A list containing all Responses associated with the specified Rule.
+     *         An unmodifiable list containing all Responses associated with the specified Rule.
+     *         Associations can only be changed through the DDSManager, so
+     *         that its compiled rules are rebuilt.
      */
     public List<Response> getAssociatedResponses(final Rule rule) {
-        return arrayListMultimap_ruleResponseAssociations.get(rule);
+        return Collections.unmodifiableList(arrayListMultimap_ruleResponseAssociations.get(rule));
     }
 
     /**
@@ -772,9 +1596,38 @@ public class DDSManager implements Serializable {
      *         The Event to search with.
      *
      * @return
-     *         A list containing all Rules associated with the specified Event.
+     *         An unmodifiable list containing all Rules associated with the specified Event.
+     *         Associations can only be changed through the DDSManager, so
+     *         that its compiled rules are rebuilt.
      */
     public List<Rule> getAssociatedRules(final String event) {
-        return arrayListMultimap_ruleEventAssociations.get(event);
+        return Collections.unmodifiableList(arrayListMultimap_ruleEventAssociations.get(event));
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        // A DDSManager saved before Events were interned has no SymbolTable, so the Events are interned as they were added:
+        if (symbolTable_events == null) {
+            symbolTable_events = new SymbolTable();
+            bitSet_addedEvents = new BitSet();
+            setArrayList_events(arrayList_events);
+            setArrayList_responseTypes(arrayList_responseTypes);
+
+            for (final String event : arrayListMultimap_ruleEventAssociations.keySet()) {
+                symbolTable_events.intern(event);
+            }
+        }
+
+        // A DDSManager saved before Contexts had slots has no handles, so each Context is given the next slot:
+        if (arrayList_contextSlots == null) {
+            arrayList_contextSlots = new ArrayList<>();
+            hashMap_contextHandles = new HashMap<>();
+
+            for (final Context context : hashMap_contexts.values()) {
+                hashMap_contextHandles.put(context.getName(), new ContextHandle(context.getName(), arrayList_contextSlots.size()));
+                arrayList_contextSlots.add(context);
+            }
+        }
     }
 }
@@ -0,0 +1,278 @@
+package com.valkryst.dds.manager;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+/**
+ * Determines whether, and on which threads, a DDSManager splits the evaluation of a batch
+ * of queries.
+ *
+ * The cost of a batch is the number of Rules and Criterion of every Event that it queries.
+ * Most Events only trigger a handful of Rules, for which handing work to other threads costs
+ * far more than it saves, so the parallel strategies only split a batch once its cost reaches
+ * their threshold, and then only into as many parts as the cost warrants.
+ *
+ * The threshold at which splitting starts to pay off depends on the hardware, so none is
+ * assumed. BatchCrossoverBenchmark, within the benchmarks module, measures it.
+ *
+ * A split batch only finishes once every one of its parts has finished, even if one of them
+ * throws, so that no part is still marking Rules as used once the batch has thrown.
+ */
+public abstract class EvaluationStrategy {
+    /** The strategy that always evaluates a batch on the calling thread. */
+    public static final EvaluationStrategy SERIAL = new EvaluationStrategy() {
+        @Override
+        int getParallelism(final long cost) {
+            return 1;
+        }
+
+        @Override
+        void run(final Runnable[] tasks) {
+            for (final Runnable task : tasks) {
+                task.run();
+            }
+        }
+    };
+
+    /**
+     * The strategy used by a DDSManager that hasn't been given another.
+     *
+     * This is SERIAL, as splitting a batch only pays off above a hardware-dependent cost which
+     * hasn't been measured. Once it has been, use forkJoin or executor with that cost.
+     */
+    public static final EvaluationStrategy DEFAULT = SERIAL;
+
+    /** Construct a new EvaluationStrategy. */
+    private EvaluationStrategy() {}
+
+    /**
+     * Creates a strategy that splits costly batches across a ForkJoinPool.
+     *
+     * @param pool
+     *         The pool.
+     *
+     * @param costThreshold
+     *         The cost, in Rules and Criterion, of each part of a split batch.
+     *
+     * @return
+     *         The strategy.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the cost threshold is not positive.
+     */
+    public static EvaluationStrategy forkJoin(@NonNull final ForkJoinPool pool, final long costThreshold) throws IllegalArgumentException {
+        checkCostThreshold(costThreshold);
+
+        return new EvaluationStrategy() {
+            @Override
+            int getParallelism(final long cost) {
+                return (int) Math.max(1, Math.min(pool.getParallelism(), cost / costThreshold));
+            }
+
+            @Override
+            void run(final Runnable[] tasks) {
+                final List<ForkJoinTask<?>> list_tasks = new ArrayList<>(tasks.length);
+
+                for (final Runnable task : tasks) {
+                    list_tasks.add(ForkJoinTask.adapt(task));
+                }
+
+                // Unlike invokeAll, every part is joined even if another part throws:
+                pool.invoke(ForkJoinTask.adapt(() -> {
+                    for (int i = 1 ; i < list_tasks.size() ; i++) {
+                        list_tasks.get(i).fork();
+                    }
+
+                    if (! list_tasks.isEmpty()) {
+                        list_tasks.get(0).quietlyInvoke();
+                    }
+
+                    for (int i = 1 ; i < list_tasks.size() ; i++) {
+                        list_tasks.get(i).quietlyJoin();
+                    }
+                }));
+
+                Throwable failure = null;
+
+                for (final ForkJoinTask<?> task : list_tasks) {
+                    if (task.isCompletedAbnormally()) {
+                        failure = addFailure(failure, task.getException());
+                    }
+                }
+
+                rethrow(failure);
+            }
+        };
+    }
+
+    /**
+     * Creates a strategy that splits costly batches across a caller-supplied
+     * ExecutorService.
+     *
+     * The calling thread evaluates one part of each split batch itself, and
+     * waits for the others.
+     *
+     * @param executor
+     *         The ExecutorService.
+     *
+     * @param maximumParallelism
+     *         The largest number of parts to split a batch into.
+     *
+     * @param costThreshold
+     *         The cost, in Rules and Criterion, of each part of a split batch.
+     *
+     * @return
+     *         The strategy.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the maximum parallelism or the cost threshold is not
+     *         positive.
+     */
+    public static EvaluationStrategy executor(@NonNull final ExecutorService executor, final int maximumParallelism,
+                                              final long costThreshold) throws IllegalArgumentException {
+        checkCostThreshold(costThreshold);
+
+        if (maximumParallelism < 1) {
+            throw new IllegalArgumentException("The maximum parallelism must be positive, but was " + maximumParallelism + ".");
+        }
+
+        return new EvaluationStrategy() {
+            @Override
+            int getParallelism(final long cost) {
+                return (int) Math.max(1, Math.min(maximumParallelism, cost / costThreshold));
+            }
+
+            @Override
+            void run(final Runnable[] tasks) {
+                final List<Future<?>> list_futures = new ArrayList<>(tasks.length);
+                Throwable failure = null;
+
+                try {
+                    for (int i = 1 ; i < tasks.length ; i++) {
+                        list_futures.add(executor.submit(tasks[i]));
+                    }
+
+                    if (tasks.length > 0) {
+                        tasks[0].run();
+                    }
+                } catch (final RuntimeException | Error e) {
+                    failure = e;
+                }
+
+                // Every submitted part is waited for, even once one has thrown:
+                for (final Future<?> future : list_futures) {
+                    failure = addFailure(failure, await(future));
+                }
+
+                rethrow(failure);
+            }
+        };
+    }
+
+    /**
+     * Determines how many parts to split a batch into.
+     *
+     * @param cost
+     *         The cost of the batch, in Rules and Criterion.
+     *
+     * @return
+     *         The number of parts, at-least one.
+     */
+    abstract int getParallelism(final long cost);
+
+    /**
+     * Runs every task, returning once all of them have finished.
+     *
+     * @param tasks
+     *         The tasks.
+     */
+    abstract void run(final Runnable[] tasks);
+
+    /**
+     * Checks that a cost threshold is positive.
+     *
+     * @param costThreshold
+     *         The cost threshold.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the cost threshold is not positive.
+     */
+    private static void checkCostThreshold(final long costThreshold) throws IllegalArgumentException {
+        if (costThreshold < 1) {
+            throw new IllegalArgumentException("The cost threshold must be positive, but was " + costThreshold + ".");
+        }
+    }
+
+    /**
+     * Waits for a task to finish.
+     *
+     * The wait isn't cut short by an interrupt, which is restored once the
+     * task has finished, as the task would otherwise keep running after the
+     * batch has returned.
+     *
+     * @param future
+     *         The Future of the task.
+     *
+     * @return
+     *         Whatever the task threw, or null if it finished normally.
+     */
+    private static Throwable await(final Future<?> future) {
+        try {
+            Uninterruptibles.getUninterruptibly(future);
+            return null;
+        } catch (final ExecutionException e) {
+            return e.getCause();
+        } catch (final CancellationException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Combines the failures of the parts of a batch.
+     *
+     * @param failure
+     *         The first failure, or null if no part has failed yet.
+     *
+     * @param newFailure
+     *         The failure of another part, or null if it didn't fail.
+     *
+     * @return
+     *         The first failure, with any later failure suppressed by it.
+     */
+    private static Throwable addFailure(final Throwable failure, final Throwable newFailure) {
+        if (failure == null) {
+            return newFailure;
+        }
+
+        if (newFailure != null && newFailure != failure) {
+            failure.addSuppressed(newFailure);
+        }
+
+        return failure;
+    }
+
+    /**
+     * Rethrows the failure of a batch.
+     *
+     * @param failure
+     *         The failure, or null if the batch didn't fail.
+     */
+    private static void rethrow(final Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.manager.RuleDatabase.CompiledRule;
+
+/**
+ * The discrimination network of a single Event.
+ *
+ * The conditions of the RuleDatabase act as the network's shared tests, and each compiled
+ * Rule accumulates the weight of its TRUE conditions as they change. The network itself
+ * is the terminal of those Rules, each RuleEvaluation keeps the ActiveRules of the network,
+ * the Rules that are at-least partially satisfied, so that selecting a Rule does not require
+ * every Rule of the Event to be scanned.
+ *
+ * An EventNetwork is immutable, as it's shared by every RuleEvaluation of its RuleDatabase.
+ */
+final class EventNetwork {
+    /** The Event. */
+    final String event;
+    /** The ID of the Event, which is also the index of the EventNetwork within its RuleDatabase. */
+    final int eventId;
+    /** The Rules triggered by the Event, in the order that they were associated with it. */
+    final CompiledRule[] array_rules;
+
+    /** The number of Rules whose Criterion have a positive total weight. */
+    private final int totalScorableRules;
+    /** Whether at-least one Rule has an associated Criterion. */
+    private final boolean hasCriterion;
+    /** The number of Rules and Criterion in the network, used to estimate the cost of querying it. */
+    private final long cost;
+
+    /**
+     * Construct a new EventNetwork.
+     *
+     * @param event
+     *         The Event.
+     *
+     * @param eventId
+     *         The ID of the Event, which is also the index of the EventNetwork within its RuleDatabase.
+     *
+     * @param array_rules
+     *         The Rules triggered by the Event, in the order that they were associated with it.
+     */
+    EventNetwork(final String event, final int eventId, final CompiledRule[] array_rules) {
+        this.event = event;
+        this.eventId = eventId;
+        this.array_rules = array_rules;
+
+        int totalScorableRules = 0;
+        boolean hasCriterion = false;
+        long cost = array_rules.length;
+
+        for (final CompiledRule rule : array_rules) {
+            cost += rule.getTotalCriterion();
+
+            if (rule.getTotalWeight() > 0) {
+                totalScorableRules++;
+            }
+
+            if (rule.getTotalCriterion() != 0) {
+                hasCriterion = true;
+            }
+        }
+
+        this.totalScorableRules = totalScorableRules;
+        this.hasCriterion = hasCriterion;
+        this.cost = cost;
+    }
+
+    /** @return The number of Rules whose Criterion have a positive total weight. */
+    int getTotalScorableRules() {
+        return totalScorableRules;
+    }
+
+    /** @return Whether at-least one Rule has an associated Criterion. */
+    boolean hasCriterion() {
+        return hasCriterion;
+    }
+
+    /** @return The number of Rules and Criterion in the network, used to estimate the cost of querying it. */
+    long getCost() {
+        return cost;
+    }
+}
@@ -0,0 +1,39 @@
+package com.valkryst.dds.manager;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/** A single query of a batch, the Event to respond to and the Contexts to query it with. */
+@ToString
+public final class EventQuery {
+    /** The Event. */
+    @Getter private final String event;
+    /** The Contexts that override the Contexts of the DDSManager, or null if none are overridden. */
+    @Getter private final ContextOverlay overlay;
+
+    /**
+     * Construct a new EventQuery.
+     *
+     * @param event
+     *         The Event.
+     */
+    public EventQuery(final String event) {
+        this(event, null);
+    }
+
+    /**
+     * Construct a new EventQuery.
+     *
+     * @param event
+     *         The Event.
+     *
+     * @param overlay
+     *         The Contexts that override the Contexts of the DDSManager, or null if
+     *         none are overridden.
+     */
+    public EventQuery(@NonNull final String event, final ContextOverlay overlay) {
+        this.event = event;
+        this.overlay = overlay;
+    }
+}
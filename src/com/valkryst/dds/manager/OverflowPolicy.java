@@ -0,0 +1,14 @@
+package com.valkryst.dds.manager;
+
+/** The ways in which an AsyncSubscriber handles a Response that arrives while its queue is full. */
+public enum OverflowPolicy {
+    /** The oldest queued Response is dropped, to make room for the new Response. */
+    DROP_OLDEST,
+    /** The publishing thread waits until the subscriber has made room for the new Response. */
+    BLOCK,
+    /**
+     * The new Response replaces the newest queued Response of the same response type, or if
+     * there is none, the oldest queued Response is dropped to make room for it.
+     */
+    COALESCE
+}
@@ -1,35 +1,289 @@
 package com.valkryst.dds.manager;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.valkryst.dds.metrics.FlightRecording;
+import com.valkryst.dds.metrics.MetricsListener;
+import com.valkryst.dds.metrics.ResponseDispatchEvent;
 import com.valkryst.dds.object.Response;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class Publisher implements Serializable {
     private static final long serialVersionUID = 9075221020153629524L;
 
-    /** The ArrayList of all objects to be notified. */
-    private ArrayListMultimap<String, Notifiable> arrayListMultimap_responseSubscribers = ArrayListMultimap.create();
+    /** The number of BatchCollectors that can be pooled, beyond which released BatchCollectors are discarded. */
+    private static final int MAXIMUM_POOLED_COLLECTORS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    /** The SymbolTable that interns the response types of all subscribers and Responses. */
+    private SymbolTable symbolTable_responseTypes = new SymbolTable();
 
     /**
-     * Publishes the specified Responses to all Response subscribers.
+     * The subscribers of each response type, with the response type IDs as indices.
+     *
+     * Neither the outer array nor any of the inner arrays are ever changed once published, a
+     * subscription copies them and then swaps in the copies, so a publication can walk the
+     * subscribers without locking, while subscribers are being added or removed.
+     */
+    private volatile Notifiable[][] array_responseSubscribers = new Notifiable[0][];
+    /** The set of the subscribers of each response type, used to detect duplicate subscriptions. */
+    private ArrayList<HashSet<Notifiable>> arrayList_subscriberSets = new ArrayList<>();
+    /** The number of subscriptions held by BatchNotifiables, across all response types. */
+    private volatile int totalBatchSubscriptions;
+
+    /**
+     * The subscribers of a Publisher that was saved before response types were interned, which
+     * are re-added when it's loaded. This is null otherwise.
+     */
+    private ArrayListMultimap<String, Notifiable> arrayListMultimap_responseSubscribers;
+
+    /** The pooled BatchCollectors, of which each slot is either empty or holds a BatchCollector that isn't in use. */
+    private transient AtomicReferenceArray<BatchCollector> atomicReferenceArray_collectors = new AtomicReferenceArray<>(MAXIMUM_POOLED_COLLECTORS);
+
+    /** The listener to measure each subscriber's handleResponse with, or null if they aren't measured. */
+    private transient volatile MetricsListener metricsListener;
+
+    /**
+     * Publishes the specified Responses, whose response types have already
+     * been interned, to all Response subscribers, as one batch.
      *
      * @param ddsManager
-     *         todo JavaDoc
+     *         The DDSManager that determined the Responses.
      *
      * @param responses
      *         The Responses to publish.
+     *
+     * @param responseTypes
+     *         The response type ID of each Response.
+     */
+    void publishResponses(final DDSManager ddsManager, final Response[] responses, final int[] responseTypes) {
+        final BatchCollector collector = beginBatch();
+
+        try {
+            publishResponses(ddsManager, responses, responseTypes, collector);
+            endBatch(ddsManager, collector);
+        } finally {
+            releaseCollector(collector);
+        }
+    }
+
+    /**
+     * Publishes the specified Responses, whose response types have already
+     * been interned, to all Response subscribers, as part of a batch.
+     *
+     * Plain subscribers handle each Response as it's published, while
+     * BatchNotifiables handle their Responses once the batch has ended.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the Responses.
+     *
+     * @param responses
+     *         The Responses to publish.
+     *
+     * @param responseTypes
+     *         The response type ID of each Response.
+     *
+     * @param collector
+     *         The BatchCollector of the batch, as returned by beginBatch.
+     */
+    void publishResponses(final DDSManager ddsManager, final Response[] responses, final int[] responseTypes,
+                          final BatchCollector collector) {
+        /*
+         * Responses are published on the calling thread, as a handful of
+         * Responses and subscribers cost far less to notify directly than
+         * to coordinate through the common ForkJoinPool. Subscribers that
+         * are slow to handle a Response are wrapped in an AsyncSubscriber,
+         * which only queues it.
+         */
+        final MetricsListener metricsListener = this.metricsListener;
+
+        for (int i = 0 ; i < responses.length ; i++) {
+            publishResponse(ddsManager, responses[i], responseTypes[i], metricsListener, collector);
+        }
+    }
+
+    /**
+     * Begins a batch of publications, whose Responses are handed to each
+     * BatchNotifiable in one call by endBatch.
+     *
+     * The BatchCollector must be returned with releaseCollector once the
+     * batch has ended.
+     *
+     * @return
+     *         The BatchCollector of the batch, or null if there are no
+     *         BatchNotifiables to collect Responses for.
+     */
+    BatchCollector beginBatch() {
+        if (totalBatchSubscriptions == 0) {
+            return null;
+        }
+
+        // Each thread starts at its own slot, so that concurrent batches rarely contend for one:
+        final int start = getStartingSlot();
+
+        for (int i = 0 ; i < MAXIMUM_POOLED_COLLECTORS ; i++) {
+            final int slot = (start + i) % MAXIMUM_POOLED_COLLECTORS;
+            final BatchCollector collector = atomicReferenceArray_collectors.get(slot);
+
+            if (collector != null && atomicReferenceArray_collectors.compareAndSet(slot, collector, null)) {
+                return collector;
+            }
+        }
+
+        return new BatchCollector();
+    }
+
+    /**
+     * Ends a batch of publications, handing each BatchNotifiable its batch
+     * of Responses.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the batch's Responses.
+     *
+     * @param collector
+     *         The BatchCollector of the batch, as returned by beginBatch.
+     */
+    void endBatch(final DDSManager ddsManager, final BatchCollector collector) {
+        if (collector != null) {
+            collector.deliver(ddsManager, metricsListener);
+        }
+    }
+
+    /**
+     * Returns a BatchCollector to the pool, discarding any Responses that it
+     * still holds.
+     *
+     * If every slot of the pool is full, the BatchCollector is discarded.
+     *
+     * @param collector
+     *         The BatchCollector, as returned by beginBatch.
+     */
+    void releaseCollector(final BatchCollector collector) {
+        if (collector == null) {
+            return;
+        }
+
+        collector.clear();
+
+        final int start = getStartingSlot();
+
+        for (int i = 0 ; i < MAXIMUM_POOLED_COLLECTORS ; i++) {
+            final int slot = (start + i) % MAXIMUM_POOLED_COLLECTORS;
+
+            if (atomicReferenceArray_collectors.get(slot) == null && atomicReferenceArray_collectors.compareAndSet(slot, null, collector)) {
+                return;
+            }
+        }
+    }
+
+    /** @return The slot of the BatchCollector pool at which the current thread starts its search. */
+    private static int getStartingSlot() {
+        return (int) (Thread.currentThread().getId() % MAXIMUM_POOLED_COLLECTORS);
+    }
+
+    /**
+     * Publishes the specified Response to all subscribers of its response
+     * type.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the Response.
+     *
+     * @param response
+     *         The Response to publish.
+     *
+     * @param responseType
+     *         The response type ID of the Response, or -1 if its response
+     *         type hasn't been interned.
+     *
+     * @param metricsListener
+     *         The listener to measure each subscriber's handleResponse with,
+     *         or null if they aren't measured.
+     *
+     * @param collector
+     *         The BatchCollector that collects the Response for each
+     *         BatchNotifiable, or null if there were no BatchNotifiables when
+     *         the batch began.
+     */
+    private void publishResponse(final DDSManager ddsManager, final Response response, final int responseType,
+                                 final MetricsListener metricsListener, final BatchCollector collector) {
+        final Notifiable[][] array_responseSubscribers = this.array_responseSubscribers;
+
+        if (responseType < 0 || responseType >= array_responseSubscribers.length) {
+            return;
+        }
+
+        // The snapshot is walked as-is, so subscriptions made during the walk apply to the next publication:
+        final Notifiable[] subscribers = array_responseSubscribers[responseType];
+        final ResponseDispatchEvent dispatchEvent = FlightRecording.beginDispatch();
+
+        if (metricsListener == null) {
+            for (final Notifiable subscriber : subscribers) {
+                if (collector != null && subscriber instanceof BatchNotifiable) {
+                    collector.add((BatchNotifiable) subscriber, response);
+                } else {
+                    subscriber.handleResponse(ddsManager, response);
+                }
+            }
+        } else {
+            for (final Notifiable subscriber : subscribers) {
+                if (collector != null && subscriber instanceof BatchNotifiable) {
+                    collector.add((BatchNotifiable) subscriber, response);
+                    continue;
+                }
+
+                final long startTime = System.nanoTime();
+                subscriber.handleResponse(ddsManager, response);
+                metricsListener.onResponseHandled(response.getResponseType(), subscriber, System.nanoTime() - startTime);
+            }
+        }
+
+        FlightRecording.commitDispatch(dispatchEvent, response, subscribers.length);
+    }
+
+    /**
+     * Sets the listener to measure each subscriber's handleResponse with.
+     *
+     * @param metricsListener
+     *         The listener, or null to stop measuring.
      */
-    void publishResponses(final DDSManager ddsManager, final List<Response> responses) {
-        responses.parallelStream()
-                .forEach(response -> {
-                    final String responseType = response.getResponseType();
+    void setMetricsListener(final MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
 
-                    arrayListMultimap_responseSubscribers.get(responseType)
-                                                         .parallelStream()
-                                                         .forEach(subscriber -> subscriber.handleResponse(ddsManager, response));
-                });
+    /**
+     * Retrieves the ID of the specified response type, interning it if it
+     * hasn't been interned before.
+     *
+     * @param responseType
+     *         The response type.
+     *
+     * @return
+     *         The ID of the response type.
+     */
+    synchronized int internResponseType(final String responseType) {
+        return symbolTable_responseTypes.intern(responseType);
+    }
+
+    /**
+     * Retrieves the ID of the specified response type.
+     *
+     * @param responseType
+     *         The response type.
+     *
+     * @return
+     *         The ID of the response type, or -1 if no subscriber or Response
+     *         uses it.
+     */
+    public synchronized int getResponseTypeId(final String responseType) {
+        return symbolTable_responseTypes.getId(responseType);
     }
 
     /**
@@ -37,24 +291,127 @@ public class Publisher implements Serializable {
      *
      * Duplicate entries will be ignored.
      *
+     * A BatchNotifiable subscriber is handed all of the Responses of its
+     * response types that are published together, in one call.
+     *
      * @param responseType
      *         The type of response to subscribe to.
      *
      * @param subscriber
      *         The Notifiable subscriber to add into the Dynamic Dialog System.
      */
-    public void addResponseSubscriber(final String responseType, final Notifiable subscriber) {
+    public synchronized void addResponseSubscriber(final String responseType, final Notifiable subscriber) {
+        final int id = symbolTable_responseTypes.intern(responseType);
+
+        while (arrayList_subscriberSets.size() <= id) {
+            arrayList_subscriberSets.add(new HashSet<>());
+        }
+
         /*
          * If the subscriber has not previously subscribed to
          * the specified response type, then allow it to
          * subscribe.
          */
-        boolean isAlreadySubscribed = arrayListMultimap_responseSubscribers.get(responseType)
-                                                                           .contains(subscriber);
+        if (! arrayList_subscriberSets.get(id).add(subscriber)) {
+            return;
+        }
+
+        if (subscriber instanceof BatchNotifiable) {
+            totalBatchSubscriptions++;
+        }
+
+        final Notifiable[][] array_responseSubscribers = Arrays.copyOf(this.array_responseSubscribers, arrayList_subscriberSets.size());
 
-        if(! isAlreadySubscribed) {
-            arrayListMultimap_responseSubscribers.put(responseType, subscriber);
+        for (int i = this.array_responseSubscribers.length ; i < array_responseSubscribers.length ; i++) {
+            array_responseSubscribers[i] = new Notifiable[0];
         }
+
+        final Notifiable[] subscribers = Arrays.copyOf(array_responseSubscribers[id], array_responseSubscribers[id].length + 1);
+        subscribers[subscribers.length - 1] = subscriber;
+        array_responseSubscribers[id] = subscribers;
+
+        this.array_responseSubscribers = array_responseSubscribers;
+    }
+
+    /**
+     * Adds the specified Notifiable subscriber to the Dynamic Dialog System,
+     * so that it handles each Response on an Executor, rather than on the
+     * thread that determined the Response.
+     *
+     * The subscriber is removed by passing the returned AsyncSubscriber to
+     * removeResponseSubscriber.
+     *
+     * @param responseType
+     *         The type of response to subscribe to.
+     *
+     * @param subscriber
+     *         The Notifiable subscriber to add into the Dynamic Dialog System.
+     *
+     * @param capacity
+     *         The largest number of Responses that can be queued for the
+     *         subscriber.
+     *
+     * @param overflowPolicy
+     *         The way in which a Response that arrives while the subscriber's
+     *         queue is full is handled.
+     *
+     * @param executor
+     *         The Executor on which the subscriber handles Responses.
+     *
+     * @return
+     *         The AsyncSubscriber that queues Responses for the subscriber.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the capacity is not positive.
+     */
+    public AsyncSubscriber addAsyncResponseSubscriber(final String responseType, final Notifiable subscriber, final int capacity,
+                                                      final OverflowPolicy overflowPolicy, final Executor executor) throws IllegalArgumentException {
+        final AsyncSubscriber asyncSubscriber = new AsyncSubscriber(subscriber, capacity, overflowPolicy, executor);
+        addResponseSubscriber(responseType, asyncSubscriber);
+        return asyncSubscriber;
+    }
+
+    /**
+     * Adds the specified Notifiable subscriber to the Dynamic Dialog System,
+     * so that it handles each Response on its own virtual thread, rather
+     * than on the thread that determined the Response.
+     *
+     * The subscriber is removed by passing the returned
+     * VirtualThreadSubscriber to removeResponseSubscriber.
+     *
+     * @param responseType
+     *         The type of response to subscribe to.
+     *
+     * @param subscriber
+     *         The Notifiable subscriber to add into the Dynamic Dialog System.
+     *
+     * @param maximumConcurrency
+     *         The largest number of Responses that the subscriber handles at
+     *         once.
+     *
+     * @param timeout
+     *         The duration after which a handler is counted as timed out.
+     *
+     * @param unit
+     *         The unit of the timeout.
+     *
+     * @return
+     *         The VirtualThreadSubscriber that starts a thread for each
+     *         Response.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the maximum concurrency or the timeout is not positive.
+     *
+     * @throws UnsupportedOperationException
+     *         Thrown if virtual threads are not supported, as the running Java
+     *         version is older than 21.
+     */
+    public VirtualThreadSubscriber addVirtualThreadResponseSubscriber(final String responseType, final Notifiable subscriber,
+                                                                      final int maximumConcurrency, final long timeout,
+                                                                      final TimeUnit unit) throws IllegalArgumentException, UnsupportedOperationException {
+        final VirtualThreadSubscriber virtualThreadSubscriber = new VirtualThreadSubscriber(subscriber, maximumConcurrency, timeout, unit);
+        addResponseSubscriber(responseType, virtualThreadSubscriber);
+        return virtualThreadSubscriber;
     }
 
     /**
@@ -66,7 +423,78 @@ public class Publisher implements Serializable {
      * @param subscriber
      *         The Notifiable subscriber to remove from the Dynamic Dialog System.
      */
-    public void removeResponseSubscriber(final String responseType, final Notifiable subscriber) {
-        arrayListMultimap_responseSubscribers.remove(responseType, subscriber);
+    public synchronized void removeResponseSubscriber(final String responseType, final Notifiable subscriber) {
+        final int id = symbolTable_responseTypes.getId(responseType);
+
+        if (id == -1 || id >= arrayList_subscriberSets.size() || ! arrayList_subscriberSets.get(id).remove(subscriber)) {
+            return;
+        }
+
+        if (subscriber instanceof BatchNotifiable) {
+            totalBatchSubscriptions--;
+        }
+
+        final Notifiable[][] array_responseSubscribers = this.array_responseSubscribers.clone();
+        final Notifiable[] oldSubscribers = array_responseSubscribers[id];
+        final Notifiable[] subscribers = new Notifiable[oldSubscribers.length - 1];
+
+        // The set held the subscriber, so it's within the array:
+        int index = 0;
+
+        while (! oldSubscribers[index].equals(subscriber)) {
+            index++;
+        }
+
+        System.arraycopy(oldSubscribers, 0, subscribers, 0, index);
+        System.arraycopy(oldSubscribers, index + 1, subscribers, index, subscribers.length - index);
+
+        array_responseSubscribers[id] = subscribers;
+        this.array_responseSubscribers = array_responseSubscribers;
+
+        final MetricsListener metricsListener = this.metricsListener;
+
+        if (metricsListener != null && ! isSubscribed(subscriber)) {
+            metricsListener.onSubscriberRemoved(subscriber);
+        }
+    }
+
+    /**
+     * Determines whether the specified subscriber is subscribed to any
+     * response type.
+     *
+     * @param subscriber
+     *         The subscriber.
+     *
+     * @return
+     *         Whether the subscriber is subscribed to any response type.
+     */
+    private boolean isSubscribed(final Notifiable subscriber) {
+        for (final HashSet<Notifiable> subscribers : arrayList_subscriberSets) {
+            if (subscribers.contains(subscriber)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        atomicReferenceArray_collectors = new AtomicReferenceArray<>(MAXIMUM_POOLED_COLLECTORS);
+
+        // A Publisher saved before response types were interned only has its subscribers in a multimap:
+        if (symbolTable_responseTypes == null) {
+            symbolTable_responseTypes = new SymbolTable();
+            array_responseSubscribers = new Notifiable[0][];
+            arrayList_subscriberSets = new ArrayList<>();
+
+            if (arrayListMultimap_responseSubscribers != null) {
+                for (final Map.Entry<String, Notifiable> entry : arrayListMultimap_responseSubscribers.entries()) {
+                    addResponseSubscriber(entry.getKey(), entry.getValue());
+                }
+
+                arrayListMultimap_responseSubscribers = null;
+            }
+        }
     }
 }
@@ -0,0 +1,79 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.object.Response;
+
+import java.util.Arrays;
+
+/**
+ * The Responses handed to a BatchNotifiable in one call, in the order that they were published.
+ *
+ * A ResponseBatch is reused by the Publisher, so it's only valid during the call that it's
+ * handed to.
+ */
+public final class ResponseBatch {
+    /** The Responses, of which only the first size are part of the batch. */
+    private Response[] array_responses;
+    /** The number of Responses in the batch. */
+    private int size;
+
+    /**
+     * Construct a new ResponseBatch.
+     *
+     * @param capacity
+     *         The number of Responses that can be held before the batch must
+     *         grow.
+     */
+    ResponseBatch(final int capacity) {
+        array_responses = new Response[Math.max(1, capacity)];
+    }
+
+    /**
+     * Adds a Response to the end of the batch.
+     *
+     * @param response
+     *         The Response.
+     */
+    void add(final Response response) {
+        if (size == array_responses.length) {
+            array_responses = Arrays.copyOf(array_responses, size * 2);
+        }
+
+        array_responses[size++] = response;
+    }
+
+    /** Removes every Response from the batch. */
+    void clear() {
+        Arrays.fill(array_responses, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Retrieves a Response of the batch.
+     *
+     * @param index
+     *         The index of the Response.
+     *
+     * @return
+     *         The Response.
+     *
+     * @throws IndexOutOfBoundsException
+     *         Thrown if the index is not within the batch.
+     */
+    public Response get(final int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("The index " + index + " is not within a batch of " + size + " Responses.");
+        }
+
+        return array_responses[index];
+    }
+
+    /** @return The number of Responses in the batch. */
+    public int size() {
+        return size;
+    }
+
+    /** @return Whether the batch holds no Responses. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
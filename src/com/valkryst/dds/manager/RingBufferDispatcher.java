@@ -0,0 +1,370 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.object.Response;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A subscriber that hands each Response to any number of consumers, each on its own thread,
+ * through a preallocated ring buffer.
+ *
+ * Each Response is given the next sequence number, written into the buffer slot of that
+ * sequence, and then marked as published by storing the sequence into the slot's barrier.
+ * Every consumer walks the buffer in sequence order, so it sees Responses in the order that
+ * they were published, and only reads a slot once the slot's barrier holds the expected
+ * sequence. A publisher never overwrites a slot until every consumer has moved past it, so a
+ * slow consumer applies backpressure to the publishers, rather than losing Responses.
+ *
+ * Any number of threads may publish at once, as the DDSManager lets any number of threads
+ * determine responses, and each Response is published on the thread that determined it. So a
+ * publisher claims its sequence with an atomic increment of the cursor, rather than with the
+ * plain store that a single-producer ring buffer would use. A single-writer cursor would
+ * hand two concurrent publishers the same slot, so the increment is the price of each
+ * publication.
+ *
+ * Neither publishing nor consuming takes a lock or allocates. An idle consumer spins briefly,
+ * then yields, then parks for PARK_NANOS at a time, which bounds the latency of a Response
+ * that is published to an idle consumer.
+ *
+ * Consumers are added before the dispatcher is started, and the dispatcher is registered with
+ * a Publisher for every response type that its consumers should receive.
+ */
+public final class RingBufferDispatcher implements Notifiable, AutoCloseable {
+    /** The number of times that an idle consumer spins before yielding. */
+    private static final int SPIN_TRIES = 100;
+    /** The number of times that an idle consumer yields before parking. */
+    private static final int YIELD_TRIES = 100;
+    /** The time for which an idle consumer parks, in nanoseconds. */
+    private static final long PARK_NANOS = 50_000;
+
+    /** The mask that converts a sequence into a slot. */
+    private final int mask;
+    /** The DDSManager that determined the Response in each slot. */
+    private final DDSManager[] array_managers;
+    /** The Response in each slot. */
+    private final Response[] array_responses;
+    /** The sequence that was last published into each slot, or -1 if none has been. */
+    private final AtomicLongArray atomicLongArray_barriers;
+
+    /** The last sequence that was claimed by a publisher, which is incremented atomically, as publishers may be concurrent. */
+    private final AtomicLong cursor = new AtomicLong(-1);
+    /** The lowest sequence that every consumer had handled, when it was last checked by a publisher. */
+    private volatile long cachedGatingSequence = -1;
+
+    /** The consumers. */
+    private final List<Consumer> list_consumers = new ArrayList<>();
+    /** The array of the consumers, which is fixed once the dispatcher is started. */
+    private volatile Consumer[] array_consumers;
+    /** The ThreadFactory that creates the thread of each consumer. */
+    private final ThreadFactory threadFactory;
+    /** Whether the dispatcher has been closed. */
+    private volatile boolean isClosed;
+
+    /**
+     * Construct a new RingBufferDispatcher.
+     *
+     * @param capacity
+     *         The number of slots in the ring buffer, which must be a power of
+     *         two.
+     *
+     * @param threadFactory
+     *         The ThreadFactory that creates the thread of each consumer.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the capacity is not a positive power of two.
+     */
+    public RingBufferDispatcher(final int capacity, @NonNull final ThreadFactory threadFactory) throws IllegalArgumentException {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity of a RingBufferDispatcher must be a positive power of two, "
+                                               + "but was " + capacity + ".");
+        }
+
+        this.mask = capacity - 1;
+        this.threadFactory = threadFactory;
+
+        array_managers = new DDSManager[capacity];
+        array_responses = new Response[capacity];
+        atomicLongArray_barriers = new AtomicLongArray(capacity);
+
+        for (int i = 0 ; i < capacity ; i++) {
+            atomicLongArray_barriers.set(i, -1);
+        }
+    }
+
+    /**
+     * Adds a consumer, which hands Responses to a subscriber on its own thread.
+     *
+     * @param responseType
+     *         The type of response to hand to the subscriber, or null to hand
+     *         it every Response.
+     *
+     * @param subscriber
+     *         The subscriber.
+     *
+     * @throws IllegalStateException
+     *         Thrown if the dispatcher has already been started.
+     */
+    public synchronized void addSubscriber(final String responseType, @NonNull final Notifiable subscriber) throws IllegalStateException {
+        if (array_consumers != null) {
+            throw new IllegalStateException("Subscribers cannot be added to a RingBufferDispatcher once it has been started.");
+        }
+
+        list_consumers.add(new Consumer(responseType, subscriber));
+    }
+
+    /**
+     * Starts the thread of each consumer.
+     *
+     * @throws IllegalStateException
+     *         Thrown if the dispatcher has already been started.
+     */
+    public synchronized void start() throws IllegalStateException {
+        if (array_consumers != null) {
+            throw new IllegalStateException("The RingBufferDispatcher has already been started.");
+        }
+
+        final Consumer[] consumers = list_consumers.toArray(new Consumer[list_consumers.size()]);
+
+        for (final Consumer consumer : consumers) {
+            consumer.thread = threadFactory.newThread(consumer);
+        }
+
+        array_consumers = consumers;
+
+        for (final Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    /**
+     * Stops accepting Responses, then waits for every consumer to handle
+     * the Responses that were published before it was closed.
+     *
+     * A Response that is published while the dispatcher is being closed may
+     * either be handled or be ignored, so publishing should have stopped.
+     *
+     * The wait isn't cut short by an interrupt, which is restored once every
+     * consumer has stopped.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+
+        final Consumer[] consumers = array_consumers;
+
+        if (consumers == null) {
+            return;
+        }
+
+        for (final Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+
+        boolean isInterrupted = false;
+
+        for (final Consumer consumer : consumers) {
+            while (true) {
+                try {
+                    consumer.thread.join();
+                    break;
+                } catch (final InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Publishes a Response to every consumer, waiting for the slowest
+     * consumer to make room for it if the ring buffer is full.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the Response.
+     *
+     * @param response
+     *         The Response.
+     *
+     * @throws IllegalStateException
+     *         Thrown if the dispatcher hasn't been started, or has been closed,
+     *         including while waiting for room.
+     */
+    @Override
+    public void handleResponse(final DDSManager ddsManager, final Response response) throws IllegalStateException {
+        final Consumer[] consumers = array_consumers;
+
+        if (consumers == null || isClosed) {
+            throw new IllegalStateException("Responses can only be published to a RingBufferDispatcher while it's running.");
+        }
+
+        final long sequence = cursor.incrementAndGet();
+        final long wrapPoint = sequence - array_responses.length;
+
+        // The slot is still held by the Response of wrapPoint, until every consumer has handled it:
+        if (wrapPoint > cachedGatingSequence) {
+            long gatingSequence;
+
+            while (wrapPoint > (gatingSequence = getGatingSequence(consumers))) {
+                /*
+                 * A consumer only stops once every claimed sequence has been
+                 * handled, so stopped consumers can never make room, and no
+                 * consumer is left waiting for this sequence.
+                 */
+                if (isClosed && ! isAnyConsumerAlive(consumers)) {
+                    throw new IllegalStateException("The RingBufferDispatcher was closed while a Response was waiting for room.");
+                }
+
+                LockSupport.parkNanos(1);
+            }
+
+            cachedGatingSequence = gatingSequence;
+        }
+
+        final int slot = (int) sequence & mask;
+        array_managers[slot] = ddsManager;
+        array_responses[slot] = response;
+        atomicLongArray_barriers.lazySet(slot, sequence);
+    }
+
+    /**
+     * Determines the lowest sequence that every consumer has handled.
+     *
+     * @param consumers
+     *         The consumers.
+     *
+     * @return
+     *         The sequence, or the last claimed sequence if there are no
+     *         consumers.
+     */
+    private long getGatingSequence(final Consumer[] consumers) {
+        long minimum = cursor.get();
+
+        for (final Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+
+        return minimum;
+    }
+
+    /**
+     * Determines whether any consumer's thread is still running.
+     *
+     * @param consumers
+     *         The consumers.
+     *
+     * @return
+     *         Whether any consumer's thread is still running.
+     */
+    private static boolean isAnyConsumerAlive(final Consumer[] consumers) {
+        for (final Consumer consumer : consumers) {
+            if (consumer.thread.isAlive()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /** @return The number of slots in the ring buffer. */
+    public int getCapacity() {
+        return array_responses.length;
+    }
+
+    /** @return The number of published Responses that the slowest consumer has yet to handle. */
+    public long getBacklog() {
+        final Consumer[] consumers = array_consumers;
+        return (consumers == null ? 0 : cursor.get() - getGatingSequence(consumers));
+    }
+
+    /** @return The number of Responses whose handling threw an exception or an Error, across every consumer. */
+    public long getFailedCount() {
+        final Consumer[] consumers = array_consumers;
+        long total = 0;
+
+        for (int i = 0 ; consumers != null && i < consumers.length ; i++) {
+            total += consumers[i].failed.sum();
+        }
+
+        return total;
+    }
+
+    /** Hands the Responses of the ring buffer, in sequence order, to a subscriber. */
+    private final class Consumer implements Runnable {
+        /** The type of response to hand to the subscriber, or null to hand it every Response. */
+        private final String responseType;
+        /** The subscriber. */
+        private final Notifiable subscriber;
+        /** The last sequence that the consumer has handled. */
+        private final AtomicLong sequence = new AtomicLong(-1);
+        /** The number of Responses whose handling threw an exception or an Error. */
+        private final LongAdder failed = new LongAdder();
+        /** The thread of the consumer. */
+        private Thread thread;
+
+        /**
+         * Construct a new Consumer.
+         *
+         * @param responseType
+         *         The type of response to hand to the subscriber, or null to hand
+         *         it every Response.
+         *
+         * @param subscriber
+         *         The subscriber.
+         */
+        private Consumer(final String responseType, final Notifiable subscriber) {
+            this.responseType = responseType;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idleTries = 0;
+
+            while (true) {
+                final int slot = (int) next & mask;
+
+                if (atomicLongArray_barriers.get(slot) == next) {
+                    final Response response = array_responses[slot];
+
+                    if (responseType == null || responseType.equals(response.getResponseType())) {
+                        // Even an Error is only counted, as a stopped consumer would leave publishers waiting for room forever:
+                        try {
+                            subscriber.handleResponse(array_managers[slot], response);
+                        } catch (final Throwable t) {
+                            failed.increment();
+                        }
+                    }
+
+                    sequence.lazySet(next++);
+                    idleTries = 0;
+                    continue;
+                }
+
+                // Once closed, a consumer stops after every claimed sequence has been handled:
+                if (isClosed && next > cursor.get()) {
+                    return;
+                }
+
+                if (idleTries < SPIN_TRIES) {
+                    idleTries++;
+                } else if (idleTries < SPIN_TRIES + YIELD_TRIES) {
+                    idleTries++;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+            }
+        }
+    }
+}
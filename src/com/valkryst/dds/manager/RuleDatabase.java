@@ -0,0 +1,655 @@
+package com.valkryst.dds.manager;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.valkryst.dds.object.ComparisonType;
+import com.valkryst.dds.object.Context;
+import com.valkryst.dds.object.Criterion;
+import com.valkryst.dds.object.CriterionPredicate;
+import com.valkryst.dds.object.Response;
+import com.valkryst.dds.object.Rule;
+import com.valkryst.dds.object.ValueType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The compiled form of the Rule<->Event and Rule<->Criterion associations of a DDSManager.
+ *
+ * A RuleDatabase is immutable once compiled, so that any number of threads can share it. The
+ * truth of its conditions and the scores of its Rules are held by RuleEvaluations, which are
+ * refreshed against the Contexts of the database's slots, and are pooled by the database so
+ * that each concurrent query has its own.
+ *
+ * Structurally identical Criterion, those that compare the same Context slot using the same
+ * predicate, are canonicalized into a single shared condition which is evaluated at most once
+ * per refresh. Each Rule keeps its own weight for each of its conditions.
+ *
+ * Each slot has a reverse index of the conditions that read it. When refreshed, only the
+ * conditions of Contexts whose version has changed are re-evaluated, and only the Rules of
+ * conditions whose truth has changed have their true weight re-summed.
+ *
+ * The truth of the conditions is held in a bitset, and each Rule holds a sparse mask of the
+ * bitset words covering its conditions. When every condition of a Rule has the same weight, the
+ * Rule is scored by counting the bits of its masked words, otherwise the weights of its TRUE
+ * conditions are read from a compact weight array.
+ *
+ * The Rules of each Event are compiled into an EventNetwork, whose ActiveRules are told whenever
+ * the score of one of its Rules changes. The EventNetworks are indexed by the interned IDs of
+ * their Events, and each Rule holds its Responses along with their interned response types, so
+ * that neither a query nor its publication has to hash a name.
+ *
+ * Slots that are read by many numeric conditions are also given a ThresholdIndex, so that when
+ * such a slot changes value, only the conditions whose thresholds lie between its previous and
+ * current value are re-evaluated.
+ *
+ * A RuleDatabase is rebuilt by the DDSManager whenever its associations change.
+ */
+final class RuleDatabase {
+    /** The number of numeric conditions that a slot must have before it is given a ThresholdIndex. */
+    private static final int MINIMUM_INDEXED_CONDITIONS = 4;
+    /** The number of RuleEvaluations that can be pooled, beyond which released RuleEvaluations are discarded. */
+    private static final int MAXIMUM_POOLED_EVALUATIONS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    /** The EventNetworks, with their Event IDs as indices, or null for Events that don't trigger any Rules. */
+    final EventNetwork[] array_networks;
+    /** The compiled Rules, with their indices as Keys. */
+    final CompiledRule[] array_rules;
+    /** The Contexts of the DDSManager, by slot, as of the compilation. */
+    final Context[] array_contexts;
+    /**
+     * The RuleEvaluations that aren't in use by any query, or null for empty slots.
+     *
+     * The pool is a fixed array of slots, rather than a queue, so that acquiring and releasing a
+     * RuleEvaluation never allocates.
+     */
+    private final AtomicReferenceArray<RuleEvaluation> atomicReferenceArray_evaluations = new AtomicReferenceArray<>(MAXIMUM_POOLED_EVALUATIONS);
+
+    /** The index of the bitset word covered by each of the Rules' masks, grouped by Rule. */
+    final int[] array_maskWords;
+    /** The bits of the Rules' conditions within each covered bitset word, grouped by Rule. */
+    final long[] array_masks;
+    /** The offset of each mask's weights within array_maskWeights. */
+    final int[] array_maskWeightOffsets;
+    /** The weight of each of the Rules' conditions, grouped by mask, in bit order. */
+    final double[] array_maskWeights;
+
+    /** The Context slot read by each condition. */
+    final int[] array_conditionSlots;
+    /** The predicate of each condition. */
+    final CriterionPredicate[] array_conditionPredicates;
+    /** The first Criterion that was canonicalized into each condition, used to describe the condition. */
+    final Criterion[] array_conditionCriteria;
+    /** The offset of each condition's Rules within array_conditionRules. */
+    final int[] array_conditionRulesOffsets;
+    /** The indices of the Rules that use each condition, grouped by condition. */
+    final int[] array_conditionRules;
+
+    /** The Context slots that are read by at-least one condition. */
+    final int[] array_readSlots;
+    /** The offset of each slot's conditions within array_slotConditions. */
+    final int[] array_slotConditionsOffsets;
+    /** The conditions that read each slot, grouped by slot. */
+    final int[] array_slotConditions;
+    /** The ThresholdIndex of each slot, or null if the slot's conditions aren't indexed. */
+    final ThresholdIndex[] array_slotIndices;
+    /** The largest number of conditions that read any one slot. */
+    final int maximumSlotConditions;
+
+    /**
+     * Compiles a new RuleDatabase.
+     *
+     * @param ruleEventAssociations
+     *         The associations between each Event and the Rules that it triggers.
+     *
+     * @param ruleCriterionAssociations
+     *         The associations between each Rule and its Criterion.
+     *
+     * @param ruleResponseAssociations
+     *         The associations between each Rule and its Responses.
+     *
+     * @param symbolTable_events
+     *         The SymbolTable that interns the Events.
+     *
+     * @param publisher
+     *         The Publisher that interns the response types.
+     *
+     * @param hashMap_contextHandles
+     *         The handles of the Contexts, by name.
+     *
+     * @param list_contexts
+     *         The Contexts of the DDSManager, by slot.
+     *
+     * @throws IllegalStateException
+     *          Thrown if a Criterion refers to a Context that is not in the DDSManager.
+     *
+     *          Thrown if a Criterion's Context has a different ValueType than the
+     *          DDSManager's Context of the same name.
+     */
+    RuleDatabase(final ArrayListMultimap<String, Rule> ruleEventAssociations,
+                 final ArrayListMultimap<Rule, Criterion> ruleCriterionAssociations,
+                 final ArrayListMultimap<Rule, Response> ruleResponseAssociations,
+                 final SymbolTable symbolTable_events, final Publisher publisher,
+                 final Map<String, ContextHandle> hashMap_contextHandles,
+                 final List<Context> list_contexts) throws IllegalStateException {
+        final int totalSlots = list_contexts.size();
+        array_contexts = list_contexts.toArray(new Context[totalSlots]);
+
+        // Compile each triggered Rule once, canonicalizing its Criterion into conditions:
+        final IdentityHashMap<Rule, CompiledRule> hashMap_compiledRules = new IdentityHashMap<>();
+        final HashMap<Condition, Integer> hashMap_conditions = new HashMap<>();
+        final ArrayList<Condition> arrayList_conditions = new ArrayList<>();
+        final ArrayList<CompiledRule> arrayList_rules = new ArrayList<>();
+        final ArrayList<Integer> arrayList_maskWords = new ArrayList<>();
+        final ArrayList<Long> arrayList_masks = new ArrayList<>();
+        final ArrayList<Integer> arrayList_maskWeightOffsets = new ArrayList<>();
+        final ArrayList<Double> arrayList_maskWeights = new ArrayList<>();
+        final ArrayList<EventNetwork> arrayList_networks = new ArrayList<>();
+
+        for (final String event : ruleEventAssociations.keySet()) {
+            final List<Rule> list_rules = ruleEventAssociations.get(event);
+            final CompiledRule[] compiledRules = new CompiledRule[list_rules.size()];
+
+            for (int i = 0 ; i < compiledRules.length ; i++) {
+                final Rule rule = list_rules.get(i);
+                CompiledRule compiledRule = hashMap_compiledRules.get(rule);
+
+                if (compiledRule == null) {
+                    final List<Criterion> list_criterion = ruleCriterionAssociations.get(rule);
+
+                    // Criterion that share a condition are merged, by summing their weights:
+                    final TreeMap<Integer, Double> treeMap_conditionWeights = new TreeMap<>();
+
+                    for (final Criterion criterion : list_criterion) {
+                        final ContextHandle handle = hashMap_contextHandles.get(criterion.getContext().getName());
+
+                        if (handle == null) {
+                            throw new IllegalStateException("The following Criterion refers to a Context that is not in the " +
+                                                            "Dynamic Dialog System.\n" + criterion.toString());
+                        }
+
+                        // The condition reads the slot's Context, so the predicate must have been compiled for its ValueType:
+                        final Context context = array_contexts[handle.getSlot()];
+                        final ValueType valueType = (context == null ? criterion.getContext().getValueType() : context.getValueType());
+
+                        if (valueType != criterion.getContext().getValueType()) {
+                            throw new IllegalStateException("The following Criterion compares a " + criterion.getContext().getValueType()
+                                                            + " Context, but the Context '" + context.getName() + "' of the Dynamic "
+                                                            + "Dialog System is a " + valueType + " Context.\n" + criterion.toString());
+                        }
+
+                        final Condition condition = new Condition(handle.getSlot(), valueType, criterion.getComparisonType(),
+                                                                  criterion.getPredicate(), criterion);
+                        Integer conditionIndex = hashMap_conditions.get(condition);
+
+                        if (conditionIndex == null) {
+                            conditionIndex = arrayList_conditions.size();
+                            hashMap_conditions.put(condition, conditionIndex);
+                            arrayList_conditions.add(condition);
+                        }
+
+                        final Double weight = treeMap_conditionWeights.get(conditionIndex);
+                        treeMap_conditionWeights.put(conditionIndex, weight == null ? criterion.getWeight()
+                                                                                    : weight + criterion.getWeight());
+                    }
+
+                    // Lay the conditions out as masks over the bitset words, in condition order:
+                    final int maskStart = arrayList_masks.size();
+                    double totalWeight = 0;
+                    double uniformWeight = Double.NaN;
+                    boolean isUniform = true;
+
+                    for (final Map.Entry<Integer, Double> entry : treeMap_conditionWeights.entrySet()) {
+                        final int condition = entry.getKey();
+                        final int word = condition >>> 6;
+
+                        if (arrayList_masks.size() == maskStart || arrayList_maskWords.get(arrayList_maskWords.size() - 1) != word) {
+                            arrayList_maskWords.add(word);
+                            arrayList_masks.add(0L);
+                            arrayList_maskWeightOffsets.add(arrayList_maskWeights.size());
+                        }
+
+                        final int mask = arrayList_masks.size() - 1;
+                        arrayList_masks.set(mask, arrayList_masks.get(mask) | (1L << condition));
+                        arrayList_maskWeights.add(entry.getValue());
+
+                        totalWeight += entry.getValue();
+
+                        if (Double.isNaN(uniformWeight)) {
+                            uniformWeight = entry.getValue();
+                        } else if (uniformWeight != entry.getValue()) {
+                            isUniform = false;
+                        }
+                    }
+
+                    if (isUniform && ! Double.isNaN(uniformWeight)) {
+                        totalWeight = treeMap_conditionWeights.size() * uniformWeight;
+                    } else {
+                        uniformWeight = Double.NaN;
+                    }
+
+                    // Intern the response type of each Response:
+                    final List<Response> list_responses = ruleResponseAssociations.get(rule);
+                    final Response[] responses = list_responses.toArray(new Response[list_responses.size()]);
+                    final int[] responseTypes = new int[responses.length];
+
+                    for (int j = 0 ; j < responses.length ; j++) {
+                        responseTypes[j] = publisher.internResponseType(responses[j].getResponseType());
+                    }
+
+                    compiledRule = new CompiledRule(rule, arrayList_rules.size(), maskStart, arrayList_masks.size(),
+                                                    list_criterion.size(), totalWeight, uniformWeight, responses,
+                                                    responseTypes);
+                    hashMap_compiledRules.put(rule, compiledRule);
+                    arrayList_rules.add(compiledRule);
+                }
+
+                compiledRules[i] = compiledRule;
+            }
+
+            final EventNetwork network = new EventNetwork(event, symbolTable_events.intern(event), compiledRules);
+            arrayList_networks.add(network);
+
+            for (int i = 0 ; i < compiledRules.length ; i++) {
+                compiledRules[i].addNetwork(network, i);
+            }
+        }
+
+        array_rules = arrayList_rules.toArray(new CompiledRule[arrayList_rules.size()]);
+        array_networks = new EventNetwork[symbolTable_events.size()];
+
+        for (final EventNetwork network : arrayList_networks) {
+            array_networks[network.eventId] = network;
+        }
+
+        final int totalMasks = arrayList_masks.size();
+        array_maskWords = new int[totalMasks];
+        array_masks = new long[totalMasks];
+        array_maskWeightOffsets = new int[totalMasks];
+
+        for (int i = 0 ; i < totalMasks ; i++) {
+            array_maskWords[i] = arrayList_maskWords.get(i);
+            array_masks[i] = arrayList_masks.get(i);
+            array_maskWeightOffsets[i] = arrayList_maskWeightOffsets.get(i);
+        }
+
+        final int totalEntries = arrayList_maskWeights.size();
+        array_maskWeights = new double[totalEntries];
+
+        for (int i = 0 ; i < totalEntries ; i++) {
+            array_maskWeights[i] = arrayList_maskWeights.get(i);
+        }
+
+        final int totalConditions = arrayList_conditions.size();
+        array_conditionSlots = new int[totalConditions];
+        array_conditionPredicates = new CriterionPredicate[totalConditions];
+        array_conditionCriteria = new Criterion[totalConditions];
+
+        for (int i = 0 ; i < totalConditions ; i++) {
+            array_conditionSlots[i] = arrayList_conditions.get(i).slot;
+            array_conditionPredicates[i] = arrayList_conditions.get(i).predicate;
+            array_conditionCriteria[i] = arrayList_conditions.get(i).criterion;
+        }
+
+        // Build the index from each condition to the Rules that use it:
+        array_conditionRulesOffsets = new int[totalConditions + 1];
+
+        for (final CompiledRule rule : array_rules) {
+            for (int mask = rule.maskStart ; mask < rule.maskEnd ; mask++) {
+                for (long bits = array_masks[mask] ; bits != 0 ; bits &= bits - 1) {
+                    array_conditionRulesOffsets[(array_maskWords[mask] << 6) + Long.numberOfTrailingZeros(bits) + 1]++;
+                }
+            }
+        }
+
+        for (int i = 0 ; i < totalConditions ; i++) {
+            array_conditionRulesOffsets[i + 1] += array_conditionRulesOffsets[i];
+        }
+
+        array_conditionRules = new int[totalEntries];
+        final int[] array_conditionFill = new int[totalConditions];
+
+        for (final CompiledRule rule : array_rules) {
+            for (int mask = rule.maskStart ; mask < rule.maskEnd ; mask++) {
+                for (long bits = array_masks[mask] ; bits != 0 ; bits &= bits - 1) {
+                    final int condition = (array_maskWords[mask] << 6) + Long.numberOfTrailingZeros(bits);
+                    array_conditionRules[array_conditionRulesOffsets[condition] + array_conditionFill[condition]++] = rule.index;
+                }
+            }
+        }
+
+        // Build the reverse index from each slot to the conditions that read it:
+        array_slotConditionsOffsets = new int[totalSlots + 1];
+
+        for (final int slot : array_conditionSlots) {
+            array_slotConditionsOffsets[slot + 1]++;
+        }
+
+        int totalReadSlots = 0;
+
+        for (int slot = 0 ; slot < totalSlots ; slot++) {
+            if (array_slotConditionsOffsets[slot + 1] != 0) {
+                totalReadSlots++;
+            }
+
+            array_slotConditionsOffsets[slot + 1] += array_slotConditionsOffsets[slot];
+        }
+
+        array_slotConditions = new int[totalConditions];
+        final int[] array_slotFill = new int[totalSlots];
+
+        for (int condition = 0 ; condition < totalConditions ; condition++) {
+            final int slot = array_conditionSlots[condition];
+            array_slotConditions[array_slotConditionsOffsets[slot] + array_slotFill[slot]++] = condition;
+        }
+
+        array_readSlots = new int[totalReadSlots];
+
+        for (int slot = 0, i = 0 ; slot < totalSlots ; slot++) {
+            if (array_slotFill[slot] != 0) {
+                array_readSlots[i++] = slot;
+            }
+        }
+
+        // Index the thresholds of each slot that's read by enough numeric conditions:
+        array_slotIndices = new ThresholdIndex[totalSlots];
+        int maximumSlotConditions = 0;
+
+        for (final int slot : array_readSlots) {
+            final int start = array_slotConditionsOffsets[slot];
+            final int end = array_slotConditionsOffsets[slot + 1];
+            maximumSlotConditions = Math.max(maximumSlotConditions, end - start);
+
+            if (end - start < MINIMUM_INDEXED_CONDITIONS) {
+                continue;
+            }
+
+            final boolean isDecimal = isDecimal(arrayList_conditions.get(array_slotConditions[start]).valueType);
+            final int[] conditions = Arrays.copyOfRange(array_slotConditions, start, end);
+            final ComparisonType[] comparisonTypes = new ComparisonType[conditions.length];
+            final CriterionPredicate[] predicates = new CriterionPredicate[conditions.length];
+            boolean isIndexable = true;
+
+            for (int i = 0 ; i < conditions.length ; i++) {
+                final Condition condition = arrayList_conditions.get(conditions[i]);
+                comparisonTypes[i] = condition.comparisonType;
+                predicates[i] = condition.predicate;
+
+                if (isDecimal ? ! isDecimal(condition.valueType) : ! isIntegral(condition.valueType)) {
+                    isIndexable = false;
+                    break;
+                }
+            }
+
+            if (isIndexable) {
+                array_slotIndices[slot] = new ThresholdIndex(isDecimal, conditions, comparisonTypes, predicates);
+            }
+        }
+
+        this.maximumSlotConditions = maximumSlotConditions;
+    }
+
+    /**
+     * Retrieves the EventNetwork of the specified Event.
+     *
+     * @param eventId
+     *         The ID of the Event.
+     *
+     * @return
+     *         The EventNetwork, or null if the Event doesn't trigger any Rules.
+     */
+    EventNetwork getNetwork(final int eventId) {
+        return (eventId < 0 || eventId >= array_networks.length ? null : array_networks[eventId]);
+    }
+
+    /**
+     * Ensures that every Context applied by a ContextOverlay, and the overlays
+     * beneath it, has the same ValueType as the Context that it overrides.
+     *
+     * @param overlay
+     *         The overlay.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if an overriding Context has a different ValueType than the
+     *         Context that it overrides.
+     */
+    void checkOverlay(final ContextOverlay overlay) throws IllegalArgumentException {
+        for (ContextOverlay layer = overlay ; layer != null ; layer = layer.getParent()) {
+            for (int i = 0 ; i < layer.getTotalOverrides() ; i++) {
+                final int slot = layer.getSlot(i);
+
+                // Slots added after the database was compiled aren't read by any condition:
+                if (slot < array_contexts.length) {
+                    // Only the nearest overriding Context of a slot is applied:
+                    checkOverride(slot, overlay.get(slot));
+                }
+            }
+        }
+    }
+
+    /**
+     * Ensures that an overriding Context has the same ValueType as the Context
+     * of the slot that it overrides.
+     *
+     * @param slot
+     *         The overridden slot.
+     *
+     * @param context
+     *         The overriding Context.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the overriding Context has a different ValueType than the
+     *         Context that it overrides.
+     */
+    void checkOverride(final int slot, final Context context) throws IllegalArgumentException {
+        final Context overriddenContext = array_contexts[slot];
+
+        if (overriddenContext != null && overriddenContext.getValueType() != context.getValueType()) {
+            throw new IllegalArgumentException("The Context '" + context.getName() + "' cannot override a "
+                                               + overriddenContext.getValueType() + " Context with a "
+                                               + context.getValueType() + " value.");
+        }
+    }
+
+    /**
+     * Retrieves a RuleEvaluation that isn't in use by any other query,
+     * creating one if none are pooled.
+     *
+     * The RuleEvaluation must be returned with releaseEvaluation once the
+     * query has finished with it.
+     *
+     * @return
+     *         The RuleEvaluation.
+     */
+    RuleEvaluation acquireEvaluation() {
+        // Each thread starts at its own slot, so that concurrent queries rarely contend for one:
+        final int start = getStartingSlot();
+
+        for (int i = 0 ; i < MAXIMUM_POOLED_EVALUATIONS ; i++) {
+            final int slot = (start + i) % MAXIMUM_POOLED_EVALUATIONS;
+            final RuleEvaluation evaluation = atomicReferenceArray_evaluations.get(slot);
+
+            if (evaluation != null && atomicReferenceArray_evaluations.compareAndSet(slot, evaluation, null)) {
+                return evaluation;
+            }
+        }
+
+        return new RuleEvaluation(this);
+    }
+
+    /**
+     * Returns a RuleEvaluation to the pool, once a query has finished with it.
+     *
+     * If every slot of the pool is full, the RuleEvaluation is discarded.
+     *
+     * @param evaluation
+     *         The RuleEvaluation.
+     */
+    void releaseEvaluation(final RuleEvaluation evaluation) {
+        final int start = getStartingSlot();
+
+        for (int i = 0 ; i < MAXIMUM_POOLED_EVALUATIONS ; i++) {
+            final int slot = (start + i) % MAXIMUM_POOLED_EVALUATIONS;
+
+            if (atomicReferenceArray_evaluations.get(slot) == null && atomicReferenceArray_evaluations.compareAndSet(slot, null, evaluation)) {
+                return;
+            }
+        }
+    }
+
+    /** @return The slot of the RuleEvaluation pool at which the current thread starts its search. */
+    private static int getStartingSlot() {
+        return (int) (Thread.currentThread().getId() % MAXIMUM_POOLED_EVALUATIONS);
+    }
+
+    /** @return Whether the ValueType holds BYTE, SHORT, INTEGER, or LONG values. */
+    static boolean isIntegral(final ValueType valueType) {
+        return valueType == ValueType.BYTE || valueType == ValueType.SHORT
+               || valueType == ValueType.INTEGER || valueType == ValueType.LONG;
+    }
+
+    /** @return Whether the ValueType holds FLOAT or DOUBLE values. */
+    static boolean isDecimal(final ValueType valueType) {
+        return valueType == ValueType.FLOAT || valueType == ValueType.DOUBLE;
+    }
+
+    /** The canonical form of a Criterion, without its weight. */
+    private static final class Condition {
+        /** The Context slot read by the condition. */
+        private final int slot;
+        /** The ValueType of the Context read by the condition. */
+        private final ValueType valueType;
+        /** The ComparisonType of the condition. */
+        private final ComparisonType comparisonType;
+        /** The predicate of the condition. */
+        private final CriterionPredicate predicate;
+        /** The first Criterion that was canonicalized into the condition, which isn't part of its identity. */
+        private final Criterion criterion;
+
+        private Condition(final int slot, final ValueType valueType, final ComparisonType comparisonType,
+                          final CriterionPredicate predicate, final Criterion criterion) {
+            this.slot = slot;
+            this.valueType = valueType;
+            this.comparisonType = comparisonType;
+            this.predicate = predicate;
+            this.criterion = criterion;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (! (object instanceof Condition)) {
+                return false;
+            }
+
+            final Condition condition = (Condition) object;
+            return slot == condition.slot && predicate.equals(condition.predicate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(slot, predicate);
+        }
+    }
+
+    /** A Rule whose conditions have been laid out contiguously as masks within the RuleDatabase. */
+    static final class CompiledRule {
+        /** The Rule. */
+        final Rule rule;
+        /** The index of the Rule within the RuleDatabase. */
+        final int index;
+        /** The index of the Rule's first mask. */
+        final int maskStart;
+        /** The index after the Rule's last mask. */
+        final int maskEnd;
+        /** The number of Criterion associated with the Rule. */
+        private final int totalCriterion;
+        /** The combined weight of all of the Rule's Criterion. */
+        private final double totalWeight;
+        /** The weight shared by all of the Rule's conditions, or NaN if their weights differ. */
+        final double uniformWeight;
+        /** The Responses of the Rule. */
+        final Response[] array_responses;
+        /** The response type ID of each of the Rule's Responses. */
+        final int[] array_responseTypes;
+        /** The EventNetworks that the Rule belongs to. */
+        EventNetwork[] array_networks = new EventNetwork[0];
+        /** The position of the Rule within each of its EventNetworks. */
+        int[] array_networkPositions = new int[0];
+
+        /**
+         * Construct a new CompiledRule.
+         *
+         * @param rule
+         *         The Rule.
+         *
+         * @param index
+         *         The index of the Rule within the RuleDatabase.
+         *
+         * @param maskStart
+         *         The index of the Rule's first mask.
+         *
+         * @param maskEnd
+         *         The index after the Rule's last mask.
+         *
+         * @param totalCriterion
+         *         The number of Criterion associated with the Rule.
+         *
+         * @param totalWeight
+         *         The combined weight of all of the Rule's Criterion.
+         *
+         * @param uniformWeight
+         *         The weight shared by all of the Rule's conditions, or NaN if their weights differ.
+         *
+         * @param array_responses
+         *         The Responses of the Rule.
+         *
+         * @param array_responseTypes
+         *         The response type ID of each of the Rule's Responses.
+         */
+        private CompiledRule(final Rule rule, final int index, final int maskStart, final int maskEnd,
+                             final int totalCriterion, final double totalWeight, final double uniformWeight,
+                             final Response[] array_responses, final int[] array_responseTypes) {
+            this.rule = rule;
+            this.index = index;
+            this.maskStart = maskStart;
+            this.maskEnd = maskEnd;
+            this.totalCriterion = totalCriterion;
+            this.totalWeight = totalWeight;
+            this.uniformWeight = uniformWeight;
+            this.array_responses = array_responses;
+            this.array_responseTypes = array_responseTypes;
+        }
+
+        /** @return The number of Criterion associated with the Rule. */
+        int getTotalCriterion() {
+            return totalCriterion;
+        }
+
+        /** @return The combined weight of all of the Rule's Criterion. */
+        double getTotalWeight() {
+            return totalWeight;
+        }
+
+        /**
+         * Adds the Rule to an EventNetwork.
+         *
+         * @param network
+         *         The EventNetwork.
+         *
+         * @param position
+         *         The position of the Rule within the EventNetwork.
+         */
+        private void addNetwork(final EventNetwork network, final int position) {
+            array_networks = Arrays.copyOf(array_networks, array_networks.length + 1);
+            array_networkPositions = Arrays.copyOf(array_networkPositions, array_networkPositions.length + 1);
+            array_networks[array_networks.length - 1] = network;
+            array_networkPositions[array_networkPositions.length - 1] = position;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.manager.RuleDatabase.CompiledRule;
+import com.valkryst.dds.metrics.SelectionCase;
+import com.valkryst.dds.object.Context;
+
+/**
+ * The scratch state of a query against a RuleDatabase.
+ *
+ * A RuleEvaluation holds the truth of the database's conditions, the true weight of its Rules,
+ * and the ActiveRules of its EventNetworks, as of its last refresh. It's only ever used by one
+ * thread at a time, the DDSManager pools its RuleEvaluations so that concurrent queries never
+ * share one, and so that each query only needs to re-evaluate the Contexts which have changed
+ * since the RuleEvaluation was last used.
+ *
+ * A query with a ContextOverlay applies the overlay as a patch, re-evaluating only the
+ * conditions of the overridden slots and remembering which of them changed their truth, then
+ * reverts exactly those conditions once the query has finished.
+ */
+final class RuleEvaluation {
+    /** The RuleDatabase being evaluated. */
+    final RuleDatabase database;
+
+    /** The bitset of the conditions that currently evaluate to TRUE. */
+    private final long[] array_conditionTruth;
+    /** The combined weight of each Rule's TRUE conditions, with the Rules' indices as Keys. */
+    private final double[] array_trueWeights;
+    /** The ActiveRules of each EventNetwork, with the networks' indices as Keys. */
+    private final ActiveRules[] array_activeRules;
+
+    /** The Context that was last seen in each slot. */
+    private final Context[] array_seenContexts;
+    /** The version of the Context that was last seen in each slot. */
+    private final int[] array_seenVersions;
+    /** Whether the value of the Context that was last seen in each slot can be used with its ThresholdIndex. */
+    private final boolean[] array_seenIndexable;
+    /** The value of the Context that was last seen in each indexed slot, decimals are stored as their bits. */
+    private final long[] array_seenValues;
+    /** The conditions collected from a ThresholdIndex during a refresh. */
+    private final int[] array_candidates;
+
+    /** Whether each Rule must have its true weight re-summed. */
+    private final boolean[] array_dirtyRules;
+    /** The indices of the Rules that must have their true weight re-summed. */
+    private final int[] array_dirtyRuleStack;
+    /** The number of Rules within array_dirtyRuleStack. */
+    private int totalDirtyRules;
+
+    /** Whether each slot has been overridden by the applied ContextOverlay. */
+    private final boolean[] array_overriddenSlots;
+    /** The slots that have been overridden by the applied ContextOverlay. */
+    private final int[] array_overriddenSlotStack;
+    /** The conditions whose truth was changed by the applied ContextOverlay. */
+    private final int[] array_flippedConditions;
+    /** The number of conditions within array_flippedConditions. */
+    private int totalFlippedConditions;
+    /** Whether conditions that change their truth are being recorded into array_flippedConditions. */
+    private boolean isRecordingFlips;
+
+    /** The SelectionCase of the last selection. */
+    SelectionCase selectionCase;
+    /** The number of Rules considered by the last selection. */
+    int totalScannedRules;
+    /** The number of conditions evaluated since the DDSManager last reset the count. */
+    int totalEvaluatedConditions;
+    /** The trace to record the terms of the current selection into, or null if it isn't traced. */
+    SelectionTrace trace;
+
+    /**
+     * Construct a new RuleEvaluation.
+     *
+     * @param database
+     *         The RuleDatabase to evaluate.
+     */
+    RuleEvaluation(final RuleDatabase database) {
+        this.database = database;
+
+        final int totalSlots = database.array_contexts.length;
+
+        array_conditionTruth = new long[(database.array_conditionSlots.length + 63) >>> 6];
+        array_trueWeights = new double[database.array_rules.length];
+        array_activeRules = new ActiveRules[database.array_networks.length];
+
+        for (final EventNetwork network : database.array_networks) {
+            if (network != null) {
+                array_activeRules[network.eventId] = new ActiveRules(network, this);
+            }
+        }
+
+        array_seenContexts = new Context[totalSlots];
+        array_seenVersions = new int[totalSlots];
+        array_seenIndexable = new boolean[totalSlots];
+        array_seenValues = new long[totalSlots];
+        array_candidates = new int[database.maximumSlotConditions];
+
+        array_dirtyRules = new boolean[database.array_rules.length];
+        array_dirtyRuleStack = new int[database.array_rules.length];
+
+        array_overriddenSlots = new boolean[totalSlots];
+        array_overriddenSlotStack = new int[totalSlots];
+        array_flippedConditions = new int[database.array_conditionSlots.length];
+    }
+
+    /**
+     * Retrieves the ActiveRules of the specified Event.
+     *
+     * @param eventId
+     *         The ID of the Event.
+     *
+     * @return
+     *         The ActiveRules, or null if the Event doesn't trigger any Rules.
+     */
+    ActiveRules getActiveRules(final int eventId) {
+        return (eventId < 0 || eventId >= array_activeRules.length ? null : array_activeRules[eventId]);
+    }
+
+    /**
+     * Determines the weight of all Criterion of a Rule that evaluate to TRUE,
+     * as of the last refresh.
+     *
+     * @param rule
+     *         The Rule.
+     *
+     * @return
+     *         The combined weight of all TRUE Criterion divided by the
+     *         weight of all Criterion combined.
+     */
+    double score(final CompiledRule rule) {
+        return array_trueWeights[rule.index] / rule.getTotalWeight();
+    }
+
+    /**
+     * Re-evaluates the conditions of every Context that has changed since the
+     * last refresh, then re-sums the true weight of every Rule that had a
+     * condition change its truth.
+     */
+    void refresh() {
+        for (final int slot : database.array_readSlots) {
+            final Context context = database.array_contexts[slot];
+
+            if (context == null) {
+                continue;
+            }
+
+            // The version is read before the value, so a concurrent change is caught by the next refresh:
+            final int version = context.getVersion();
+
+            if (context == array_seenContexts[slot] && version == array_seenVersions[slot]) {
+                continue;
+            }
+
+            final boolean wasSeen = context == array_seenContexts[slot] && array_seenIndexable[slot];
+            array_seenContexts[slot] = context;
+            array_seenVersions[slot] = version;
+
+            final ThresholdIndex index = database.array_slotIndices[slot];
+
+            if (index == null) {
+                evaluate(slot, context);
+                continue;
+            }
+
+            if (index.isDecimal() ? ! RuleDatabase.isDecimal(context.getValueType()) : ! RuleDatabase.isIntegral(context.getValueType())) {
+                array_seenIndexable[slot] = false;
+                evaluate(slot, context);
+                continue;
+            }
+
+            array_seenIndexable[slot] = true;
+            final long previousBits = array_seenValues[slot];
+
+            if (index.isDecimal()) {
+                final double previousValue = Double.longBitsToDouble(previousBits);
+                final double value = context.getDouble();
+                array_seenValues[slot] = Double.doubleToRawLongBits(value);
+
+                if (! wasSeen || Double.isNaN(previousValue) || Double.isNaN(value)) {
+                    evaluate(slot, context);
+                } else if (previousBits != array_seenValues[slot]) {
+                    evaluate(context, index.collect(previousValue, value, array_candidates));
+                }
+            } else {
+                final long value = context.getLong();
+                array_seenValues[slot] = value;
+
+                if (! wasSeen) {
+                    evaluate(slot, context);
+                } else if (previousBits != value) {
+                    evaluate(context, index.collect(previousBits, value, array_candidates));
+                }
+            }
+        }
+
+        rescoreDirtyRules();
+    }
+
+    /**
+     * Records every Rule of an EventNetwork into a trace, along with each of
+     * their conditions, as of the last refresh and any applied ContextOverlay.
+     *
+     * @param trace
+     *         The trace.
+     *
+     * @param activeRules
+     *         The ActiveRules of the EventNetwork, or null if the Event doesn't
+     *         trigger any Rules.
+     *
+     * @param overlay
+     *         The applied ContextOverlay, or null if none is applied.
+     */
+    void recordCandidates(final SelectionTrace trace, final ActiveRules activeRules, final ContextOverlay overlay) {
+        if (activeRules == null) {
+            return;
+        }
+
+        for (final CompiledRule rule : activeRules.network.array_rules) {
+            if (! trace.addCandidate(rule.rule, rule.getTotalWeight() > 0 ? score(rule) : 0)) {
+                return;
+            }
+
+            for (int mask = rule.maskStart ; mask < rule.maskEnd ; mask++) {
+                final long bits = database.array_masks[mask];
+                final int word = database.array_maskWords[mask];
+
+                for (long remainingBits = bits ; remainingBits != 0 ; remainingBits &= remainingBits - 1) {
+                    final long lowestBit = remainingBits & -remainingBits;
+                    final int condition = (word << 6) + Long.numberOfTrailingZeros(lowestBit);
+                    final int slot = database.array_conditionSlots[condition];
+                    final Context overridingContext = (overlay == null ? null : overlay.get(slot));
+
+                    final boolean fits = trace.addCondition(database.array_conditionCriteria[condition],
+                                                            overridingContext == null ? database.array_contexts[slot] : overridingContext,
+                                                            database.array_maskWeights[database.array_maskWeightOffsets[mask] + Long.bitCount(bits & (lowestBit - 1))],
+                                                            (array_conditionTruth[word] & lowestBit) != 0);
+
+                    if (! fits) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a ContextOverlay, and the overlays beneath it, on top of the
+     * Contexts as of the last refresh.
+     *
+     * The overlay must be removed with removeOverlay before the next refresh,
+     * even if this throws an exception.
+     *
+     * @param overlay
+     *         The overlay.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if an overriding Context has a different ValueType than the
+     *         Context that it overrides.
+     */
+    void applyOverlay(final ContextOverlay overlay) throws IllegalArgumentException {
+        int totalOverriddenSlots = 0;
+        isRecordingFlips = true;
+
+        try {
+            // The nearest overlay is applied first, so that it takes precedence:
+            for (ContextOverlay layer = overlay ; layer != null ; layer = layer.getParent()) {
+                for (int i = 0 ; i < layer.getTotalOverrides() ; i++) {
+                    final int slot = layer.getSlot(i);
+
+                    // Slots added after the database was compiled aren't read by any condition:
+                    if (slot >= array_overriddenSlots.length || array_overriddenSlots[slot]) {
+                        continue;
+                    }
+
+                    final Context context = layer.getContext(i);
+                    database.checkOverride(slot, context);
+
+                    array_overriddenSlots[slot] = true;
+                    array_overriddenSlotStack[totalOverriddenSlots++] = slot;
+                    evaluate(slot, context);
+                }
+            }
+        } finally {
+            isRecordingFlips = false;
+
+            while (totalOverriddenSlots > 0) {
+                array_overriddenSlots[array_overriddenSlotStack[--totalOverriddenSlots]] = false;
+            }
+        }
+
+        rescoreDirtyRules();
+    }
+
+    /** Reverts every condition whose truth was changed by the applied ContextOverlay. */
+    void removeOverlay() {
+        while (totalFlippedConditions > 0) {
+            final int condition = array_flippedConditions[--totalFlippedConditions];
+            array_conditionTruth[condition >>> 6] ^= 1L << condition;
+            markRulesDirty(condition);
+        }
+
+        rescoreDirtyRules();
+    }
+
+    /** Re-sums the true weight of every Rule that had a condition change its truth. */
+    private void rescoreDirtyRules() {
+        /*
+         * The true weight is re-summed in condition order, rather than being
+         * adjusted by the weight of each changed condition, so that it never
+         * accumulates rounding error and always matches a full evaluation.
+         */
+        while (totalDirtyRules > 0) {
+            final CompiledRule rule = database.array_rules[array_dirtyRuleStack[--totalDirtyRules]];
+            array_dirtyRules[rule.index] = false;
+
+            final double trueWeight = Double.isNaN(rule.uniformWeight) ? sumTrueWeights(rule)
+                                                                       : countTrueConditions(rule) * rule.uniformWeight;
+
+            if (trueWeight != array_trueWeights[rule.index]) {
+                array_trueWeights[rule.index] = trueWeight;
+
+                for (int i = 0 ; i < rule.array_networks.length ; i++) {
+                    array_activeRules[rule.array_networks[i].eventId].updateRule(rule.array_networkPositions[i], trueWeight > 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates every condition that reads the specified slot.
+     *
+     * @param slot
+     *         The slot.
+     *
+     * @param context
+     *         The Context in the slot.
+     */
+    private void evaluate(final int slot, final Context context) {
+        for (int i = database.array_slotConditionsOffsets[slot] ; i < database.array_slotConditionsOffsets[slot + 1] ; i++) {
+            evaluateCondition(database.array_slotConditions[i], context);
+        }
+    }
+
+    /**
+     * Re-evaluates the conditions that were collected from a ThresholdIndex.
+     *
+     * @param context
+     *         The Context in the conditions' slot.
+     *
+     * @param totalCandidates
+     *         The number of conditions within array_candidates.
+     */
+    private void evaluate(final Context context, final int totalCandidates) {
+        for (int i = 0 ; i < totalCandidates ; i++) {
+            evaluateCondition(array_candidates[i], context);
+        }
+    }
+
+    /**
+     * Re-evaluates a condition, marking its Rules as dirty if its truth has
+     * changed.
+     *
+     * @param condition
+     *         The condition.
+     *
+     * @param context
+     *         The Context in the condition's slot.
+     */
+    private void evaluateCondition(final int condition, final Context context) {
+        final boolean isTrue = database.array_conditionPredicates[condition].test(context);
+        totalEvaluatedConditions++;
+        final long bit = 1L << condition;
+
+        if (isTrue != ((array_conditionTruth[condition >>> 6] & bit) != 0)) {
+            array_conditionTruth[condition >>> 6] ^= bit;
+            markRulesDirty(condition);
+
+            if (isRecordingFlips) {
+                array_flippedConditions[totalFlippedConditions++] = condition;
+            }
+        }
+    }
+
+    /**
+     * Marks every Rule that uses the specified condition as needing its true
+     * weight to be re-summed.
+     *
+     * @param condition
+     *         The condition.
+     */
+    private void markRulesDirty(final int condition) {
+        for (int i = database.array_conditionRulesOffsets[condition] ; i < database.array_conditionRulesOffsets[condition + 1] ; i++) {
+            markDirty(database.array_conditionRules[i]);
+        }
+    }
+
+    /**
+     * Counts the TRUE conditions of a Rule whose conditions all have the
+     * same weight.
+     *
+     * @param rule
+     *         The Rule.
+     *
+     * @return
+     *         The number of the Rule's conditions that evaluate to TRUE.
+     */
+    private int countTrueConditions(final CompiledRule rule) {
+        int total = 0;
+
+        for (int mask = rule.maskStart ; mask < rule.maskEnd ; mask++) {
+            total += Long.bitCount(array_conditionTruth[database.array_maskWords[mask]] & database.array_masks[mask]);
+        }
+
+        return total;
+    }
+
+    /**
+     * Sums the weights of the TRUE conditions of a Rule.
+     *
+     * @param rule
+     *         The Rule.
+     *
+     * @return
+     *         The combined weight of the Rule's conditions that evaluate to TRUE.
+     */
+    private double sumTrueWeights(final CompiledRule rule) {
+        double trueWeight = 0;
+
+        for (int mask = rule.maskStart ; mask < rule.maskEnd ; mask++) {
+            final long bits = database.array_masks[mask];
+
+            for (long trueBits = array_conditionTruth[database.array_maskWords[mask]] & bits ; trueBits != 0 ; trueBits &= trueBits - 1) {
+                // The weight of a bit is found by counting the mask's bits below it:
+                final long lowestBit = trueBits & -trueBits;
+                trueWeight += database.array_maskWeights[database.array_maskWeightOffsets[mask] + Long.bitCount(bits & (lowestBit - 1))];
+            }
+        }
+
+        return trueWeight;
+    }
+
+    /**
+     * Marks the specified Rule as needing its true weight to be re-summed.
+     *
+     * @param rule
+     *         The index of the Rule.
+     */
+    private void markDirty(final int rule) {
+        if (! array_dirtyRules[rule]) {
+            array_dirtyRules[rule] = true;
+            array_dirtyRuleStack[totalDirtyRules++] = rule;
+        }
+    }
+}
@@ -0,0 +1,549 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.metrics.SelectionCase;
+import com.valkryst.dds.object.Context;
+import com.valkryst.dds.object.Criterion;
+import com.valkryst.dds.object.Rule;
+import com.valkryst.dds.object.ValueType;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The explanation of how a DDSManager selected the Rule to respond to, for a single query.
+ *
+ * A trace holds every Rule triggered by the queried Event, in the order that they were
+ * associated with it, along with each of their Criterion, the value that each Criterion was
+ * evaluated against, and whether it was TRUE. When the Rule was selected by weighing scores
+ * against last used times, the trace also holds the normalized score, recency term, and final
+ * score of every Rule that the selection considered.
+ *
+ * Criterion that compare the same Context in the same way are evaluated as one, so each such
+ * group is listed once, with the first Criterion of the group and the group's combined weight.
+ *
+ * The traces of a SelectionTracer are preallocated and reused, so the traces that it hands out
+ * are copies, which are never changed.
+ */
+public final class SelectionTrace {
+    /** Whether the trace is being written or copied, which excludes every other writer and reader. */
+    final AtomicBoolean isBusy = new AtomicBoolean();
+    /** The order in which the trace was recorded, or -1 if nothing has been recorded into it. */
+    long order = -1;
+
+    /** The time at which the query was made, in milliseconds since the epoch. */
+    @Getter private long time;
+    /** The queried Event, or null if an Event ID was queried which doesn't belong to any Event. */
+    @Getter private String event;
+    /** The way in which a Rule was selected. */
+    @Getter private SelectionCase selectionCase;
+    /** The Rule that was responded to, or null if there is none. */
+    @Getter private Rule chosenRule;
+    /** The number of Rules triggered by the Event, including any which didn't fit within the trace. */
+    @Getter private int totalCandidates;
+    /** Whether some Rules or Criterion didn't fit within the trace, and were left out. */
+    @Getter private boolean isTruncated;
+
+    /** The Rules that were recorded. */
+    private final Rule[] array_rules;
+    /** The score of each Rule, as the weight of its TRUE Criterion divided by the weight of all of its Criterion. */
+    private final double[] array_criterionScores;
+    /** The normalized score of each Rule, or NaN if the selection didn't compute one. */
+    private final double[] array_normalizedScores;
+    /** The recency term of each Rule, or NaN if the selection didn't compute one. */
+    private final double[] array_recencyTerms;
+    /** The final score of each Rule, or NaN if the selection didn't compute one. */
+    private final double[] array_finalScores;
+    /** The offset of each Rule's conditions, with one extra element marking the end of the last Rule's conditions. */
+    private final int[] array_conditionOffsets;
+    /** The number of Rules that were recorded. */
+    private int totalRecordedCandidates;
+
+    /** The first Criterion of each condition. */
+    private final Criterion[] array_criteria;
+    /** The Context that each condition was evaluated against, which may belong to a ContextOverlay. */
+    private final Context[] array_contexts;
+    /** The combined weight of each condition, for its Rule. */
+    private final double[] array_weights;
+    /** Whether each condition was TRUE. */
+    private final boolean[] array_truths;
+    /** The value of each condition's Context, for integral, decimal, and boolean Contexts. */
+    private final long[] array_valueBits;
+    /** The value of each condition's Context, for all other Contexts. */
+    private final String[] array_valueTexts;
+    /** The number of conditions that were recorded. */
+    private int totalRecordedConditions;
+
+    /**
+     * Construct a new SelectionTrace.
+     *
+     * @param maximumCandidates
+     *         The largest number of Rules that the trace can hold.
+     *
+     * @param maximumConditions
+     *         The largest number of conditions, across all of its Rules, that
+     *         the trace can hold.
+     */
+    SelectionTrace(final int maximumCandidates, final int maximumConditions) {
+        array_rules = new Rule[maximumCandidates];
+        array_criterionScores = new double[maximumCandidates];
+        array_normalizedScores = new double[maximumCandidates];
+        array_recencyTerms = new double[maximumCandidates];
+        array_finalScores = new double[maximumCandidates];
+        array_conditionOffsets = new int[maximumCandidates + 1];
+
+        array_criteria = new Criterion[maximumConditions];
+        array_contexts = new Context[maximumConditions];
+        array_weights = new double[maximumConditions];
+        array_truths = new boolean[maximumConditions];
+        array_valueBits = new long[maximumConditions];
+        array_valueTexts = new String[maximumConditions];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("SelectionTrace:\n");
+        sb.append("\tEvent:\n\t\t").append(event).append('\n');
+        sb.append("\tSelection Case:\n\t\t").append(selectionCase).append('\n');
+        sb.append("\tChosen Rule:\n\t\t").append(chosenRule == null ? null : chosenRule.getDescription()).append('\n');
+        sb.append("\tCandidates:\n");
+
+        for (int candidate = 0 ; candidate < totalRecordedCandidates ; candidate++) {
+            sb.append("\t\t").append(array_rules[candidate].getDescription())
+              .append(" (score ").append(array_criterionScores[candidate]);
+
+            if (! Double.isNaN(array_finalScores[candidate])) {
+                sb.append(", normalized score ").append(array_normalizedScores[candidate])
+                  .append(", recency term ").append(array_recencyTerms[candidate])
+                  .append(", final score ").append(array_finalScores[candidate]);
+            }
+
+            sb.append(")\n");
+
+            for (int condition = 0 ; condition < getTotalConditions(candidate) ; condition++) {
+                final Criterion criterion = getCriterion(candidate, condition);
+
+                // A Criterion compares its comparison value to its Context, in that order:
+                sb.append("\t\t\t").append(isTrue(candidate, condition) ? "TRUE  " : "FALSE ")
+                  .append(criterion.getComparisonValue()).append(' ')
+                  .append(criterion.getComparisonType()).append(' ')
+                  .append(criterion.getContext().getName())
+                  .append(" (value ").append(getValue(candidate, condition))
+                  .append(", weight ").append(getWeight(candidate, condition)).append(")\n");
+            }
+        }
+
+        if (totalRecordedCandidates < totalCandidates || isTruncated) {
+            sb.append("\t\t...\n");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Starts recording a query, discarding whatever was recorded before.
+     *
+     * @param order
+     *         The order in which the trace is being recorded.
+     *
+     * @param event
+     *         The queried Event.
+     *
+     * @param totalCandidates
+     *         The number of Rules triggered by the Event.
+     */
+    void begin(final long order, final String event, final int totalCandidates) {
+        this.order = order;
+        this.time = System.currentTimeMillis();
+        this.event = event;
+        this.selectionCase = null;
+        this.chosenRule = null;
+        this.totalCandidates = totalCandidates;
+        this.isTruncated = false;
+
+        totalRecordedCandidates = 0;
+        totalRecordedConditions = 0;
+        array_conditionOffsets[0] = 0;
+    }
+
+    /**
+     * Records the next Rule triggered by the Event.
+     *
+     * @param rule
+     *         The Rule.
+     *
+     * @param criterionScore
+     *         The score of the Rule.
+     *
+     * @return
+     *         Whether the Rule fit within the trace.
+     */
+    boolean addCandidate(final Rule rule, final double criterionScore) {
+        if (totalRecordedCandidates == array_rules.length) {
+            isTruncated = true;
+            return false;
+        }
+
+        final int candidate = totalRecordedCandidates++;
+        array_rules[candidate] = rule;
+        array_criterionScores[candidate] = criterionScore;
+        array_normalizedScores[candidate] = Double.NaN;
+        array_recencyTerms[candidate] = Double.NaN;
+        array_finalScores[candidate] = Double.NaN;
+        array_conditionOffsets[candidate + 1] = totalRecordedConditions;
+        return true;
+    }
+
+    /**
+     * Records a condition of the last recorded Rule.
+     *
+     * @param criterion
+     *         The first Criterion of the condition.
+     *
+     * @param context
+     *         The Context that the condition was evaluated against, or null if
+     *         it was removed from the Dynamic Dialog System.
+     *
+     * @param weight
+     *         The combined weight of the condition, for the Rule.
+     *
+     * @param isTrue
+     *         Whether the condition was TRUE.
+     *
+     * @return
+     *         Whether the condition fit within the trace.
+     */
+    boolean addCondition(final Criterion criterion, final Context context, final double weight, final boolean isTrue) {
+        if (totalRecordedConditions == array_criteria.length) {
+            isTruncated = true;
+            return false;
+        }
+
+        final int condition = totalRecordedConditions++;
+        array_criteria[condition] = criterion;
+        array_contexts[condition] = context;
+        array_weights[condition] = weight;
+        array_truths[condition] = isTrue;
+
+        // The value is kept as a primitive where possible, so that recording never allocates:
+        final ValueType valueType = (context == null ? null : context.getValueType());
+
+        if (RuleDatabase.isIntegral(valueType)) {
+            array_valueBits[condition] = context.getLong();
+            array_valueTexts[condition] = null;
+        } else if (RuleDatabase.isDecimal(valueType)) {
+            array_valueBits[condition] = Double.doubleToRawLongBits(context.getDouble());
+            array_valueTexts[condition] = null;
+        } else if (valueType == ValueType.BOOLEAN) {
+            array_valueBits[condition] = context.getBoolean() ? 1 : 0;
+            array_valueTexts[condition] = null;
+        } else {
+            array_valueTexts[condition] = (context == null ? null : context.getValue());
+        }
+
+        array_conditionOffsets[totalRecordedCandidates] = totalRecordedConditions;
+        return true;
+    }
+
+    /**
+     * Records the terms that the selection weighed for a Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @param normalizedScore
+     *         The normalized score of the Rule.
+     *
+     * @param recencyTerm
+     *         The recency term of the Rule.
+     *
+     * @param finalScore
+     *         The final score of the Rule.
+     */
+    void recordScores(final int candidate, final double normalizedScore, final double recencyTerm, final double finalScore) {
+        if (candidate < totalRecordedCandidates) {
+            array_normalizedScores[candidate] = normalizedScore;
+            array_recencyTerms[candidate] = recencyTerm;
+            array_finalScores[candidate] = finalScore;
+        }
+    }
+
+    /**
+     * Finishes recording a query.
+     *
+     * @param selectionCase
+     *         The way in which a Rule was selected.
+     *
+     * @param chosenRule
+     *         The Rule that was responded to, or null if there is none.
+     */
+    void end(final SelectionCase selectionCase, final Rule chosenRule) {
+        this.selectionCase = selectionCase;
+        this.chosenRule = chosenRule;
+    }
+
+    /**
+     * Copies the trace into a new trace, just large enough to hold it.
+     *
+     * @return
+     *         The copy.
+     */
+    SelectionTrace copy() {
+        final SelectionTrace copy = new SelectionTrace(totalRecordedCandidates, totalRecordedConditions);
+        copy.order = order;
+        copy.time = time;
+        copy.event = event;
+        copy.selectionCase = selectionCase;
+        copy.chosenRule = chosenRule;
+        copy.totalCandidates = totalCandidates;
+        copy.isTruncated = isTruncated;
+        copy.totalRecordedCandidates = totalRecordedCandidates;
+        copy.totalRecordedConditions = totalRecordedConditions;
+
+        System.arraycopy(array_rules, 0, copy.array_rules, 0, totalRecordedCandidates);
+        System.arraycopy(array_criterionScores, 0, copy.array_criterionScores, 0, totalRecordedCandidates);
+        System.arraycopy(array_normalizedScores, 0, copy.array_normalizedScores, 0, totalRecordedCandidates);
+        System.arraycopy(array_recencyTerms, 0, copy.array_recencyTerms, 0, totalRecordedCandidates);
+        System.arraycopy(array_finalScores, 0, copy.array_finalScores, 0, totalRecordedCandidates);
+        System.arraycopy(array_conditionOffsets, 0, copy.array_conditionOffsets, 0, totalRecordedCandidates + 1);
+
+        System.arraycopy(array_criteria, 0, copy.array_criteria, 0, totalRecordedConditions);
+        System.arraycopy(array_contexts, 0, copy.array_contexts, 0, totalRecordedConditions);
+        System.arraycopy(array_weights, 0, copy.array_weights, 0, totalRecordedConditions);
+        System.arraycopy(array_truths, 0, copy.array_truths, 0, totalRecordedConditions);
+        System.arraycopy(array_valueBits, 0, copy.array_valueBits, 0, totalRecordedConditions);
+        System.arraycopy(array_valueTexts, 0, copy.array_valueTexts, 0, totalRecordedConditions);
+        return copy;
+    }
+
+    /** @return The number of Rules that were recorded, which may be fewer than the number of candidates. */
+    public int getTotalRecordedCandidates() {
+        return totalRecordedCandidates;
+    }
+
+    /**
+     * Retrieves a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @return
+     *         The Rule.
+     */
+    public Rule getRule(final int candidate) {
+        checkCandidate(candidate);
+        return array_rules[candidate];
+    }
+
+    /**
+     * Retrieves the score of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @return
+     *         The weight of the Rule's TRUE Criterion divided by the weight of
+     *         all of its Criterion.
+     */
+    public double getCriterionScore(final int candidate) {
+        checkCandidate(candidate);
+        return array_criterionScores[candidate];
+    }
+
+    /**
+     * Retrieves the normalized score of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @return
+     *         The score of the Rule, normalized against the scores of the
+     *         other Rules, or NaN if the selection didn't consider the Rule.
+     */
+    public double getNormalizedScore(final int candidate) {
+        checkCandidate(candidate);
+        return array_normalizedScores[candidate];
+    }
+
+    /**
+     * Retrieves the recency term of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @return
+     *         The term derived from the last used time of the Rule, or NaN if
+     *         the selection didn't consider the Rule.
+     */
+    public double getRecencyTerm(final int candidate) {
+        checkCandidate(candidate);
+        return array_recencyTerms[candidate];
+    }
+
+    /**
+     * Retrieves the final score of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @return
+     *         The weighted sum of the normalized score and recency term, or
+     *         NaN if the selection didn't consider the Rule.
+     */
+    public double getFinalScore(final int candidate) {
+        checkCandidate(candidate);
+        return array_finalScores[candidate];
+    }
+
+    /**
+     * Retrieves the number of recorded conditions of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @return
+     *         The number of conditions.
+     */
+    public int getTotalConditions(final int candidate) {
+        checkCandidate(candidate);
+        return array_conditionOffsets[candidate + 1] - array_conditionOffsets[candidate];
+    }
+
+    /**
+     * Retrieves the first Criterion of a condition of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @param condition
+     *         The index of the condition within the Rule's conditions.
+     *
+     * @return
+     *         The Criterion.
+     */
+    public Criterion getCriterion(final int candidate, final int condition) {
+        return array_criteria[indexOf(candidate, condition)];
+    }
+
+    /**
+     * Retrieves the Context that a condition of a recorded Rule was evaluated
+     * against, which may belong to a ContextOverlay.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @param condition
+     *         The index of the condition within the Rule's conditions.
+     *
+     * @return
+     *         The Context, or null if it was removed from the Dynamic Dialog
+     *         System.
+     */
+    public Context getContext(final int candidate, final int condition) {
+        return array_contexts[indexOf(candidate, condition)];
+    }
+
+    /**
+     * Retrieves the combined weight of a condition of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @param condition
+     *         The index of the condition within the Rule's conditions.
+     *
+     * @return
+     *         The combined weight of the condition's Criterion, for the Rule.
+     */
+    public double getWeight(final int candidate, final int condition) {
+        return array_weights[indexOf(candidate, condition)];
+    }
+
+    /**
+     * Determines whether a condition of a recorded Rule was TRUE.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @param condition
+     *         The index of the condition within the Rule's conditions.
+     *
+     * @return
+     *         Whether the condition was TRUE.
+     */
+    public boolean isTrue(final int candidate, final int condition) {
+        return array_truths[indexOf(candidate, condition)];
+    }
+
+    /**
+     * Retrieves the value that a condition of a recorded Rule was evaluated
+     * against.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @param condition
+     *         The index of the condition within the Rule's conditions.
+     *
+     * @return
+     *         The value, formatted in the same way as Context.getValue, or
+     *         null if the Context was removed from the Dynamic Dialog System.
+     */
+    public String getValue(final int candidate, final int condition) {
+        final int index = indexOf(candidate, condition);
+        final ValueType valueType = (array_contexts[index] == null ? null : array_contexts[index].getValueType());
+        final long bits = array_valueBits[index];
+
+        if (RuleDatabase.isIntegral(valueType)) {
+            return Long.toString(bits);
+        } else if (valueType == ValueType.FLOAT) {
+            return Float.toString((float) Double.longBitsToDouble(bits));
+        } else if (valueType == ValueType.DOUBLE) {
+            return Double.toString(Double.longBitsToDouble(bits));
+        } else if (valueType == ValueType.BOOLEAN) {
+            return Boolean.toString(bits != 0);
+        } else {
+            return array_valueTexts[index];
+        }
+    }
+
+    /**
+     * Checks that a Rule was recorded.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @throws IndexOutOfBoundsException
+     *         Thrown if the Rule wasn't recorded.
+     */
+    private void checkCandidate(final int candidate) throws IndexOutOfBoundsException {
+        if (candidate < 0 || candidate >= totalRecordedCandidates) {
+            throw new IndexOutOfBoundsException("The candidate " + candidate + " was not recorded, only "
+                                                + totalRecordedCandidates + " candidates were.");
+        }
+    }
+
+    /**
+     * Determines the index of a condition of a recorded Rule.
+     *
+     * @param candidate
+     *         The position of the Rule within the Event's Rules.
+     *
+     * @param condition
+     *         The index of the condition within the Rule's conditions.
+     *
+     * @return
+     *         The index of the condition within the trace.
+     *
+     * @throws IndexOutOfBoundsException
+     *         Thrown if the Rule or condition wasn't recorded.
+     */
+    private int indexOf(final int candidate, final int condition) throws IndexOutOfBoundsException {
+        if (condition < 0 || condition >= getTotalConditions(candidate)) {
+            throw new IndexOutOfBoundsException("The condition " + condition + " of the candidate " + candidate
+                                                + " was not recorded.");
+        }
+
+        return array_conditionOffsets[candidate] + condition;
+    }
+}
@@ -0,0 +1,198 @@
+package com.valkryst.dds.manager;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records SelectionTraces of a sample of a DDSManager's queries, to explain why each sampled
+ * query responded the way it did.
+ *
+ * The traces are held in a fixed-size ring buffer, whose traces are allocated up-front and
+ * overwritten once the buffer is full, so recording a trace never allocates. Queries can be
+ * sampled at random, one in every n, and can be restricted to a single Event.
+ *
+ * Each trace is only ever written or read by one thread at a time. A query that finds its
+ * trace in use, by a reader or by another query that has wrapped around the buffer, skips
+ * recording rather than waiting.
+ */
+public final class SelectionTracer {
+    /** The default number of traces held by the buffer. */
+    public static final int DEFAULT_CAPACITY = 64;
+    /** The default largest number of Rules held by each trace. */
+    public static final int DEFAULT_MAXIMUM_CANDIDATES = 64;
+    /** The default largest number of conditions, across all of its Rules, held by each trace. */
+    public static final int DEFAULT_MAXIMUM_CONDITIONS = 512;
+
+    /** The traces, which are reused in a cycle. */
+    private final SelectionTrace[] array_traces;
+    /** The order of the next trace to be recorded. */
+    private final AtomicLong nextOrder = new AtomicLong();
+
+    /** The average number of queries per sampled query. */
+    @Getter private volatile int samplingInterval = 1;
+    /** The only Event whose queries are sampled, or null if every Event's queries are sampled. */
+    @Getter private volatile String event;
+
+    /** Construct a new SelectionTracer with the default capacities. */
+    public SelectionTracer() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAXIMUM_CANDIDATES, DEFAULT_MAXIMUM_CONDITIONS);
+    }
+
+    /**
+     * Construct a new SelectionTracer.
+     *
+     * @param capacity
+     *         The number of traces held by the buffer.
+     *
+     * @param maximumCandidates
+     *         The largest number of Rules held by each trace, beyond which the
+     *         Rules of a query are left out.
+     *
+     * @param maximumConditions
+     *         The largest number of conditions, across all of its Rules, held
+     *         by each trace, beyond which the conditions of a query are left
+     *         out.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if any of the capacities is not positive.
+     */
+    public SelectionTracer(final int capacity, final int maximumCandidates, final int maximumConditions) throws IllegalArgumentException {
+        if (capacity < 1 || maximumCandidates < 1 || maximumConditions < 1) {
+            throw new IllegalArgumentException("The capacities of a SelectionTracer must be positive, but were " + capacity
+                                               + ", " + maximumCandidates + ", and " + maximumConditions + ".");
+        }
+
+        array_traces = new SelectionTrace[capacity];
+
+        for (int i = 0 ; i < capacity ; i++) {
+            array_traces[i] = new SelectionTrace(maximumCandidates, maximumConditions);
+        }
+    }
+
+    /**
+     * Sets the average number of queries per sampled query.
+     *
+     * @param samplingInterval
+     *         The interval, or 1 to sample every query.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the interval is not positive.
+     */
+    public void setSamplingInterval(final int samplingInterval) throws IllegalArgumentException {
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("The sampling interval must be positive, but was " + samplingInterval + ".");
+        }
+
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * Sets the only Event whose queries are sampled.
+     *
+     * @param event
+     *         The Event, or null to sample every Event's queries.
+     */
+    public void setEvent(final String event) {
+        this.event = event;
+    }
+
+    /**
+     * Retrieves copies of the recorded traces.
+     *
+     * @return
+     *         The traces, from oldest to newest.
+     */
+    public List<SelectionTrace> getTraces() {
+        final List<SelectionTrace> list_traces = new ArrayList<>(array_traces.length);
+
+        for (final SelectionTrace trace : array_traces) {
+            acquire(trace);
+
+            try {
+                if (trace.order != -1) {
+                    list_traces.add(trace.copy());
+                }
+            } finally {
+                trace.isBusy.set(false);
+            }
+        }
+
+        list_traces.sort(Comparator.comparingLong(trace -> trace.order));
+        return list_traces;
+    }
+
+    /** Discards every recorded trace. */
+    public void clear() {
+        for (final SelectionTrace trace : array_traces) {
+            acquire(trace);
+            trace.order = -1;
+            trace.isBusy.set(false);
+        }
+    }
+
+    /**
+     * Determines whether a query should be sampled and, if so, claims a trace
+     * to record it into.
+     *
+     * The trace must be returned with commit once the query has finished.
+     *
+     * @param event
+     *         The queried Event.
+     *
+     * @param totalCandidates
+     *         The number of Rules triggered by the Event.
+     *
+     * @return
+     *         The trace, or null if the query shouldn't be recorded.
+     */
+    SelectionTrace claim(final String event, final int totalCandidates) {
+        final String sampledEvent = this.event;
+
+        if (sampledEvent != null && ! sampledEvent.equals(event)) {
+            return null;
+        }
+
+        final int samplingInterval = this.samplingInterval;
+
+        if (samplingInterval > 1 && ThreadLocalRandom.current().nextInt(samplingInterval) != 0) {
+            return null;
+        }
+
+        final long order = nextOrder.getAndIncrement();
+        final SelectionTrace trace = array_traces[(int) (order % array_traces.length)];
+
+        if (! trace.isBusy.compareAndSet(false, true)) {
+            return null;
+        }
+
+        trace.begin(order, event, totalCandidates);
+        return trace;
+    }
+
+    /**
+     * Publishes a trace once its query has finished.
+     *
+     * @param trace
+     *         The trace, as returned by claim.
+     */
+    void commit(final SelectionTrace trace) {
+        trace.isBusy.set(false);
+    }
+
+    /**
+     * Waits for a trace to stop being recorded into, then claims it.
+     *
+     * @param trace
+     *         The trace.
+     */
+    private static void acquire(final SelectionTrace trace) {
+        while (! trace.isBusy.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+    }
+}
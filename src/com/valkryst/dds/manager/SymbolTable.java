@@ -0,0 +1,82 @@
+package com.valkryst.dds.manager;
+
+import lombok.NonNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Interns names, such as Events and response types, to dense integer IDs.
+ *
+ * IDs are handed out in the order that names are first interned, starting from zero, and a
+ * name keeps its ID for the lifetime of the table, so IDs can be used to index arrays.
+ *
+ * A SymbolTable is not synchronized. Any number of threads may look names and IDs up, so long
+ * as no thread is interning a name at the same time.
+ */
+public final class SymbolTable implements Serializable {
+    private static final long serialVersionUID = -3213370834717614085L;
+
+    /** The HashMap containing the ID of each name, with the names as Keys. */
+    private final HashMap<String, Integer> hashMap_ids = new HashMap<>();
+    /** The ArrayList containing all names, with their IDs as indices. */
+    private final ArrayList<String> arrayList_names = new ArrayList<>();
+
+    /**
+     * Retrieves the ID of the specified name, assigning it the next ID if it
+     * hasn't been interned before.
+     *
+     * @param name
+     *         The name.
+     *
+     * @return
+     *         The ID.
+     */
+    public int intern(@NonNull final String name) {
+        final Integer id = hashMap_ids.get(name);
+
+        if (id != null) {
+            return id;
+        }
+
+        hashMap_ids.put(name, arrayList_names.size());
+        arrayList_names.add(name);
+        return arrayList_names.size() - 1;
+    }
+
+    /**
+     * Retrieves the ID of the specified name.
+     *
+     * @param name
+     *         The name.
+     *
+     * @return
+     *         The ID, or -1 if the name hasn't been interned.
+     */
+    public int getId(final String name) {
+        final Integer id = hashMap_ids.get(name);
+        return (id == null ? -1 : id);
+    }
+
+    /**
+     * Retrieves the name of the specified ID.
+     *
+     * @param id
+     *         The ID.
+     *
+     * @return
+     *         The name.
+     *
+     * @throws IndexOutOfBoundsException
+     *         Thrown if no name has been interned with the ID.
+     */
+    public String getName(final int id) throws IndexOutOfBoundsException {
+        return arrayList_names.get(id);
+    }
+
+    /** @return The number of interned names, which is also the next ID to be assigned. */
+    public int size() {
+        return arrayList_names.size();
+    }
+}
@@ -0,0 +1,310 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.object.ComparisonType;
+import com.valkryst.dds.object.CriterionPredicate;
+
+import java.util.Arrays;
+
+/**
+ * An index of the conditions that compare a single numeric Context slot against constant
+ * thresholds.
+ *
+ * The thresholds of each ComparisonType are kept sorted, so when the value of the Context
+ * changes, a binary search finds the only conditions whose truth may have flipped. The
+ * thresholds never change between compilations of the RuleDatabase, so they are held in
+ * sorted primitive arrays rather than in a tree.
+ */
+final class ThresholdIndex {
+    /** The ComparisonTypes, cached as ComparisonType.values() returns a new array on each call. */
+    private static final ComparisonType[] COMPARISON_TYPES = ComparisonType.values();
+
+    /** Whether the slot holds FLOAT or DOUBLE values, rather than integral values. */
+    private final boolean isDecimal;
+    /** The sorted integral thresholds of each ComparisonType, by ordinal. */
+    private final long[][] array_integralThresholds = new long[COMPARISON_TYPES.length][];
+    /** The sorted decimal thresholds of each ComparisonType, by ordinal. */
+    private final double[][] array_decimalThresholds = new double[COMPARISON_TYPES.length][];
+    /** The conditions of each ComparisonType, in the same order as their thresholds. */
+    private final int[][] array_conditions = new int[COMPARISON_TYPES.length][];
+    /** The conditions whose thresholds cannot be ordered, which must always be re-evaluated. */
+    private final int[] array_unorderedConditions;
+
+    /**
+     * Construct a new ThresholdIndex.
+     *
+     * @param isDecimal
+     *         Whether the slot holds FLOAT or DOUBLE values, rather than integral values.
+     *
+     * @param conditions
+     *         The conditions that read the slot.
+     *
+     * @param comparisonTypes
+     *         The ComparisonType of each condition.
+     *
+     * @param predicates
+     *         The predicate of each condition.
+     */
+    ThresholdIndex(final boolean isDecimal, final int[] conditions, final ComparisonType[] comparisonTypes,
+                   final CriterionPredicate[] predicates) {
+        this.isDecimal = isDecimal;
+
+        for (final ComparisonType comparisonType : COMPARISON_TYPES) {
+            final int type = comparisonType.ordinal();
+
+            // Collect the conditions of the ComparisonType, sorted by threshold:
+            final Integer[] sortedIndices = new Integer[conditions.length];
+            int total = 0;
+
+            for (int i = 0 ; i < conditions.length ; i++) {
+                if (comparisonTypes[i] != comparisonType) {
+                    continue;
+                }
+
+                if (! isDecimal || ! Double.isNaN(predicates[i].getDecimalComparisonValue())) {
+                    sortedIndices[total++] = i;
+                }
+            }
+
+            final Integer[] indices = Arrays.copyOf(sortedIndices, total);
+
+            if (isDecimal) {
+                Arrays.sort(indices, (a, b) -> Double.compare(predicates[a].getDecimalComparisonValue(),
+                                                              predicates[b].getDecimalComparisonValue()));
+                array_decimalThresholds[type] = new double[total];
+            } else {
+                Arrays.sort(indices, (a, b) -> Long.compare(predicates[a].getIntegralComparisonValue(),
+                                                            predicates[b].getIntegralComparisonValue()));
+                array_integralThresholds[type] = new long[total];
+            }
+
+            array_conditions[type] = new int[total];
+
+            for (int i = 0 ; i < total ; i++) {
+                array_conditions[type][i] = conditions[indices[i]];
+
+                if (isDecimal) {
+                    array_decimalThresholds[type][i] = predicates[indices[i]].getDecimalComparisonValue();
+                } else {
+                    array_integralThresholds[type][i] = predicates[indices[i]].getIntegralComparisonValue();
+                }
+            }
+        }
+
+        // NaN thresholds are compared with every value as unordered, so they are never indexed:
+        array_unorderedConditions = new int[isDecimal ? countNaNThresholds(predicates) : 0];
+
+        for (int i = 0, j = 0 ; i < conditions.length && j < array_unorderedConditions.length ; i++) {
+            if (Double.isNaN(predicates[i].getDecimalComparisonValue())) {
+                array_unorderedConditions[j++] = conditions[i];
+            }
+        }
+    }
+
+    /** @return Whether the slot holds FLOAT or DOUBLE values, rather than integral values. */
+    boolean isDecimal() {
+        return isDecimal;
+    }
+
+    /**
+     * Collects the conditions whose truth may have changed when an integral
+     * slot changed value.
+     *
+     * @param previousValue
+     *         The value of the slot when its conditions were last evaluated.
+     *
+     * @param value
+     *         The current value of the slot.
+     *
+     * @param array_candidates
+     *         The array to collect the conditions into.
+     *
+     * @return
+     *         The number of collected conditions.
+     */
+    int collect(final long previousValue, final long value, final int[] array_candidates) {
+        final long low = Math.min(previousValue, value);
+        final long high = Math.max(previousValue, value);
+        int total = 0;
+
+        for (final ComparisonType comparisonType : COMPARISON_TYPES) {
+            final long[] thresholds = array_integralThresholds[comparisonType.ordinal()];
+            final int[] conditions = array_conditions[comparisonType.ordinal()];
+
+            if (comparisonType == ComparisonType.EQUAL_TO || comparisonType == ComparisonType.NOT_EQUAL_TO) {
+                total = copy(conditions, lowerBound(thresholds, low), upperBound(thresholds, low), array_candidates, total);
+
+                if (low != high) {
+                    total = copy(conditions, lowerBound(thresholds, high), upperBound(thresholds, high), array_candidates, total);
+                }
+            } else {
+                total = copy(conditions, lowerBound(thresholds, low), upperBound(thresholds, high), array_candidates, total);
+            }
+        }
+
+        return copy(array_unorderedConditions, 0, array_unorderedConditions.length, array_candidates, total);
+    }
+
+    /**
+     * Collects the conditions whose truth may have changed when a decimal
+     * slot changed value.
+     *
+     * Neither value may be NaN, as NaN cannot be ordered against the thresholds.
+     *
+     * @param previousValue
+     *         The value of the slot when its conditions were last evaluated.
+     *
+     * @param value
+     *         The current value of the slot.
+     *
+     * @param array_candidates
+     *         The array to collect the conditions into.
+     *
+     * @return
+     *         The number of collected conditions.
+     */
+    int collect(final double previousValue, final double value, final int[] array_candidates) {
+        final double low = Math.min(previousValue, value);
+        final double high = Math.max(previousValue, value);
+        int total = 0;
+
+        for (final ComparisonType comparisonType : COMPARISON_TYPES) {
+            final double[] thresholds = array_decimalThresholds[comparisonType.ordinal()];
+            final int[] conditions = array_conditions[comparisonType.ordinal()];
+
+            if (comparisonType == ComparisonType.EQUAL_TO || comparisonType == ComparisonType.NOT_EQUAL_TO) {
+                total = copy(conditions, lowerBound(thresholds, low), upperBound(thresholds, low), array_candidates, total);
+
+                if (low != high) {
+                    total = copy(conditions, lowerBound(thresholds, high), upperBound(thresholds, high), array_candidates, total);
+                }
+            } else {
+                total = copy(conditions, lowerBound(thresholds, low), upperBound(thresholds, high), array_candidates, total);
+            }
+        }
+
+        return copy(array_unorderedConditions, 0, array_unorderedConditions.length, array_candidates, total);
+    }
+
+    /**
+     * Counts the predicates with a NaN comparison value.
+     *
+     * @param predicates
+     *         The decimal predicates.
+     *
+     * @return
+     *         The number of predicates with a NaN comparison value.
+     */
+    private static int countNaNThresholds(final CriterionPredicate[] predicates) {
+        int total = 0;
+
+        for (final CriterionPredicate predicate : predicates) {
+            if (Double.isNaN(predicate.getDecimalComparisonValue())) {
+                total++;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Copies a range of conditions into the candidates.
+     *
+     * @param conditions
+     *         The conditions.
+     *
+     * @param from
+     *         The index of the first condition to copy.
+     *
+     * @param to
+     *         The index after the last condition to copy.
+     *
+     * @param array_candidates
+     *         The candidates.
+     *
+     * @param total
+     *         The number of candidates.
+     *
+     * @return
+     *         The new number of candidates.
+     */
+    private static int copy(final int[] conditions, final int from, final int to, final int[] array_candidates, final int total) {
+        if (to <= from) {
+            return total;
+        }
+
+        System.arraycopy(conditions, from, array_candidates, total, to - from);
+        return total + (to - from);
+    }
+
+    /** @return The index of the first threshold that is not less than the value. */
+    private static int lowerBound(final long[] thresholds, final long value) {
+        int low = 0;
+        int high = thresholds.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (thresholds[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /** @return The index of the first threshold that is greater than the value. */
+    private static int upperBound(final long[] thresholds, final long value) {
+        int low = 0;
+        int high = thresholds.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (thresholds[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /** @return The index of the first threshold that is not less than the value. */
+    private static int lowerBound(final double[] thresholds, final double value) {
+        int low = 0;
+        int high = thresholds.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (thresholds[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /** @return The index of the first threshold that is greater than the value. */
+    private static int upperBound(final double[] thresholds, final double value) {
+        int low = 0;
+        int high = thresholds.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (thresholds[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
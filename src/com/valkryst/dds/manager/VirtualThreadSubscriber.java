@@ -0,0 +1,326 @@
+package com.valkryst.dds.manager;
+
+import com.valkryst.dds.metrics.LatencyHistogram;
+import com.valkryst.dds.object.Response;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A subscriber that hands each Response to another subscriber on a new thread, so that a
+ * subscriber which blocks, such as one that loads assets or calls a service, neither holds up
+ * the thread which determined the Response nor occupies a thread of a shared pool.
+ *
+ * The threads are virtual threads by default, which requires Java 21 or later. Any other
+ * ThreadFactory can be used instead, under which the subscriber behaves the same, but each
+ * blocked handler holds a platform thread.
+ *
+ * At most maximumConcurrency Responses are handled at once. When that many are being handled,
+ * the publishing thread waits for one of them to finish, so a slow subscriber applies
+ * backpressure rather than creating an unbounded number of threads. Responses are handled
+ * concurrently, so the subscriber must be thread-safe, and may handle them out of order.
+ *
+ * A handler that runs for longer than the timeout is counted as timed out, both while it's
+ * still running and once it has finished, so a handler that never returns is still reported.
+ * Its duration is recorded along with those of every other handler once it finishes. It isn't
+ * interrupted, as a subscriber may not expect to be.
+ */
+public final class VirtualThreadSubscriber implements Notifiable {
+    /** The start time held by a slot of atomicLongArray_startTimes that no running handler holds. */
+    private static final long FREE_SLOT = Long.MIN_VALUE;
+
+    /** The subscriber to hand each Response to. */
+    @Getter private final Notifiable subscriber;
+    /** The largest number of Responses that are handled at once. */
+    @Getter private final int maximumConcurrency;
+    /** The duration after which a handler is counted as timed out, in nanoseconds. */
+    @Getter private final long timeoutNanos;
+    /** The ThreadFactory that creates the thread of each handler. */
+    private final ThreadFactory threadFactory;
+
+    /** The permits of the handlers that may start, of which one is held by each running handler. */
+    private final Semaphore permits;
+    /** The start time of each running handler, in nanoseconds, with one slot per permit. */
+    private final AtomicLongArray atomicLongArray_startTimes;
+    /** The slot at which the next handler starts its search for a free slot. */
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    /** The durations of the handlers. */
+    private final LatencyHistogram handlerLatency = new LatencyHistogram();
+    /** The number of Responses handed to the subscriber. */
+    private final LongAdder handled = new LongAdder();
+    /** The number of Responses that were dropped, as the publishing thread was interrupted while waiting. */
+    private final LongAdder dropped = new LongAdder();
+    /** The number of Responses whose handling threw an exception. */
+    private final LongAdder failed = new LongAdder();
+    /** The number of finished handlers that ran for longer than the timeout. */
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * Construct a new VirtualThreadSubscriber, which handles each Response
+     * on a virtual thread.
+     *
+     * @param subscriber
+     *         The subscriber to hand each Response to.
+     *
+     * @param maximumConcurrency
+     *         The largest number of Responses that are handled at once.
+     *
+     * @param timeout
+     *         The duration after which a handler is counted as timed out.
+     *
+     * @param unit
+     *         The unit of the timeout.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the maximum concurrency or the timeout is not positive.
+     *
+     * @throws UnsupportedOperationException
+     *         Thrown if virtual threads are not supported, as the running Java
+     *         version is older than 21.
+     */
+    public VirtualThreadSubscriber(final Notifiable subscriber, final int maximumConcurrency, final long timeout,
+                                   final TimeUnit unit) throws IllegalArgumentException, UnsupportedOperationException {
+        this(subscriber, maximumConcurrency, timeout, unit, VirtualThreads.newThreadFactory("dds-subscriber-"));
+    }
+
+    /**
+     * Construct a new VirtualThreadSubscriber.
+     *
+     * @param subscriber
+     *         The subscriber to hand each Response to.
+     *
+     * @param maximumConcurrency
+     *         The largest number of Responses that are handled at once.
+     *
+     * @param timeout
+     *         The duration after which a handler is counted as timed out.
+     *
+     * @param unit
+     *         The unit of the timeout.
+     *
+     * @param threadFactory
+     *         The ThreadFactory that creates the thread of each handler.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the maximum concurrency or the timeout is not positive.
+     */
+    public VirtualThreadSubscriber(@NonNull final Notifiable subscriber, final int maximumConcurrency, final long timeout,
+                                   @NonNull final TimeUnit unit, @NonNull final ThreadFactory threadFactory) throws IllegalArgumentException {
+        if (maximumConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency of a VirtualThreadSubscriber must be positive, but was "
+                                               + maximumConcurrency + ".");
+        }
+
+        if (timeout < 1) {
+            throw new IllegalArgumentException("The timeout of a VirtualThreadSubscriber must be positive, but was " + timeout + ".");
+        }
+
+        this.subscriber = subscriber;
+        this.maximumConcurrency = maximumConcurrency;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.threadFactory = threadFactory;
+
+        permits = new Semaphore(maximumConcurrency);
+        atomicLongArray_startTimes = new AtomicLongArray(maximumConcurrency);
+
+        for (int i = 0 ; i < maximumConcurrency ; i++) {
+            atomicLongArray_startTimes.set(i, FREE_SLOT);
+        }
+    }
+
+    /**
+     * Starts a thread that hands a Response to the subscriber, waiting for a
+     * running handler to finish if maximumConcurrency are already running.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the Response.
+     *
+     * @param response
+     *         The Response.
+     *
+     * @throws RejectedExecutionException
+     *         Thrown if the ThreadFactory doesn't create a thread.
+     */
+    @Override
+    public void handleResponse(final DDSManager ddsManager, final Response response) throws RejectedExecutionException {
+        try {
+            permits.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+            return;
+        }
+
+        final Thread thread;
+
+        try {
+            thread = threadFactory.newThread(() -> handle(ddsManager, response));
+        } catch (final RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        if (thread == null) {
+            permits.release();
+            throw new RejectedExecutionException("The ThreadFactory of a VirtualThreadSubscriber didn't create a thread.");
+        }
+
+        thread.start();
+    }
+
+    /**
+     * Hands a Response to the subscriber, on the handler's thread, and
+     * measures how long it took.
+     *
+     * @param ddsManager
+     *         The DDSManager that determined the Response.
+     *
+     * @param response
+     *         The Response.
+     */
+    private void handle(final DDSManager ddsManager, final Response response) {
+        final long startTime = System.nanoTime();
+        final int slot = claimSlot(startTime);
+
+        try {
+            subscriber.handleResponse(ddsManager, response);
+        } catch (final RuntimeException e) {
+            failed.increment();
+        } finally {
+            final long durationNanos = System.nanoTime() - startTime;
+            handlerLatency.record(durationNanos);
+
+            // The handler is counted as finished before its slot is freed, so getTimedOutCount never misses it, though it may briefly count it twice:
+            if (durationNanos > timeoutNanos) {
+                timedOut.increment();
+            }
+
+            atomicLongArray_startTimes.set(slot, FREE_SLOT);
+            handled.increment();
+            permits.release();
+        }
+    }
+
+    /**
+     * Claims a free slot of atomicLongArray_startTimes for a running handler.
+     *
+     * Each running handler holds a permit, so there are never more running
+     * handlers than slots, and a free slot is always found.
+     *
+     * @param startTime
+     *         The start time of the handler, in nanoseconds.
+     *
+     * @return
+     *         The slot.
+     */
+    private int claimSlot(final long startTime) {
+        final int totalSlots = atomicLongArray_startTimes.length();
+        int slot = Math.floorMod(nextSlot.getAndIncrement(), totalSlots);
+
+        while (! atomicLongArray_startTimes.compareAndSet(slot, FREE_SLOT, startTime)) {
+            slot = (slot + 1) % totalSlots;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Waits until no Responses are being handled.
+     *
+     * @param timeout
+     *         The longest time to wait.
+     *
+     * @param unit
+     *         The unit of the timeout.
+     *
+     * @return
+     *         Whether every handler finished before the timeout elapsed.
+     *
+     * @throws InterruptedException
+     *         Thrown if the current thread is interrupted while waiting.
+     */
+    public boolean awaitIdle(final long timeout, @NonNull final TimeUnit unit) throws InterruptedException {
+        if (! permits.tryAcquire(maximumConcurrency, timeout, unit)) {
+            return false;
+        }
+
+        permits.release(maximumConcurrency);
+        return true;
+    }
+
+    /** @return The number of Responses that are being handled. */
+    public int getActiveCount() {
+        return maximumConcurrency - permits.availablePermits();
+    }
+
+    /** @return The durations of the handlers. */
+    public LatencyHistogram getHandlerLatency() {
+        return handlerLatency;
+    }
+
+    /** @return The number of Responses handed to the subscriber. */
+    public long getHandledCount() {
+        return handled.sum();
+    }
+
+    /** @return The number of Responses that were dropped, as the publishing thread was interrupted while waiting. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** @return The number of Responses whose handling threw an exception. */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Retrieves the number of handlers that have run for longer than the
+     * timeout, including those that are still running.
+     *
+     * @return
+     *         The number of handlers.
+     */
+    public long getTimedOutCount() {
+        return timedOut.sum() + getOverdueCount();
+    }
+
+    /** @return The number of running handlers that have been running for longer than the timeout. */
+    public int getOverdueCount() {
+        final long currentTime = System.nanoTime();
+        int total = 0;
+
+        for (int i = 0 ; i < atomicLongArray_startTimes.length() ; i++) {
+            final long startTime = atomicLongArray_startTimes.get(i);
+
+            if (startTime != FREE_SLOT && currentTime - startTime > timeoutNanos) {
+                total++;
+            }
+        }
+
+        return total;
+    }
+
+    /** @return The time that the longest running handler has been running for, in nanoseconds, or zero if none are running. */
+    public long getLongestRunningNanos() {
+        final long currentTime = System.nanoTime();
+        long longest = 0;
+
+        for (int i = 0 ; i < atomicLongArray_startTimes.length() ; i++) {
+            final long startTime = atomicLongArray_startTimes.get(i);
+
+            if (startTime != FREE_SLOT) {
+                longest = Math.max(longest, currentTime - startTime);
+            }
+        }
+
+        return longest;
+    }
+}
@@ -0,0 +1,39 @@
+package com.valkryst.dds.manager;
+
+import lombok.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads, where the running Java version supports them.
+ *
+ * This is the Java 8 version, under which virtual threads are never supported. The jar also
+ * holds a Java 21 version of this class, under META-INF/versions/21, which is used instead when
+ * the jar is run on Java 21 or later.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {}
+
+    /** @return Whether virtual threads are supported. */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates a ThreadFactory that creates a virtual thread for each task.
+     *
+     * @param namePrefix
+     *         The prefix of the name of each thread, which is followed by a
+     *         counter.
+     *
+     * @return
+     *         The ThreadFactory.
+     *
+     * @throws UnsupportedOperationException
+     *         Thrown if virtual threads are not supported.
+     */
+    public static ThreadFactory newThreadFactory(@NonNull final String namePrefix) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later, but this is Java "
+                                                + System.getProperty("java.version") + ".");
+    }
+}
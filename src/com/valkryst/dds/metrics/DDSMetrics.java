@@ -0,0 +1,271 @@
+package com.valkryst.dds.metrics;
+
+import com.valkryst.dds.manager.Notifiable;
+import lombok.NonNull;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A MetricsListener that aggregates the measurements of a DDSManager into counters and latency
+ * histograms, which can be read directly or through JMX.
+ *
+ * The counters are LongAdders, so queries on many threads can be measured without contending
+ * with each other. Once every Event and subscriber has been seen, measuring a query doesn't
+ * allocate.
+ */
+public final class DDSMetrics implements MetricsListener, DDSMetricsMBean {
+    /** The number of queries. */
+    private final LongAdder evaluations = new LongAdder();
+    /** The number of queries for which no Rule was selected. */
+    private final LongAdder noMatches = new LongAdder();
+    /** The number of Rules considered by all selections. */
+    private final LongAdder scannedRules = new LongAdder();
+    /** The number of Criterion evaluated to answer all queries. */
+    private final LongAdder evaluatedCriteria = new LongAdder();
+    /** The number of queries answered by each SelectionCase, by ordinal. */
+    private final LongAdder[] array_selectionCases = new LongAdder[SelectionCase.values().length];
+
+    /** The ConcurrentHashMap containing the number of queries of each Event, with the Events as Keys. */
+    private final ConcurrentHashMap<String, LongAdder> concurrentHashMap_eventEvaluations = new ConcurrentHashMap<>();
+    /**
+     * The ConcurrentHashMap containing the handleResponse durations of each subscriber, with the subscribers as Keys.
+     * A subscriber's durations are discarded once it's removed from the Publisher, so that it isn't kept reachable.
+     */
+    private final ConcurrentHashMap<Notifiable, LatencyHistogram> concurrentHashMap_subscriberLatencies = new ConcurrentHashMap<>();
+
+    /** The durations of the queries. */
+    private final LatencyHistogram determineResponseLatency = new LatencyHistogram();
+    /** The durations of every subscriber's handleResponse. */
+    private final LatencyHistogram handleResponseLatency = new LatencyHistogram();
+
+    /** Construct a new DDSMetrics. */
+    public DDSMetrics() {
+        for (int i = 0 ; i < array_selectionCases.length ; i++) {
+            array_selectionCases[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onEvaluation(final String event, final SelectionCase selectionCase, final boolean isMatched,
+                             final int totalScannedRules, final int totalEvaluatedCriteria, final long durationNanos) {
+        evaluations.increment();
+        scannedRules.add(totalScannedRules);
+        evaluatedCriteria.add(totalEvaluatedCriteria);
+        array_selectionCases[selectionCase.ordinal()].increment();
+        determineResponseLatency.record(durationNanos);
+
+        if (! isMatched) {
+            noMatches.increment();
+        }
+
+        if (event != null) {
+            // A get is tried first, as computeIfAbsent may lock even when the Event is present:
+            LongAdder eventEvaluations = concurrentHashMap_eventEvaluations.get(event);
+
+            if (eventEvaluations == null) {
+                eventEvaluations = concurrentHashMap_eventEvaluations.computeIfAbsent(event, key -> new LongAdder());
+            }
+
+            eventEvaluations.increment();
+        }
+    }
+
+    @Override
+    public void onResponseHandled(final String responseType, final Notifiable subscriber, final long durationNanos) {
+        handleResponseLatency.record(durationNanos);
+
+        LatencyHistogram subscriberLatency = concurrentHashMap_subscriberLatencies.get(subscriber);
+
+        if (subscriberLatency == null) {
+            subscriberLatency = concurrentHashMap_subscriberLatencies.computeIfAbsent(subscriber, key -> new LatencyHistogram());
+        }
+
+        subscriberLatency.record(durationNanos);
+    }
+
+    @Override
+    public void onSubscriberRemoved(final Notifiable subscriber) {
+        concurrentHashMap_subscriberLatencies.remove(subscriber);
+    }
+
+    /**
+     * Registers the metrics with the platform MBeanServer, under the name
+     * "com.valkryst.dds:type=DDSMetrics,name=" followed by the specified name.
+     *
+     * @param name
+     *         The name that distinguishes these metrics from those of other
+     *         DDSManagers.
+     *
+     * @return
+     *         The name that the metrics were registered under.
+     *
+     * @throws JMException
+     *         Thrown if the metrics cannot be registered.
+     */
+    public ObjectName register(@NonNull final String name) throws JMException {
+        final ObjectName objectName = new ObjectName("com.valkryst.dds:type=DDSMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Retrieves the number of queries that were answered by the specified
+     * SelectionCase.
+     *
+     * @param selectionCase
+     *         The SelectionCase.
+     *
+     * @return
+     *         The number of queries.
+     */
+    public long getSelectionCaseCount(@NonNull final SelectionCase selectionCase) {
+        return array_selectionCases[selectionCase.ordinal()].sum();
+    }
+
+    /** @return The durations of the queries. */
+    public LatencyHistogram getDetermineResponseLatency() {
+        return determineResponseLatency;
+    }
+
+    /** @return The durations of every subscriber's handleResponse. */
+    public LatencyHistogram getHandleResponseLatency() {
+        return handleResponseLatency;
+    }
+
+    /**
+     * Retrieves the durations of the specified subscriber's handleResponse.
+     *
+     * @param subscriber
+     *         The subscriber.
+     *
+     * @return
+     *         The durations, or null if the subscriber hasn't handled any
+     *         Responses.
+     */
+    public LatencyHistogram getHandleResponseLatency(final Notifiable subscriber) {
+        return concurrentHashMap_subscriberLatencies.get(subscriber);
+    }
+
+    @Override
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public long getNoMatchCount() {
+        return noMatches.sum();
+    }
+
+    @Override
+    public double getNoMatchRate() {
+        final long evaluations = getEvaluationCount();
+        return (evaluations == 0 ? 0 : getNoMatchCount() / (double) evaluations);
+    }
+
+    @Override
+    public long getScannedRuleCount() {
+        return scannedRules.sum();
+    }
+
+    @Override
+    public long getEvaluatedCriteriaCount() {
+        return evaluatedCriteria.sum();
+    }
+
+    @Override
+    public long getCaseACount() {
+        return getSelectionCaseCount(SelectionCase.A);
+    }
+
+    @Override
+    public long getCaseBCount() {
+        return getSelectionCaseCount(SelectionCase.B);
+    }
+
+    @Override
+    public long getCaseCCount() {
+        return getSelectionCaseCount(SelectionCase.C);
+    }
+
+    @Override
+    public long getCaseDCount() {
+        return getSelectionCaseCount(SelectionCase.D);
+    }
+
+    @Override
+    public long getCaseECount() {
+        return getSelectionCaseCount(SelectionCase.E);
+    }
+
+    @Override
+    public double getDetermineResponseMeanNanos() {
+        return determineResponseLatency.getMean();
+    }
+
+    @Override
+    public long getDetermineResponseP50Nanos() {
+        return determineResponseLatency.getPercentile(50);
+    }
+
+    @Override
+    public long getDetermineResponseP99Nanos() {
+        return determineResponseLatency.getPercentile(99);
+    }
+
+    @Override
+    public long getDetermineResponseMaxNanos() {
+        return determineResponseLatency.getMaximum();
+    }
+
+    @Override
+    public long getHandleResponseCount() {
+        return handleResponseLatency.getCount();
+    }
+
+    @Override
+    public double getHandleResponseMeanNanos() {
+        return handleResponseLatency.getMean();
+    }
+
+    @Override
+    public long getHandleResponseP50Nanos() {
+        return handleResponseLatency.getPercentile(50);
+    }
+
+    @Override
+    public long getHandleResponseP99Nanos() {
+        return handleResponseLatency.getPercentile(99);
+    }
+
+    @Override
+    public long getHandleResponseMaxNanos() {
+        return handleResponseLatency.getMaximum();
+    }
+
+    @Override
+    public long getEventEvaluationCount(final String event) {
+        final LongAdder eventEvaluations = concurrentHashMap_eventEvaluations.get(event);
+        return (eventEvaluations == null ? 0 : eventEvaluations.sum());
+    }
+
+    @Override
+    public void reset() {
+        evaluations.reset();
+        noMatches.reset();
+        scannedRules.reset();
+        evaluatedCriteria.reset();
+
+        for (final LongAdder selectionCase : array_selectionCases) {
+            selectionCase.reset();
+        }
+
+        concurrentHashMap_eventEvaluations.clear();
+        concurrentHashMap_subscriberLatencies.clear();
+        determineResponseLatency.reset();
+        handleResponseLatency.reset();
+    }
+}
@@ -0,0 +1,75 @@
+package com.valkryst.dds.metrics;
+
+/** The JMX management interface of DDSMetrics. */
+public interface DDSMetricsMBean {
+    /** @return The number of queries. */
+    long getEvaluationCount();
+
+    /** @return The number of queries for which no Rule was selected. */
+    long getNoMatchCount();
+
+    /** @return The fraction of queries for which no Rule was selected. */
+    double getNoMatchRate();
+
+    /** @return The number of Rules considered by all selections. */
+    long getScannedRuleCount();
+
+    /** @return The number of Criterion evaluated to answer all queries. */
+    long getEvaluatedCriteriaCount();
+
+    /** @return The number of queries whose Event triggered no Rules. */
+    long getCaseACount();
+
+    /** @return The number of queries whose Event triggered a single Rule. */
+    long getCaseBCount();
+
+    /** @return The number of queries answered by the highest scored, never used, Rule. */
+    long getCaseCCount();
+
+    /** @return The number of queries answered by the least recently used Rule. */
+    long getCaseDCount();
+
+    /** @return The number of queries answered by the weighted average of scores and last used times. */
+    long getCaseECount();
+
+    /** @return The mean duration of the queries, in nanoseconds. */
+    double getDetermineResponseMeanNanos();
+
+    /** @return The median duration of the queries, in nanoseconds. */
+    long getDetermineResponseP50Nanos();
+
+    /** @return The 99th percentile duration of the queries, in nanoseconds. */
+    long getDetermineResponseP99Nanos();
+
+    /** @return The longest duration of the queries, in nanoseconds. */
+    long getDetermineResponseMaxNanos();
+
+    /** @return The number of Responses handled by subscribers. */
+    long getHandleResponseCount();
+
+    /** @return The mean duration of the subscribers' handleResponse, in nanoseconds. */
+    double getHandleResponseMeanNanos();
+
+    /** @return The median duration of the subscribers' handleResponse, in nanoseconds. */
+    long getHandleResponseP50Nanos();
+
+    /** @return The 99th percentile duration of the subscribers' handleResponse, in nanoseconds. */
+    long getHandleResponseP99Nanos();
+
+    /** @return The longest duration of the subscribers' handleResponse, in nanoseconds. */
+    long getHandleResponseMaxNanos();
+
+    /**
+     * Retrieves the number of queries of the specified Event.
+     *
+     * @param event
+     *         The Event.
+     *
+     * @return
+     *         The number of queries.
+     */
+    long getEventEvaluationCount(final String event);
+
+    /** Resets all counters and histograms. */
+    void reset();
+}
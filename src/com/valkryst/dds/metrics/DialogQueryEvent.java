@@ -0,0 +1,48 @@
+package com.valkryst.dds.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Flight Recorder event of a DDSManager determining the response to an Event.
+ *
+ * Only queries that take longer than the threshold are recorded.
+ */
+@Name("com.valkryst.dds.DialogQuery")
+@Label("Dialog Query")
+@Description("A Dynamic Dialog System determining which Rule to respond to, for an Event.")
+@Category("Dynamic Dialog System")
+@Threshold("1 ms")
+@StackTrace(false)
+public final class DialogQueryEvent extends jdk.jfr.Event {
+    @Label("Event")
+    @Description("The queried Event.")
+    String event;
+
+    @Label("Candidate Rules")
+    @Description("The number of Rules triggered by the Event.")
+    int candidateRules;
+
+    @Label("Scanned Rules")
+    @Description("The number of Rules that were considered by the selection.")
+    int scannedRules;
+
+    @Label("Evaluated Criteria")
+    @Description("The number of distinct Criterion that were evaluated to answer the query.")
+    int evaluatedCriteria;
+
+    @Label("Selection Case")
+    @Description("The way in which a Rule was selected, from A to E.")
+    String selectionCase;
+
+    @Label("Chosen Rule")
+    @Description("The description of the Rule that was responded to, if any.")
+    String chosenRule;
+
+    /** Construct a new DialogQueryEvent. */
+    DialogQueryEvent() {}
+}
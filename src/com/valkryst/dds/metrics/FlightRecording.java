@@ -0,0 +1,157 @@
+package com.valkryst.dds.metrics;
+
+import com.valkryst.dds.object.Response;
+import com.valkryst.dds.object.Rule;
+import jdk.jfr.EventType;
+
+/**
+ * Records dialog queries and response dispatches as Java Flight Recorder events, so that
+ * dialogue stalls can be correlated with GC pauses and the game loop in a single recording.
+ *
+ * The Flight Recorder API was only added to Java 8 in update 262, so it's checked for before
+ * any of the event classes are touched. On a JVM without it, or while no recording has the
+ * events enabled, begin returns null and nothing is allocated.
+ *
+ * Both events are only recorded when they take longer than their threshold, which defaults
+ * to one millisecond, and which a recording can change with the
+ * "com.valkryst.dds.DialogQuery#threshold" and "com.valkryst.dds.ResponseDispatch#threshold"
+ * settings.
+ */
+public final class FlightRecording {
+    /** Whether the JVM supports the Flight Recorder API. */
+    public static final boolean IS_AVAILABLE = isAvailable();
+
+    /** Prevent the class from being constructed. */
+    private FlightRecording() {}
+
+    /**
+     * Determines whether the JVM supports the Flight Recorder API.
+     *
+     * @return
+     *         Whether the JVM supports the Flight Recorder API.
+     */
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecording.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begins timing a query, if a recording has DialogQueryEvents enabled.
+     *
+     * @return
+     *         The event, or null if it isn't being recorded.
+     */
+    public static DialogQueryEvent beginQuery() {
+        if (! IS_AVAILABLE || ! EventTypes.DIALOG_QUERY.isEnabled()) {
+            return null;
+        }
+
+        final DialogQueryEvent event = new DialogQueryEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing a query, committing its event if it took longer than the
+     * threshold.
+     *
+     * @param event
+     *         The event, as returned by beginQuery, or null if the query isn't
+     *         being recorded.
+     *
+     * @param eventName
+     *         The queried Event.
+     *
+     * @param candidateRules
+     *         The number of Rules triggered by the Event.
+     *
+     * @param scannedRules
+     *         The number of Rules that were considered by the selection.
+     *
+     * @param evaluatedCriteria
+     *         The number of distinct Criterion that were evaluated.
+     *
+     * @param selectionCase
+     *         The way in which a Rule was selected.
+     *
+     * @param chosenRule
+     *         The Rule that was responded to, or null if there is none.
+     */
+    public static void commitQuery(final DialogQueryEvent event, final String eventName, final int candidateRules,
+                                   final int scannedRules, final int evaluatedCriteria,
+                                   final SelectionCase selectionCase, final Rule chosenRule) {
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.event = eventName;
+            event.candidateRules = candidateRules;
+            event.scannedRules = scannedRules;
+            event.evaluatedCriteria = evaluatedCriteria;
+            event.selectionCase = (selectionCase == null ? null : selectionCase.name());
+            event.chosenRule = (chosenRule == null ? null : chosenRule.getDescription());
+            event.commit();
+        }
+    }
+
+    /**
+     * Begins timing the dispatch of a Response, if a recording has
+     * ResponseDispatchEvents enabled.
+     *
+     * @return
+     *         The event, or null if it isn't being recorded.
+     */
+    public static ResponseDispatchEvent beginDispatch() {
+        if (! IS_AVAILABLE || ! EventTypes.RESPONSE_DISPATCH.isEnabled()) {
+            return null;
+        }
+
+        final ResponseDispatchEvent event = new ResponseDispatchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing the dispatch of a Response, committing its event if it
+     * took longer than the threshold.
+     *
+     * @param event
+     *         The event, as returned by beginDispatch, or null if the dispatch
+     *         isn't being recorded.
+     *
+     * @param response
+     *         The Response.
+     *
+     * @param subscribers
+     *         The number of subscribers that were notified.
+     */
+    public static void commitDispatch(final ResponseDispatchEvent event, final Response response, final int subscribers) {
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.responseType = response.getResponseType();
+            event.response = response.getValue();
+            event.subscribers = subscribers;
+            event.commit();
+        }
+    }
+
+    /** Holds the EventTypes, so that they're only registered once the Flight Recorder API is known to exist. */
+    private static final class EventTypes {
+        /** The type of DialogQueryEvent. */
+        private static final EventType DIALOG_QUERY = EventType.getEventType(DialogQueryEvent.class);
+        /** The type of ResponseDispatchEvent. */
+        private static final EventType RESPONSE_DISPATCH = EventType.getEventType(ResponseDispatchEvent.class);
+    }
+}
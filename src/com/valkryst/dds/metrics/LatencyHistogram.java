@@ -0,0 +1,120 @@
+package com.valkryst.dds.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, in nanoseconds, with a bucket for each power of two.
+ *
+ * Recording a duration increments two LongAdders and updates a LongAccumulator, so any number
+ * of threads can record durations without contending on a lock or allocating. Percentiles are
+ * reported as the upper bound of the bucket that they fall into, so they're accurate to within
+ * a factor of two.
+ */
+public final class LatencyHistogram {
+    /** The number of recorded durations within each bucket, bucket b holding durations with a bit length of b. */
+    private final LongAdder[] array_buckets = new LongAdder[Long.SIZE];
+    /** The sum of all recorded durations. */
+    private final LongAdder totalDuration = new LongAdder();
+    /** The longest recorded duration. */
+    private final LongAccumulator maximumDuration = new LongAccumulator(Math::max, 0);
+
+    /** Construct a new LatencyHistogram. */
+    public LatencyHistogram() {
+        for (int i = 0 ; i < array_buckets.length ; i++) {
+            array_buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param durationNanos
+     *         The duration, in nanoseconds, negative durations are recorded
+     *         as zero.
+     */
+    public void record(final long durationNanos) {
+        final long duration = Math.max(0, durationNanos);
+
+        array_buckets[Long.SIZE - Long.numberOfLeadingZeros(duration)].increment();
+        totalDuration.add(duration);
+        maximumDuration.accumulate(duration);
+    }
+
+    /** @return The number of recorded durations. */
+    public long getCount() {
+        long count = 0;
+
+        for (final LongAdder bucket : array_buckets) {
+            count += bucket.sum();
+        }
+
+        return count;
+    }
+
+    /** @return The mean of the recorded durations, in nanoseconds, or zero if none have been recorded. */
+    public double getMean() {
+        final long count = getCount();
+        return (count == 0 ? 0 : totalDuration.sum() / (double) count);
+    }
+
+    /** @return The longest recorded duration, in nanoseconds. */
+    public long getMaximum() {
+        return maximumDuration.get();
+    }
+
+    /**
+     * Determines an upper bound of a percentile of the recorded durations.
+     *
+     * @param percentile
+     *         The percentile, from 0 to 100.
+     *
+     * @return
+     *         The upper bound of the bucket that the percentile falls into, in
+     *         nanoseconds, or zero if no durations have been recorded.
+     *
+     * @throws IllegalArgumentException
+     *         Thrown if the percentile is not within the range of 0 to 100.
+     */
+    public long getPercentile(final double percentile) throws IllegalArgumentException {
+        if (! (percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("A percentile must be within the range of 0 to 100, but was " + percentile + ".");
+        }
+
+        final long[] counts = new long[array_buckets.length];
+        long count = 0;
+
+        for (int i = 0 ; i < counts.length ; i++) {
+            counts[i] = array_buckets[i].sum();
+            count += counts[i];
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+
+        for (int i = 0 ; i < counts.length ; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                // Bucket i holds durations below 2^i, and none above the maximum:
+                return Math.min(getMaximum(), (1L << i) - 1);
+            }
+        }
+
+        return getMaximum();
+    }
+
+    /** Removes all recorded durations. */
+    public void reset() {
+        for (final LongAdder bucket : array_buckets) {
+            bucket.reset();
+        }
+
+        totalDuration.reset();
+        maximumDuration.reset();
+    }
+}
@@ -0,0 +1,66 @@
+package com.valkryst.dds.metrics;
+
+import com.valkryst.dds.manager.Notifiable;
+
+/**
+ * Receives measurements of the work done by a DDSManager and its Publisher.
+ *
+ * A listener is called on the thread that did the work, while the work is being done, so it
+ * must be thread-safe and should return quickly. DDSMetrics is a listener that aggregates the
+ * measurements into counters and latency histograms.
+ */
+public interface MetricsListener {
+    /**
+     * Receives the measurements of a query for a response.
+     *
+     * @param event
+     *         The queried Event, or null if an Event ID was queried which
+     *         doesn't belong to any Event.
+     *
+     * @param selectionCase
+     *         The way in which a Rule was selected.
+     *
+     * @param isMatched
+     *         Whether a Rule was selected to respond to.
+     *
+     * @param totalScannedRules
+     *         The number of Rules that were considered by the selection.
+     *
+     * @param totalEvaluatedCriteria
+     *         The number of distinct Criterion that were evaluated to answer
+     *         the query, as Criterion whose Contexts haven't changed aren't
+     *         re-evaluated.
+     *
+     * @param durationNanos
+     *         The duration of the query, in nanoseconds.
+     */
+    void onEvaluation(final String event, final SelectionCase selectionCase, final boolean isMatched,
+                      final int totalScannedRules, final int totalEvaluatedCriteria, final long durationNanos);
+
+    /**
+     * Receives the measurements of a subscriber handling a Response, or of a
+     * BatchNotifiable handling a batch of Responses.
+     *
+     * @param responseType
+     *         The response type of the Response, or of the first Response of
+     *         the batch.
+     *
+     * @param subscriber
+     *         The subscriber.
+     *
+     * @param durationNanos
+     *         The duration of the subscriber's handleResponse, or
+     *         handleResponses, in nanoseconds.
+     */
+    void onResponseHandled(final String responseType, final Notifiable subscriber, final long durationNanos);
+
+    /**
+     * Receives notice that a subscriber has been removed from every response
+     * type of the Publisher, so that any measurements kept for it can be
+     * discarded.
+     *
+     * @param subscriber
+     *         The subscriber.
+     */
+    default void onSubscriberRemoved(final Notifiable subscriber) {}
+}
@@ -0,0 +1,36 @@
+package com.valkryst.dds.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Flight Recorder event of a Publisher notifying the subscribers of a Response.
+ *
+ * Only dispatches that take longer than the threshold are recorded.
+ */
+@Name("com.valkryst.dds.ResponseDispatch")
+@Label("Response Dispatch")
+@Description("A Dynamic Dialog System notifying every subscriber of a response type of a Response.")
+@Category("Dynamic Dialog System")
+@Threshold("1 ms")
+@StackTrace(false)
+public final class ResponseDispatchEvent extends jdk.jfr.Event {
+    @Label("Response Type")
+    @Description("The response type of the Response.")
+    String responseType;
+
+    @Label("Response")
+    @Description("The value of the Response.")
+    String response;
+
+    @Label("Subscribers")
+    @Description("The number of subscribers that were notified of the Response.")
+    int subscribers;
+
+    /** Construct a new ResponseDispatchEvent. */
+    ResponseDispatchEvent() {}
+}
@@ -0,0 +1,15 @@
+package com.valkryst.dds.metrics;
+
+/** The ways in which a DDSManager can select the Rule to respond to, for an Event. */
+public enum SelectionCase {
+    /** The Event doesn't trigger any Rules. */
+    A,
+    /** The Event triggers a single Rule, which is responded to. */
+    B,
+    /** The Event triggers several Rules, some never used before, and the highest scored Rule is responded to. */
+    C,
+    /** The Event triggers several Rules, none with any Criterion, and the least recently used Rule is responded to. */
+    D,
+    /** The Event triggers several Rules, and a weighted average of their scores and last used times is used. */
+    E
+}
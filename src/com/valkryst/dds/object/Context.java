@@ -2,12 +2,15 @@ package com.valkryst.dds.object;
 
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.Setter;
 import lombok.ToString;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
-@ToString
+@ToString(exclude = {"bits", "version"})
 public class Context implements Comparable<Context>, Serializable {
     private static final long serialVersionUID = 6080325315007575932L;
 
@@ -15,8 +18,27 @@ public class Context implements Comparable<Context>, Serializable {
     @Getter private final String name;
     /** The type of data held within the value variable. */
     @Getter private final ValueType valueType;
-    /** The raw data. */
-    @Getter @Setter @NonNull private String value;
+    /**
+     * The raw data.
+     *
+     * This is null whenever the value has been set through one of the primitive setters
+     * and has not been formatted since.
+     */
+    private String value;
+    /**
+     * The primitive data.
+     *
+     * Integral values are held as-is, decimal values are held as the bits of a double,
+     * and boolean values are held as either 0 or 1.
+     */
+    private transient volatile long bits;
+    /**
+     * The number of times that the value has been set, used to detect changes.
+     *
+     * Each setter writes the value before the version, so a reader that reads the version
+     * before the value never pairs an old version with a new value that it then ignores.
+     */
+    @Getter private transient volatile int version;
 
     /**
      * Construct a new Context with the specified data.
@@ -29,15 +51,332 @@ public class Context implements Comparable<Context>, Serializable {
      *
      * @param value
      *         The raw data.
+     *
+     * @throws NumberFormatException
+     *          Thrown if the raw data cannot be parsed as the specified ValueType.
      */
-    public Context(final String name, final ValueType valueType, final String value) {
+    public Context(final String name, final ValueType valueType, final String value) throws NumberFormatException {
         this.name = name;
         this.valueType = valueType;
-        this.value = value;
+        setValue(value);
     }
 
     @Override
     public int compareTo(Context context) {
         return name.compareTo(context.getName());
     }
+
+    /**
+     * Retrieves the raw data.
+     *
+     * @return
+     *         The raw data.
+     */
+    public synchronized String getValue() {
+        if (value == null) {
+            value = format();
+        }
+
+        return value;
+    }
+
+    /**
+     * Sets the raw data.
+     *
+     * @param value
+     *         The new raw data.
+     *
+     * @throws NumberFormatException
+     *          Thrown if the raw data cannot be parsed as the ValueType of the Context.
+     */
+    public synchronized void setValue(@NonNull final String value) throws NumberFormatException {
+        bits = parse(value);
+        this.value = value;
+        version++;
+    }
+
+    /**
+     * Sets the value of an integral or decimal Context.
+     *
+     * @param value
+     *         The new value.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the Context is neither integral nor decimal.
+     *
+     * @throws IllegalArgumentException
+     *          Thrown if the value is outside of the range of the ValueType of an
+     *          integral Context.
+     */
+    public void setInt(final int value) throws UnsupportedOperationException, IllegalArgumentException {
+        setLong(value);
+    }
+
+    /**
+     * Sets the value of an integral or decimal Context.
+     *
+     * @param value
+     *         The new value.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the Context is neither integral nor decimal.
+     *
+     * @throws IllegalArgumentException
+     *          Thrown if the value is outside of the range of the ValueType of an
+     *          integral Context.
+     */
+    public synchronized void setLong(final long value) throws UnsupportedOperationException, IllegalArgumentException {
+        if (isIntegral()) {
+            checkRange(value);
+            bits = value;
+        } else if (isDecimal()) {
+            bits = toBits(value);
+        } else {
+            throw new UnsupportedOperationException("A numeric value cannot be set on a " + valueType + " Context.");
+        }
+
+        this.value = null;
+        version++;
+    }
+
+    /**
+     * Checks that a value fits within the ValueType of an integral Context, as
+     * the String setter does when it parses the value.
+     *
+     * @param value
+     *         The value.
+     *
+     * @throws IllegalArgumentException
+     *          Thrown if the value is outside of the range of the ValueType.
+     */
+    private void checkRange(final long value) throws IllegalArgumentException {
+        final long minimum;
+        final long maximum;
+
+        switch (valueType) {
+            case BYTE: {
+                minimum = Byte.MIN_VALUE;
+                maximum = Byte.MAX_VALUE;
+                break;
+            }
+            case SHORT: {
+                minimum = Short.MIN_VALUE;
+                maximum = Short.MAX_VALUE;
+                break;
+            }
+            case INTEGER: {
+                minimum = Integer.MIN_VALUE;
+                maximum = Integer.MAX_VALUE;
+                break;
+            }
+            default: {
+                return;
+            }
+        }
+
+        if (value < minimum || value > maximum) {
+            throw new IllegalArgumentException("The value " + value + " is outside of the range of a " + valueType
+                                               + " Context, which is " + minimum + " to " + maximum + ".");
+        }
+    }
+
+    /**
+     * Sets the value of a decimal Context.
+     *
+     * @param value
+     *         The new value.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the Context is not decimal.
+     */
+    public synchronized void setDouble(final double value) throws UnsupportedOperationException {
+        if (! isDecimal()) {
+            throw new UnsupportedOperationException("A decimal value cannot be set on a " + valueType + " Context.");
+        }
+
+        bits = toBits(value);
+        this.value = null;
+        version++;
+    }
+
+    /**
+     * Sets the value of a boolean Context.
+     *
+     * @param value
+     *         The new value.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the Context is not boolean.
+     */
+    public synchronized void setBoolean(final boolean value) throws UnsupportedOperationException {
+        if (valueType != ValueType.BOOLEAN) {
+            throw new UnsupportedOperationException("A boolean value cannot be set on a " + valueType + " Context.");
+        }
+
+        bits = (value ? 1 : 0);
+        this.value = null;
+        version++;
+    }
+
+    /**
+     * Retrieves the value of an integral or decimal Context.
+     *
+     * Decimal values are truncated.
+     *
+     * @return
+     *         The value.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the Context is neither integral nor decimal.
+     */
+    public long getLong() throws UnsupportedOperationException {
+        if (isIntegral()) {
+            return bits;
+        } else if (isDecimal()) {
+            return (long) Double.longBitsToDouble(bits);
+        }
+
+        throw new UnsupportedOperationException("A numeric value cannot be retrieved from a " + valueType + " Context.");
+    }
+
+    /**
+     * Retrieves the value of an integral or decimal Context.
+     *
+     * @return
+     *         The value.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the Context is neither integral nor decimal.
+     */
+    public double getDouble() throws UnsupportedOperationException {
+        if (isDecimal()) {
+            return Double.longBitsToDouble(bits);
+        } else if (isIntegral()) {
+            return bits;
+        }
+
+        throw new UnsupportedOperationException("A numeric value cannot be retrieved from a " + valueType + " Context.");
+    }
+
+    /**
+     * Retrieves the value of a boolean Context.
+     *
+     * @return
+     *         The value.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the Context is not boolean.
+     */
+    public boolean getBoolean() throws UnsupportedOperationException {
+        if (valueType != ValueType.BOOLEAN) {
+            throw new UnsupportedOperationException("A boolean value cannot be retrieved from a " + valueType + " Context.");
+        }
+
+        return bits != 0;
+    }
+
+    /**
+     * Retrieves the primitive data, without checking the ValueType.
+     *
+     * @return
+     *         The primitive data.
+     */
+    long getBits() {
+        return bits;
+    }
+
+    /** @return Whether the ValueType is BYTE, SHORT, INTEGER, or LONG. */
+    private boolean isIntegral() {
+        switch(valueType) {
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+            case LONG: {
+                return true;
+            }
+            default: {
+                return false;
+            }
+        }
+    }
+
+    /** @return Whether the ValueType is FLOAT or DOUBLE. */
+    private boolean isDecimal() {
+        return valueType == ValueType.FLOAT || valueType == ValueType.DOUBLE;
+    }
+
+    /**
+     * Converts the specified decimal into primitive data, rounding it to a float if
+     * the ValueType is FLOAT.
+     *
+     * @param value
+     *         The decimal.
+     *
+     * @return
+     *         The primitive data.
+     */
+    private long toBits(final double value) {
+        if (valueType == ValueType.FLOAT) {
+            return Double.doubleToLongBits((float) value);
+        } else {
+            return Double.doubleToLongBits(value);
+        }
+    }
+
+    /**
+     * Parses the specified raw data into primitive data.
+     *
+     * @param value
+     *         The raw data.
+     *
+     * @return
+     *         The primitive data, or 0 if the ValueType isn't primitive.
+     *
+     * @throws NumberFormatException
+     *          Thrown if the raw data cannot be parsed as the ValueType of the Context.
+     */
+    private long parse(final String value) throws NumberFormatException {
+        if (isIntegral()) {
+            return CriterionPredicate.parseIntegral(valueType, value);
+        } else if (isDecimal()) {
+            return toBits(CriterionPredicate.parseDecimal(valueType, value));
+        } else if (valueType == ValueType.BOOLEAN) {
+            return Boolean.parseBoolean(value) ? 1 : 0;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Formats the primitive data into raw data.
+     *
+     * @return
+     *         The raw data.
+     */
+    private String format() {
+        if (isIntegral()) {
+            return Long.toString(bits);
+        } else if (valueType == ValueType.FLOAT) {
+            return Float.toString((float) Double.longBitsToDouble(bits));
+        } else if (valueType == ValueType.DOUBLE) {
+            return Double.toString(Double.longBitsToDouble(bits));
+        } else {
+            return Boolean.toString(bits != 0);
+        }
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        getValue();
+        out.defaultWriteObject();
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        try {
+            bits = parse(value);
+        } catch(final NumberFormatException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,552 @@
+package com.valkryst.dds.object;
+
+/**
+ * A pre-compiled comparison between the value of a Context and the comparison value of a Criterion.
+ *
+ * Each (ValueType, ComparisonType) pair is compiled into its own specialized predicate with the
+ * comparison value already parsed into a primitive, so evaluating a Criterion no longer needs to
+ * parse the comparison value or walk the ValueType and ComparisonType switches.
+ *
+ * As with the original Criterion evaluation, the comparison value is the left-hand operand. For
+ * example, a LESS_THAN predicate evaluates to TRUE when the comparison value is less than the
+ * value of the Context.
+ *
+ * Predicates are equal when they perform the same comparison against the same parsed value, so
+ * that structurally identical Criterion can share a single evaluation.
+ */
+public abstract class CriterionPredicate {
+    /**
+     * Evaluates the predicate against the current value of the specified Context.
+     *
+     * @param context
+     *         The Context whose value is to be compared with the comparison value.
+     *
+     * @return
+     *         Whether or not the predicate evaluates to TRUE.
+     */
+    public abstract boolean test(final Context context);
+
+    /**
+     * Retrieves the comparison value of a BYTE, SHORT, INTEGER, or LONG predicate.
+     *
+     * @return
+     *         The comparison value, widened to a long.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the predicate is not integral.
+     */
+    public long getIntegralComparisonValue() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The predicate is not integral.");
+    }
+
+    /**
+     * Retrieves the comparison value of a FLOAT or DOUBLE predicate.
+     *
+     * @return
+     *         The comparison value, widened to a double.
+     *
+     * @throws UnsupportedOperationException
+     *          Thrown if the predicate is not decimal.
+     */
+    public double getDecimalComparisonValue() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The predicate is not decimal.");
+    }
+
+    /**
+     * Compiles a predicate for the specified comparison.
+     *
+     * @param valueType
+     *         The type of data held within the comparison value.
+     *
+     * @param comparisonType
+     *         The operator to use when comparing a Context with the comparison value.
+     *
+     * @param comparisonValue
+     *         The value to compare a Context with.
+     *
+     * @return
+     *         The compiled predicate.
+     *
+     * @throws IllegalArgumentException
+     *          Thrown if the comparison value cannot be parsed as the specified ValueType.
+     *
+     *          Thrown if the ComparisonType cannot be used with the specified ValueType.
+     */
+    public static CriterionPredicate compile(final ValueType valueType, final ComparisonType comparisonType, final String comparisonValue) throws IllegalArgumentException {
+        switch(valueType) {
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+            case LONG: {
+                final long value = parseIntegral(valueType, comparisonValue);
+
+                switch(comparisonType) {
+                    case EQUAL_TO: {
+                        return new IntegralEqualTo(value);
+                    }
+                    case LESS_THAN: {
+                        return new IntegralLessThan(value);
+                    }
+                    case GREATER_THAN: {
+                        return new IntegralGreaterThan(value);
+                    }
+                    case LESS_THAN_OR_EQUAL_TO: {
+                        return new IntegralLessThanOrEqualTo(value);
+                    }
+                    case GREATER_THAN_OR_EQUAL_TO: {
+                        return new IntegralGreaterThanOrEqualTo(value);
+                    }
+                    case NOT_EQUAL_TO: {
+                        return new IntegralNotEqualTo(value);
+                    }
+                }
+
+                break;
+            }
+
+            case FLOAT:
+            case DOUBLE: {
+                final double value = parseDecimal(valueType, comparisonValue);
+
+                switch(comparisonType) {
+                    case EQUAL_TO: {
+                        return new DecimalEqualTo(value);
+                    }
+                    case LESS_THAN: {
+                        return new DecimalLessThan(value);
+                    }
+                    case GREATER_THAN: {
+                        return new DecimalGreaterThan(value);
+                    }
+                    case LESS_THAN_OR_EQUAL_TO: {
+                        return new DecimalLessThanOrEqualTo(value);
+                    }
+                    case GREATER_THAN_OR_EQUAL_TO: {
+                        return new DecimalGreaterThanOrEqualTo(value);
+                    }
+                    case NOT_EQUAL_TO: {
+                        return new DecimalNotEqualTo(value);
+                    }
+                }
+
+                break;
+            }
+
+            case BOOLEAN: {
+                final boolean value = Boolean.parseBoolean(comparisonValue);
+
+                switch(comparisonType) {
+                    case EQUAL_TO: {
+                        return new BooleanEqualTo(value);
+                    }
+                    case NOT_EQUAL_TO: {
+                        return new BooleanNotEqualTo(value);
+                    }
+                }
+
+                break;
+            }
+
+            case STRING: {
+                if (comparisonValue == null) {
+                    throw new IllegalArgumentException("A STRING comparison value cannot be null.");
+                }
+
+                switch(comparisonType) {
+                    case EQUAL_TO: {
+                        return new StringEqualTo(comparisonValue);
+                    }
+                    case NOT_EQUAL_TO: {
+                        return new StringNotEqualTo(comparisonValue);
+                    }
+                }
+
+                break;
+            }
+
+            default: {
+                throw new IllegalArgumentException("The " + valueType + " value type cannot be compared.");
+            }
+        }
+
+        throw new IllegalArgumentException("The specified comparison type '" + comparisonType + "' cannot be used with the " +
+                                           valueType + " value type.");
+    }
+
+    /**
+     * Parses the specified String as an integral ValueType.
+     *
+     * @param valueType
+     *         The integral ValueType to parse the String as.
+     *
+     * @param value
+     *         The String to parse.
+     *
+     * @return
+     *         The parsed value, widened to a long.
+     *
+     * @throws NumberFormatException
+     *          Thrown if the String does not contain a parsable value of the ValueType.
+     */
+    static long parseIntegral(final ValueType valueType, final String value) throws NumberFormatException {
+        switch(valueType) {
+            case BYTE: {
+                return Byte.parseByte(value);
+            }
+            case SHORT: {
+                return Short.parseShort(value);
+            }
+            case INTEGER: {
+                return Integer.parseInt(value);
+            }
+            default: {
+                return Long.parseLong(value);
+            }
+        }
+    }
+
+    /**
+     * Parses the specified String as a decimal ValueType.
+     *
+     * @param valueType
+     *         The decimal ValueType to parse the String as.
+     *
+     * @param value
+     *         The String to parse.
+     *
+     * @return
+     *         The parsed value, widened to a double.
+     *
+     * @throws NumberFormatException
+     *          Thrown if the String does not contain a parsable value of the ValueType.
+     */
+    static double parseDecimal(final ValueType valueType, final String value) throws NumberFormatException {
+        if (valueType == ValueType.FLOAT) {
+            return Float.parseFloat(value);
+        } else {
+            return Double.parseDouble(value);
+        }
+    }
+
+    /** The base of all BYTE, SHORT, INTEGER, and LONG predicates. */
+    private abstract static class IntegralPredicate extends CriterionPredicate {
+        /** The comparison value. */
+        final long comparisonValue;
+
+        IntegralPredicate(final long comparisonValue) {
+            this.comparisonValue = comparisonValue;
+        }
+
+        /**
+         * Retrieves the value of the specified Context as a long.
+         *
+         * @param context
+         *         The Context.
+         *
+         * @return
+         *         The value of the Context.
+         */
+        static long valueOf(final Context context) {
+            return context.getBits();
+        }
+
+        @Override
+        public long getIntegralComparisonValue() {
+            return comparisonValue;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return object != null && object.getClass() == getClass()
+                   && ((IntegralPredicate) object).comparisonValue == comparisonValue;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getClass().hashCode() + Long.hashCode(comparisonValue);
+        }
+    }
+
+    /** The base of all FLOAT and DOUBLE predicates. */
+    private abstract static class DecimalPredicate extends CriterionPredicate {
+        /** The comparison value. */
+        final double comparisonValue;
+
+        DecimalPredicate(final double comparisonValue) {
+            this.comparisonValue = comparisonValue;
+        }
+
+        /**
+         * Retrieves the value of the specified Context as a double.
+         *
+         * @param context
+         *         The Context.
+         *
+         * @return
+         *         The value of the Context.
+         */
+        static double valueOf(final Context context) {
+            return Double.longBitsToDouble(context.getBits());
+        }
+
+        @Override
+        public double getDecimalComparisonValue() {
+            return comparisonValue;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return object != null && object.getClass() == getClass()
+                   && Double.compare(((DecimalPredicate) object).comparisonValue, comparisonValue) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getClass().hashCode() + Double.hashCode(comparisonValue);
+        }
+    }
+
+    /** The base of all BOOLEAN predicates. */
+    private abstract static class BooleanPredicate extends CriterionPredicate {
+        /** The comparison value. */
+        final boolean comparisonValue;
+
+        BooleanPredicate(final boolean comparisonValue) {
+            this.comparisonValue = comparisonValue;
+        }
+
+        /**
+         * Retrieves the value of the specified Context as a boolean.
+         *
+         * @param context
+         *         The Context.
+         *
+         * @return
+         *         The value of the Context.
+         */
+        static boolean valueOf(final Context context) {
+            return context.getBits() != 0;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return object != null && object.getClass() == getClass()
+                   && ((BooleanPredicate) object).comparisonValue == comparisonValue;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getClass().hashCode() + Boolean.hashCode(comparisonValue);
+        }
+    }
+
+    /** The base of all STRING predicates. */
+    private abstract static class StringPredicate extends CriterionPredicate {
+        /** The comparison value. */
+        final String comparisonValue;
+
+        StringPredicate(final String comparisonValue) {
+            this.comparisonValue = comparisonValue;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return object != null && object.getClass() == getClass()
+                   && ((StringPredicate) object).comparisonValue.equals(comparisonValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getClass().hashCode() + comparisonValue.hashCode();
+        }
+    }
+
+    private static final class IntegralEqualTo extends IntegralPredicate {
+        IntegralEqualTo(final long comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue == valueOf(context);
+        }
+    }
+
+    private static final class IntegralNotEqualTo extends IntegralPredicate {
+        IntegralNotEqualTo(final long comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue != valueOf(context);
+        }
+    }
+
+    private static final class IntegralLessThan extends IntegralPredicate {
+        IntegralLessThan(final long comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue < valueOf(context);
+        }
+    }
+
+    private static final class IntegralGreaterThan extends IntegralPredicate {
+        IntegralGreaterThan(final long comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue > valueOf(context);
+        }
+    }
+
+    private static final class IntegralLessThanOrEqualTo extends IntegralPredicate {
+        IntegralLessThanOrEqualTo(final long comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue <= valueOf(context);
+        }
+    }
+
+    private static final class IntegralGreaterThanOrEqualTo extends IntegralPredicate {
+        IntegralGreaterThanOrEqualTo(final long comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue >= valueOf(context);
+        }
+    }
+
+    /*
+     * Equality of decimals is checked on their bits, to match the Objects.equals
+     * comparison of the boxed values that was previously used. Contexts hold their
+     * decimals as the same canonical bits.
+     */
+    private static final class DecimalEqualTo extends DecimalPredicate {
+        /** The bits of the comparison value. */
+        private final long comparisonBits;
+
+        DecimalEqualTo(final double comparisonValue) {
+            super(comparisonValue);
+            comparisonBits = Double.doubleToLongBits(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonBits == context.getBits();
+        }
+    }
+
+    private static final class DecimalNotEqualTo extends DecimalPredicate {
+        /** The bits of the comparison value. */
+        private final long comparisonBits;
+
+        DecimalNotEqualTo(final double comparisonValue) {
+            super(comparisonValue);
+            comparisonBits = Double.doubleToLongBits(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonBits != context.getBits();
+        }
+    }
+
+    private static final class DecimalLessThan extends DecimalPredicate {
+        DecimalLessThan(final double comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue < valueOf(context);
+        }
+    }
+
+    private static final class DecimalGreaterThan extends DecimalPredicate {
+        DecimalGreaterThan(final double comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue > valueOf(context);
+        }
+    }
+
+    private static final class DecimalLessThanOrEqualTo extends DecimalPredicate {
+        DecimalLessThanOrEqualTo(final double comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue <= valueOf(context);
+        }
+    }
+
+    private static final class DecimalGreaterThanOrEqualTo extends DecimalPredicate {
+        DecimalGreaterThanOrEqualTo(final double comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue >= valueOf(context);
+        }
+    }
+
+    private static final class BooleanEqualTo extends BooleanPredicate {
+        BooleanEqualTo(final boolean comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue == valueOf(context);
+        }
+    }
+
+    private static final class BooleanNotEqualTo extends BooleanPredicate {
+        BooleanNotEqualTo(final boolean comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue != valueOf(context);
+        }
+    }
+
+    private static final class StringEqualTo extends StringPredicate {
+        StringEqualTo(final String comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return comparisonValue.equals(context.getValue());
+        }
+    }
+
+    private static final class StringNotEqualTo extends StringPredicate {
+        StringNotEqualTo(final String comparisonValue) {
+            super(comparisonValue);
+        }
+
+        @Override
+        public boolean test(final Context context) {
+            return ! comparisonValue.equals(context.getValue());
+        }
+    }
+}
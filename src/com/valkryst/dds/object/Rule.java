@@ -3,16 +3,20 @@ package com.valkryst.dds.object;
 import lombok.Getter;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public class Rule implements Serializable {
     private static final long serialVersionUID = -2662752086898875054L;
 
+    /** The updater used to atomically update the lastUsedTime. */
+    private static final AtomicLongFieldUpdater<Rule> LAST_USED_TIME_UPDATER = AtomicLongFieldUpdater.newUpdater(Rule.class, "lastUsedTime");
+
     /** The Event which triggers the use of the Rule. */
     @Getter private final String event;
     /** A description of the Rule. */
     @Getter private final String description;
     /** The time at which the Rule was last used. */
-    @Getter private long lastUsedTime;
+    @Getter private volatile long lastUsedTime;
 
     /**
      * Construct a new Rule with the specified data.
@@ -43,8 +47,18 @@ public class Rule implements Serializable {
                 "\t\t" + lastUsedTime + "\n";
     }
 
-    /** Updates the lastUsedTime to the current system time. */
+    /**
+     * Updates the lastUsedTime to the current system time.
+     *
+     * The update is atomic, and the lastUsedTime never moves backwards when
+     * several threads use the Rule at once.
+     */
     public void updateLastUsedTime() {
-        this.lastUsedTime = System.currentTimeMillis();
+        final long currentTime = System.currentTimeMillis();
+        long lastUsedTime;
+
+        do {
+            lastUsedTime = this.lastUsedTime;
+        } while (lastUsedTime < currentTime && ! LAST_USED_TIME_UPDATER.compareAndSet(this, lastUsedTime, currentTime));
     }
 }
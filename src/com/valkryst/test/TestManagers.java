@@ -0,0 +1,44 @@
+package com.valkryst.test;
+
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.object.Response;
+import com.valkryst.dds.object.Rule;
+
+import java.util.ArrayList;
+
+/** Creates the DDSManagers that are shared by the tests. */
+public final class TestManagers {
+    private TestManagers() {}
+
+    /**
+     * Creates a DDSManager with a single Rule, which has no Criterion, so
+     * it's chosen whenever its Event is queried.
+     *
+     * @param event
+     *         The Event that triggers the Rule.
+     *
+     * @param description
+     *         The description of the Rule.
+     *
+     * @param responses
+     *         The Responses of the Rule, in the order that they're published.
+     *
+     * @return
+     *         The DDSManager.
+     */
+    public static DDSManager createManager(final String event, final String description, final Response... responses) {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Rule rule = new Rule(event, description, 0);
+
+        manager.addEvent(event);
+        manager.addRule(rule);
+        manager.addRuleEventAssociation(event, rule);
+
+        for (final Response response : responses) {
+            manager.addResponse(response);
+            manager.addRuleResponseAssociation(rule, response);
+        }
+
+        return manager;
+    }
+}
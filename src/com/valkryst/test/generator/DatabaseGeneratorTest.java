@@ -0,0 +1,76 @@
+package com.valkryst.test.generator;
+
+import com.valkryst.dds.generator.DatabaseGenerator;
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.object.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DatabaseGeneratorTest {
+    @Test
+    public void generateIsDeterministic() {
+        assertEquals(describe(new DatabaseGenerator(7).generate()), describe(new DatabaseGenerator(7).generate()));
+    }
+
+    @Test
+    public void generateFollowsSettings() {
+        final DatabaseGenerator generator = new DatabaseGenerator(7);
+        generator.setTotalRules(500);
+        generator.setMinimumCriteriaPerRule(2);
+        generator.setMaximumCriteriaPerRule(3);
+        generator.setResponsesPerRule(2);
+
+        final DDSManager manager = generator.generate();
+        assertEquals(500, manager.getArrayList_rules().size());
+        assertEquals(generator.getTotalEvents(), manager.getArrayList_events().size());
+
+        for (final Rule rule : manager.getArrayList_rules()) {
+            final int totalCriteria = manager.getAssociatedCriterions(rule).size();
+            assertTrue(totalCriteria >= 2 && totalCriteria <= 3);
+            assertEquals(2, manager.getAssociatedResponses(rule).size());
+        }
+    }
+
+    @Test
+    public void writeCanBeLoaded() throws Exception {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        new DatabaseGenerator(7).write(byteArrayOutputStream);
+
+        try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+            final DDSManager manager = (DDSManager) objectInputStream.readObject();
+            assertEquals(describe(new DatabaseGenerator(7).generate()), describe(manager));
+
+            for (final String event : manager.getArrayList_events()) {
+                manager.determineResponse(event);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void generateWithInvalidCriteriaRange() {
+        final DatabaseGenerator generator = new DatabaseGenerator(7);
+        generator.setMinimumCriteriaPerRule(3);
+        generator.setMaximumCriteriaPerRule(2);
+        generator.generate();
+    }
+
+    private static List<String> describe(final DDSManager manager) {
+        final List<String> description = new ArrayList<>();
+
+        for (final Rule rule : manager.getArrayList_rules()) {
+            description.add(rule.toString());
+            description.add(manager.getAssociatedCriterions(rule).toString());
+            description.add(manager.getAssociatedResponses(rule).toString());
+        }
+
+        return description;
+    }
+}
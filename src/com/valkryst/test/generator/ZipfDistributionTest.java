@@ -0,0 +1,45 @@
+package com.valkryst.test.generator;
+
+import com.valkryst.dds.generator.ZipfDistribution;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class ZipfDistributionTest {
+    @Test
+    public void sampleIsSkewed() {
+        final ZipfDistribution distribution = new ZipfDistribution(100, 1);
+        final Random random = new Random(0);
+        final int[] counts = new int[distribution.size()];
+
+        for (int i = 0 ; i < 100_000 ; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        // The first rank is drawn twice as often as the second, and a hundred times as often as the last:
+        assertTrue(counts[0] > counts[1] * 1.8 && counts[0] < counts[1] * 2.2);
+        assertTrue(counts[0] > counts[99] * 50);
+    }
+
+    @Test
+    public void sampleWithoutSkewIsUniform() {
+        final ZipfDistribution distribution = new ZipfDistribution(4, 0);
+        final Random random = new Random(0);
+        final int[] counts = new int[distribution.size()];
+
+        for (int i = 0 ; i < 100_000 ; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        for (final int count : counts) {
+            assertTrue(count > 24_000 && count < 26_000);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructWithoutRanks() {
+        new ZipfDistribution(0, 1);
+    }
+}
@@ -0,0 +1,234 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.AsyncSubscriber;
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.OverflowPolicy;
+import com.valkryst.dds.object.Response;
+import com.valkryst.dds.object.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncSubscriberTest {
+    /** An Executor that holds its tasks until they're run by the test. */
+    private static final class ManualExecutor implements java.util.concurrent.Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(final Runnable task) {
+            tasks.add(task);
+        }
+
+        private void runAll() {
+            while (! tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    @Test
+    public void determineResponseDoesNotWaitForSubscriber() throws Exception {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Rule rule = new Rule("ON_ALIEN_DEATH", "Alien Death", 0);
+        final Response response = new Response("AUDIO", "Scream");
+
+        manager.addEvent("ON_ALIEN_DEATH");
+        manager.addRule(rule);
+        manager.addResponse(response);
+        manager.addRuleEventAssociation("ON_ALIEN_DEATH", rule);
+        manager.addRuleResponseAssociation(rule, response);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final AsyncSubscriber subscriber = manager.getPublisher().addAsyncResponseSubscriber("AUDIO", (ddsManager, r) -> {
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                responses.add(r.getValue());
+            }, 16, OverflowPolicy.BLOCK, executor);
+
+            manager.determineResponse("ON_ALIEN_DEATH");
+            manager.determineResponse("ON_ALIEN_DEATH");
+
+            // The subscriber is still waiting on the latch, yet both queries have returned:
+            assertTrue(responses.isEmpty());
+
+            latch.countDown();
+            assertTrue(subscriber.awaitDrained(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("Scream", "Scream"), responses);
+            assertEquals(2, subscriber.getHandledCount());
+            assertEquals(0, subscriber.getDepth());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void dropsOldest() {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<String> responses = new ArrayList<>();
+        final AsyncSubscriber subscriber = new AsyncSubscriber((ddsManager, r) -> responses.add(r.getValue()), 2,
+                                                               OverflowPolicy.DROP_OLDEST, executor);
+
+        subscriber.handleResponse(null, new Response("AUDIO", "A"));
+        subscriber.handleResponse(null, new Response("AUDIO", "B"));
+        subscriber.handleResponse(null, new Response("AUDIO", "C"));
+
+        assertEquals(2, subscriber.getDepth());
+        assertTrue(subscriber.getLagNanos() >= 0);
+        assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+
+        assertEquals(Arrays.asList("B", "C"), responses);
+        assertEquals(1, subscriber.getDroppedCount());
+        assertEquals(2, subscriber.getHandledCount());
+    }
+
+    @Test
+    public void coalesces() {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<String> responses = new ArrayList<>();
+        final AsyncSubscriber subscriber = new AsyncSubscriber((ddsManager, r) -> responses.add(r.getValue()), 2,
+                                                               OverflowPolicy.COALESCE, executor);
+
+        subscriber.handleResponse(null, new Response("AUDIO", "A"));
+        subscriber.handleResponse(null, new Response("TEXT", "B"));
+        subscriber.handleResponse(null, new Response("AUDIO", "C"));
+        subscriber.handleResponse(null, new Response("IMAGE", "D"));
+
+        executor.runAll();
+
+        // C replaced A in place, then D had no match, so the oldest, C, was dropped:
+        assertEquals(Arrays.asList("B", "D"), responses);
+        assertEquals(1, subscriber.getCoalescedCount());
+        assertEquals(1, subscriber.getDroppedCount());
+    }
+
+    @Test
+    public void blocksUntilThereIsRoom() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            final AsyncSubscriber subscriber = new AsyncSubscriber((ddsManager, r) -> {
+                try {
+                    Thread.sleep(1);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                responses.add(r.getValue());
+            }, 1, OverflowPolicy.BLOCK, executor);
+
+            for (int i = 0 ; i < 20 ; i++) {
+                subscriber.handleResponse(null, new Response("AUDIO", String.valueOf(i)));
+            }
+
+            assertTrue(subscriber.awaitDrained(10, TimeUnit.SECONDS));
+            assertEquals(20, responses.size());
+            assertEquals("19", responses.get(19));
+            assertEquals(0, subscriber.getDroppedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void countsFailures() {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<String> responses = new ArrayList<>();
+        final AsyncSubscriber subscriber = new AsyncSubscriber((ddsManager, r) -> {
+            if (r.getValue().equals("A")) {
+                throw new IllegalStateException();
+            }
+
+            responses.add(r.getValue());
+        }, 4, OverflowPolicy.DROP_OLDEST, executor);
+
+        subscriber.handleResponse(null, new Response("AUDIO", "A"));
+        subscriber.handleResponse(null, new Response("AUDIO", "B"));
+        executor.runAll();
+
+        assertEquals(Collections.singletonList("B"), responses);
+        assertEquals(1, subscriber.getFailedCount());
+    }
+
+    @Test
+    public void keepsDrainingAfterAnError() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<String> responses = new ArrayList<>();
+        final AsyncSubscriber subscriber = new AsyncSubscriber((ddsManager, r) -> {
+            if (r.getValue().equals("A")) {
+                throw new AssertionError();
+            }
+
+            responses.add(r.getValue());
+        }, 4, OverflowPolicy.BLOCK, executor);
+
+        subscriber.handleResponse(null, new Response("AUDIO", "A"));
+        subscriber.handleResponse(null, new Response("AUDIO", "B"));
+
+        try {
+            executor.runAll();
+            fail();
+        } catch (final AssertionError expected) {
+            // The drain task re-submitted itself before the Error escaped:
+            executor.runAll();
+        }
+
+        assertEquals(Collections.singletonList("B"), responses);
+        assertEquals(1, subscriber.getFailedCount());
+        assertTrue(subscriber.awaitDrained(0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void keepsDrainingAfterTheResubmitIsRejected() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final AtomicInteger totalSubmissions = new AtomicInteger();
+        final List<String> responses = new ArrayList<>();
+
+        // Only the first submission is accepted, so the drain task's re-submission is rejected:
+        final AsyncSubscriber subscriber = new AsyncSubscriber((ddsManager, r) -> responses.add(r.getValue()), 1,
+                                                               OverflowPolicy.DROP_OLDEST, task -> {
+            if (totalSubmissions.getAndIncrement() == 1) {
+                throw new RejectedExecutionException();
+            }
+
+            tasks.add(task);
+        });
+
+        subscriber.handleResponse(null, new Response("AUDIO", "A"));
+        tasks.remove(0).run();
+        assertTrue(subscriber.awaitDrained(0, TimeUnit.SECONDS));
+
+        subscriber.handleResponse(null, new Response("AUDIO", "B"));
+        tasks.remove(0).run();
+
+        assertEquals(Arrays.asList("A", "B"), responses);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveCapacity() {
+        new AsyncSubscriber((ddsManager, r) -> {}, 0, OverflowPolicy.BLOCK, Runnable::run);
+    }
+}
@@ -0,0 +1,95 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.BatchNotifiable;
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.EventQuery;
+import com.valkryst.dds.manager.ResponseBatch;
+import com.valkryst.dds.object.Response;
+import com.valkryst.test.TestManagers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BatchNotifiableTest {
+    /** A BatchNotifiable that records the values of each batch that it's handed. */
+    private static class RecordingSubscriber implements BatchNotifiable {
+        private final List<List<String>> list_batches = new ArrayList<>();
+        private final List<ResponseBatch> list_instances = new ArrayList<>();
+
+        @Override
+        public void handleResponses(final DDSManager ddsManager, final ResponseBatch batch) {
+            final List<String> values = new ArrayList<>();
+
+            for (int i = 0 ; i < batch.size() ; i++) {
+                values.add(batch.get(i).getValue());
+            }
+
+            list_batches.add(values);
+            list_instances.add(batch);
+        }
+    }
+
+    /** Builds a DDSManager whose Event responds with two scores, then a sound. */
+    private static DDSManager createManager() {
+        return TestManagers.createManager("ON_KILL", "Kill", new Response("SCORE_INCREASE", "10"),
+                                          new Response("SCORE_INCREASE", "25"), new Response("AUDIO", "Fanfare"));
+    }
+
+    @Test
+    public void handsEachQueryOneBatch() {
+        final DDSManager manager = createManager();
+        final RecordingSubscriber batchSubscriber = new RecordingSubscriber();
+        final List<String> plainResponses = new ArrayList<>();
+
+        manager.getPublisher().addResponseSubscriber("SCORE_INCREASE", batchSubscriber);
+        manager.getPublisher().addResponseSubscriber("AUDIO", batchSubscriber);
+        manager.getPublisher().addResponseSubscriber("SCORE_INCREASE", (ddsManager, response) -> plainResponses.add(response.getValue()));
+
+        manager.determineResponse("ON_KILL");
+        manager.determineResponse("ON_KILL");
+
+        assertEquals(2, batchSubscriber.list_batches.size());
+        assertEquals(Arrays.asList("10", "25", "Fanfare"), batchSubscriber.list_batches.get(0));
+        assertEquals(Arrays.asList("10", "25", "Fanfare"), batchSubscriber.list_batches.get(1));
+        assertSame(batchSubscriber.list_instances.get(0), batchSubscriber.list_instances.get(1));
+
+        assertEquals(Arrays.asList("10", "25", "10", "25"), plainResponses);
+    }
+
+    @Test
+    public void handsBatchQueriesOneBatch() {
+        final DDSManager manager = createManager();
+        final RecordingSubscriber batchSubscriber = new RecordingSubscriber();
+        manager.getPublisher().addResponseSubscriber("SCORE_INCREASE", batchSubscriber);
+
+        manager.determineResponses(Arrays.asList(new EventQuery("ON_KILL"), new EventQuery("ON_KILL"), new EventQuery("ON_KILL")));
+
+        assertEquals(1, batchSubscriber.list_batches.size());
+        assertEquals(Arrays.asList("10", "25", "10", "25", "10", "25"), batchSubscriber.list_batches.get(0));
+    }
+
+    @Test
+    public void stopsBatchingOnceRemoved() {
+        final DDSManager manager = createManager();
+        final RecordingSubscriber batchSubscriber = new RecordingSubscriber();
+        manager.getPublisher().addResponseSubscriber("SCORE_INCREASE", batchSubscriber);
+        manager.getPublisher().removeResponseSubscriber("SCORE_INCREASE", batchSubscriber);
+
+        manager.determineResponse("ON_KILL");
+
+        assertEquals(0, batchSubscriber.list_batches.size());
+    }
+
+    @Test
+    public void handlesASingleResponseAsABatchOfOne() {
+        final RecordingSubscriber batchSubscriber = new RecordingSubscriber();
+        batchSubscriber.handleResponse(null, new Response("AUDIO", "Fanfare"));
+
+        assertEquals(Arrays.asList(Arrays.asList("Fanfare")), batchSubscriber.list_batches);
+    }
+}
@@ -0,0 +1,628 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.ContextHandle;
+import com.valkryst.dds.manager.ContextOverlay;
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.EvaluationStrategy;
+import com.valkryst.dds.manager.EventQuery;
+import com.valkryst.dds.manager.Notifiable;
+import com.valkryst.dds.metrics.MetricsListener;
+import com.valkryst.dds.metrics.SelectionCase;
+import com.valkryst.dds.object.*;
+import com.sun.management.ThreadMXBean;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DDSManagerTest {
+    @Test
+    public void handle() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.LONG, "0");
+        manager.addContext(score);
+
+        final ContextHandle handle = manager.handle("Score");
+        assertSame(score, manager.getContext(handle));
+
+        manager.setLong(handle, 42);
+        assertEquals(42, manager.getLong(handle));
+        assertEquals(42, manager.getLong("Score"));
+    }
+
+    @Test
+    public void handleSurvivesReAdd() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        manager.addContext(new Context("Lives", ValueType.BYTE, "3"));
+        manager.addContext(new Context("Score", ValueType.LONG, "0"));
+
+        final ContextHandle handle = manager.handle("Score");
+        manager.removeContext(manager.getContext(handle));
+        manager.addContext(new Context("Score", ValueType.LONG, "7"));
+
+        assertEquals(handle.getSlot(), manager.handle("Score").getSlot());
+        assertEquals(7, manager.getLong(handle));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void handleOfUnknownContext() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        manager.handle("Score");
+    }
+
+    @Test
+    public void determineResponseByEventId() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(Collections.singletonList("ON_SPAWN")), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "10");
+        manager.addContext(score);
+
+        final Rule rule = new Rule("ON_ALIEN_DEATH", "Any Score", 0);
+        addRule(manager, rule, new Criterion(score, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false), "HIT");
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        final int eventId = manager.getEventId("ON_ALIEN_DEATH");
+        assertEquals(0, manager.getEventId("ON_SPAWN"));
+        assertEquals(1, eventId);
+        assertEquals(-1, manager.getEventId("ON_UNKNOWN"));
+
+        manager.addEvent("ON_ALIEN_DEATH");
+        manager.addEvent("ON_ALIEN_DEATH");
+        assertEquals(Arrays.asList("ON_SPAWN", "ON_ALIEN_DEATH"), manager.getArrayList_events());
+
+        manager.determineResponse(eventId);
+        manager.determineResponse(manager.getEventId("ON_SPAWN"));
+        manager.determineResponse(-1);
+        manager.determineResponse("ON_ALIEN_DEATH");
+
+        assertEquals(Arrays.asList("HIT", "HIT"), responses);
+    }
+
+    @Test
+    public void associationsCannotBeChangedThroughTheirLists() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "10");
+        manager.addContext(score);
+
+        final Rule rule = new Rule("ON_ALIEN_DEATH", "Any Score", 0);
+        addRule(manager, rule, new Criterion(score, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false), "HIT");
+
+        final List<Runnable> mutations = Arrays.asList(
+            () -> manager.getAssociatedCriterions(rule).clear(),
+            () -> manager.getAssociatedResponses(rule).clear(),
+            () -> manager.getAssociatedRules("ON_ALIEN_DEATH").clear()
+        );
+
+        for (final Runnable mutation : mutations) {
+            try {
+                mutation.run();
+                fail("An association list could be changed.");
+            } catch (final UnsupportedOperationException ignored) {}
+        }
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+        manager.determineResponse("ON_ALIEN_DEATH");
+
+        assertEquals(Collections.singletonList("HIT"), responses);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void criterionOfAnotherValueTypeIsRejected() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        manager.addContext(new Context("Score", ValueType.DOUBLE, "5.0"));
+
+        // The Criterion's own "Score" Context is an INTEGER, so it can't be compared with the manager's DOUBLE:
+        final Context score = new Context("Score", ValueType.INTEGER, "5");
+        addRule(manager, new Rule("ON_ALIEN_DEATH", "Score", 0),
+                new Criterion(score, ComparisonType.EQUAL_TO, ValueType.INTEGER, "5", 1, false), "HIT");
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+    }
+
+    @Test
+    public void determineResponseFollowsContextChanges() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "10");
+        manager.addContext(score);
+
+        final Rule lowScore = new Rule("ON_ALIEN_DEATH", "Low Score", 0);
+        final Rule highScore = new Rule("ON_ALIEN_DEATH", "High Score", 0);
+        addRule(manager, lowScore, new Criterion(score, ComparisonType.GREATER_THAN, ValueType.INTEGER, "5", 1, false), "LOW");
+        addRule(manager, highScore, new Criterion(score, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false), "HIGH");
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        manager.setInt("Score", 0);
+        manager.determineResponse("ON_ALIEN_DEATH");
+
+        assertEquals("HIGH", responses.get(0));
+        assertEquals("LOW", responses.get(1));
+    }
+
+    @Test
+    public void determineResponseWithOverlay() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "10");
+        manager.addContext(score);
+
+        final Rule lowScore = new Rule("ON_ALIEN_DEATH", "Low Score", 0);
+        final Rule highScore = new Rule("ON_ALIEN_DEATH", "High Score", 0);
+        addRule(manager, lowScore, new Criterion(score, ComparisonType.GREATER_THAN, ValueType.INTEGER, "5", 1, false), "LOW");
+        addRule(manager, highScore, new Criterion(score, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false), "HIGH");
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        final ContextHandle handle = manager.handle("Score");
+        final ContextOverlay entity = new ContextOverlay();
+        entity.put(handle, new Context("Score", ValueType.INTEGER, "0"));
+
+        final ContextOverlay query = new ContextOverlay(entity);
+        query.put(handle, new Context("Score", ValueType.INTEGER, "20"));
+
+        manager.determineResponse("ON_ALIEN_DEATH", entity);
+        manager.determineResponse("ON_ALIEN_DEATH", query);
+        manager.determineResponse("ON_ALIEN_DEATH");
+
+        assertEquals("LOW", responses.get(0));
+        assertEquals("HIGH", responses.get(1));
+        assertEquals("HIGH", responses.get(2));
+    }
+
+    @Test
+    public void determineResponses() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "10");
+        manager.addContext(score);
+
+        final Rule lowScore = new Rule("ON_ALIEN_DEATH", "Low Score", 0);
+        final Rule highScore = new Rule("ON_ALIEN_DEATH", "High Score", 0);
+        final Rule hit = new Rule("ON_PLAYER_HIT", "Hit", 0);
+        addRule(manager, lowScore, new Criterion(score, ComparisonType.GREATER_THAN, ValueType.INTEGER, "5", 1, false), "LOW");
+        addRule(manager, highScore, new Criterion(score, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false), "HIGH");
+        addRule(manager, hit, new Criterion(score, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false), "HIT");
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        final ContextOverlay overlay = new ContextOverlay();
+        overlay.put(manager.handle("Score"), new Context("Score", ValueType.INTEGER, "0"));
+
+        manager.determineResponses(Arrays.asList(new EventQuery("ON_ALIEN_DEATH"),
+                                                 new EventQuery("ON_PLAYER_HIT"),
+                                                 new EventQuery("ON_ALIEN_DEATH", overlay),
+                                                 new EventQuery("UNKNOWN_EVENT")));
+
+        Collections.sort(responses);
+        assertEquals(Arrays.asList("HIGH", "HIT", "LOW"), responses);
+    }
+
+    @Test
+    public void rejectedBatchLeavesRulesUnused() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "3");
+        manager.addContext(score);
+
+        final Rule rule = new Rule("ON_ALIEN_DEATH", "Score", 0);
+        addRule(manager, rule, new Criterion(score, ComparisonType.EQUAL_TO, ValueType.INTEGER, "3", 1, false), "3");
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        // Only the last query overrides an INTEGER Context with a STRING:
+        final ContextOverlay overlay = new ContextOverlay();
+        overlay.put(manager.handle("Score"), new Context("Score", ValueType.STRING, "Three"));
+
+        try {
+            manager.determineResponses(Arrays.asList(new EventQuery("ON_ALIEN_DEATH"),
+                                                     new EventQuery("ON_ALIEN_DEATH", overlay)));
+            fail("The mismatched overlay wasn't rejected.");
+        } catch (final IllegalArgumentException expected) {
+            assertEquals(0, rule.getLastUsedTime());
+            assertTrue(responses.isEmpty());
+        }
+    }
+
+    @Test
+    public void determineResponsesWithExecutor() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "3");
+        manager.addContext(score);
+
+        for (int i = 0 ; i < 8 ; i++) {
+            final Rule rule = new Rule("ON_ALIEN_DEATH", "Score " + i, 0);
+            addRule(manager, rule, new Criterion(score, ComparisonType.EQUAL_TO, ValueType.INTEGER, String.valueOf(i), 1, false), String.valueOf(i));
+        }
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        manager.setEvaluationStrategy(EvaluationStrategy.executor(executor, 4, 1));
+
+        final List<EventQuery> queries = new ArrayList<>();
+
+        for (int i = 0 ; i < 100 ; i++) {
+            queries.add(new EventQuery("ON_ALIEN_DEATH"));
+        }
+
+        manager.determineResponses(queries);
+        executor.shutdown();
+
+        assertEquals(100, responses.size());
+        assertEquals(Collections.nCopies(100, "3"), responses);
+    }
+
+    @Test
+    public void splitBatchWaitsForEveryPartWhenOnePartThrows() throws InterruptedException {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "3");
+        manager.addContext(score);
+        addRule(manager, new Rule("ON_ALIEN_DEATH", "Score", 0),
+                new Criterion(score, ComparisonType.EQUAL_TO, ValueType.INTEGER, "3", 1, false), "3");
+
+        // Each submitted part is held back, so that it's still running when the calling thread's part throws:
+        final AtomicLong finishedParts = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        final ExecutorService slowExecutor = new AbstractExecutorService() {
+            @Override public void execute(final Runnable command) {
+                executor.execute(() -> {
+                    try {
+                        Thread.sleep(100);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    // Counted before the part runs, as its Future completes as soon as it has run:
+                    finishedParts.incrementAndGet();
+                    command.run();
+                });
+            }
+
+            @Override public void shutdown() { executor.shutdown(); }
+            @Override public List<Runnable> shutdownNow() { return executor.shutdownNow(); }
+            @Override public boolean isShutdown() { return executor.isShutdown(); }
+            @Override public boolean isTerminated() { return executor.isTerminated(); }
+            @Override public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+                return executor.awaitTermination(timeout, unit);
+            }
+        };
+
+        manager.setEvaluationStrategy(EvaluationStrategy.executor(slowExecutor, 2, 1));
+
+        // The calling thread's part throws as soon as it has answered its first query:
+        final Thread callingThread = Thread.currentThread();
+        manager.setMetricsListener(new MetricsListener() {
+            @Override
+            public void onEvaluation(final String event, final SelectionCase selectionCase, final boolean isMatched,
+                                     final int totalScannedRules, final int totalEvaluatedCriteria, final long durationNanos) {
+                if (Thread.currentThread() == callingThread) {
+                    throw new IllegalStateException();
+                }
+            }
+
+            @Override
+            public void onResponseHandled(final String responseType, final Notifiable subscriber, final long durationNanos) {}
+        });
+
+        final List<EventQuery> queries = new ArrayList<>();
+
+        for (int i = 0 ; i < 4 ; i++) {
+            queries.add(new EventQuery("ON_ALIEN_DEATH"));
+        }
+
+        try {
+            manager.determineResponses(queries);
+            throw new AssertionError("The failing part wasn't rethrown.");
+        } catch (final IllegalStateException expected) {
+            assertEquals(1, finishedParts.get());
+        } finally {
+            slowExecutor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executorStrategyWithoutParallelism() {
+        EvaluationStrategy.executor(ForkJoinPool.commonPool(), 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overlayWithMismatchedName() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        manager.addContext(new Context("Score", ValueType.INTEGER, "10"));
+
+        new ContextOverlay().put(manager.handle("Score"), new Context("Lives", ValueType.INTEGER, "0"));
+    }
+
+    @Test
+    public void determineResponsePrefersHighestScore() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context lives = new Context("Lives", ValueType.BYTE, "1");
+        final Context firing = new Context("IsPlayerFiring", ValueType.BOOLEAN, "FALSE");
+        manager.addContext(lives);
+        manager.addContext(firing);
+
+        final Rule partial = new Rule("ON_PLAYER_HIT_BY_MISSILE", "Partial", 1);
+        final Rule full = new Rule("ON_PLAYER_HIT_BY_MISSILE", "Full", 1);
+        final Criterion lastLife = new Criterion(lives, ComparisonType.EQUAL_TO, ValueType.BYTE, "1", 1, false);
+        addRule(manager, partial, lastLife, "PARTIAL");
+        addRule(manager, full, lastLife, "FULL");
+
+        final Criterion isFiring = new Criterion(firing, ComparisonType.EQUAL_TO, ValueType.BOOLEAN, "TRUE", 1, false);
+        manager.addCriterion(isFiring);
+        manager.addRuleCriterionAssociation(partial, isFiring);
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        manager.determineResponse("ON_PLAYER_HIT_BY_MISSILE");
+        assertEquals("FULL", responses.get(0));
+    }
+
+    @Test
+    public void determineResponseWeighsCriterion() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context lives = new Context("Lives", ValueType.BYTE, "1");
+        final Context firing = new Context("IsPlayerFiring", ValueType.BOOLEAN, "FALSE");
+        manager.addContext(lives);
+        manager.addContext(firing);
+
+        final Rule heavy = new Rule("ON_PLAYER_HIT_BY_MISSILE", "Heavy", 1);
+        final Rule even = new Rule("ON_PLAYER_HIT_BY_MISSILE", "Even", 1);
+        addRule(manager, even, new Criterion(lives, ComparisonType.EQUAL_TO, ValueType.BYTE, "1", 0.5, false), "EVEN");
+        addRule(manager, heavy, new Criterion(lives, ComparisonType.EQUAL_TO, ValueType.BYTE, "1", 0.9, false), "HEAVY");
+
+        final Criterion isFiringLightly = new Criterion(firing, ComparisonType.EQUAL_TO, ValueType.BOOLEAN, "TRUE", 0.1, false);
+        final Criterion isFiringEvenly = new Criterion(firing, ComparisonType.EQUAL_TO, ValueType.BOOLEAN, "TRUE", 0.5, false);
+        manager.addCriterion(isFiringLightly);
+        manager.addCriterion(isFiringEvenly);
+        manager.addRuleCriterionAssociation(heavy, isFiringLightly);
+        manager.addRuleCriterionAssociation(even, isFiringEvenly);
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        manager.determineResponse("ON_PLAYER_HIT_BY_MISSILE");
+        assertEquals("HEAVY", responses.get(0));
+    }
+
+    @Test
+    public void determineResponseWeighsLastUsedTime() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context lives = new Context("Lives", ValueType.BYTE, "1");
+        final Context firing = new Context("IsPlayerFiring", ValueType.BOOLEAN, "FALSE");
+        manager.addContext(lives);
+        manager.addContext(firing);
+
+        final long currentTime = System.currentTimeMillis();
+        final Rule recent = new Rule("ON_PLAYER_HIT_BY_MISSILE", "Recent", currentTime - 1000);
+        final Rule middle = new Rule("ON_PLAYER_HIT_BY_MISSILE", "Middle", currentTime - 3_600_000);
+        final Rule oldest = new Rule("ON_PLAYER_HIT_BY_MISSILE", "Oldest", currentTime - 7_200_000);
+        addRule(manager, recent, new Criterion(lives, ComparisonType.EQUAL_TO, ValueType.BYTE, "1", 1, false), "RECENT");
+        addRule(manager, middle, new Criterion(lives, ComparisonType.EQUAL_TO, ValueType.BYTE, "1", 0.5, false), "MIDDLE");
+        addRule(manager, oldest, new Criterion(lives, ComparisonType.EQUAL_TO, ValueType.BYTE, "1", 0.2, false), "OLDEST");
+
+        final Criterion isFiringEvenly = new Criterion(firing, ComparisonType.EQUAL_TO, ValueType.BOOLEAN, "TRUE", 0.5, false);
+        final Criterion isFiringHeavily = new Criterion(firing, ComparisonType.EQUAL_TO, ValueType.BOOLEAN, "TRUE", 0.8, false);
+        manager.addCriterion(isFiringEvenly);
+        manager.addCriterion(isFiringHeavily);
+        manager.addRuleCriterionAssociation(middle, isFiringEvenly);
+        manager.addRuleCriterionAssociation(oldest, isFiringHeavily);
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        manager.determineResponse("ON_PLAYER_HIT_BY_MISSILE");
+        assertEquals("MIDDLE", responses.get(0));
+    }
+
+    @Test
+    public void determineResponseDoesNotAllocate() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+
+        final ThreadMXBean threadBean = (ThreadMXBean) bean;
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "0");
+        manager.addContext(score);
+
+        // Every Rule has been used, so the weighted average of case E is used:
+        for (int i = 0 ; i < 8 ; i++) {
+            final Rule rule = new Rule("ON_ALIEN_DEATH", "Score " + i, 1);
+            addRule(manager, rule, new Criterion(score, ComparisonType.LESS_THAN_OR_EQUAL_TO, ValueType.INTEGER, String.valueOf(i), 1, false), String.valueOf(i));
+        }
+
+        final AtomicLong totalResponses = new AtomicLong();
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> totalResponses.incrementAndGet());
+
+        final ContextHandle handle = manager.handle("Score");
+        final ContextOverlay overlay = new ContextOverlay();
+        overlay.put(handle, new Context("Score", ValueType.INTEGER, "7"));
+
+        final int eventId = manager.getEventId("ON_ALIEN_DEATH");
+        final int iterations = 20_000;
+
+        for (int pass = 0 ; pass < 2 ; pass++) {
+            final long threadId = Thread.currentThread().getId();
+            final long allocatedBytes = threadBean.getThreadAllocatedBytes(threadId);
+
+            for (int i = 0 ; i < iterations ; i++) {
+                manager.setLong(handle, i & 7);
+                manager.determineResponse(eventId);
+                manager.determineResponse("ON_ALIEN_DEATH", overlay);
+            }
+
+            // The first pass warms the path up, and the second must not allocate:
+            if (pass == 1) {
+                assertTrue(threadBean.getThreadAllocatedBytes(threadId) - allocatedBytes < iterations);
+            }
+        }
+
+        assertEquals(iterations * 4, totalResponses.get());
+    }
+
+    @Test
+    public void determineResponseFollowsIndexedThresholds() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "0");
+        manager.addContext(score);
+
+        for (int i = 0 ; i < 8 ; i++) {
+            final Rule rule = new Rule("ON_ALIEN_DEATH", "Score " + i, 0);
+            addRule(manager, rule, new Criterion(score, ComparisonType.EQUAL_TO, ValueType.INTEGER, String.valueOf(i), 1, false), String.valueOf(i));
+        }
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        final int[] values = {0, 5, 2, 7, 3};
+
+        for (final int value : values) {
+            manager.setInt("Score", value);
+            manager.determineResponse("ON_ALIEN_DEATH");
+        }
+
+        for (int i = 0 ; i < values.length ; i++) {
+            assertEquals(String.valueOf(values[i]), responses.get(i));
+        }
+    }
+
+    @Test
+    public void determineResponseConcurrently() throws Exception {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context score = new Context("Score", ValueType.INTEGER, "0");
+        manager.addContext(score);
+
+        for (int i = 0 ; i < 8 ; i++) {
+            final Rule rule = new Rule("ON_ALIEN_DEATH", "Score " + i, 0);
+            addRule(manager, rule, new Criterion(score, ComparisonType.EQUAL_TO, ValueType.INTEGER, String.valueOf(i), 1, false), String.valueOf(i));
+        }
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+
+        final int totalThreads = 8;
+        final int totalQueries = 2000;
+        final AtomicBoolean isQuerying = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newFixedThreadPool(totalThreads + 1);
+
+        // Change the Context while the queries run:
+        final Future<?> writer = executor.submit(() -> {
+            while (isQuerying.get()) {
+                manager.setInt("Score", ThreadLocalRandom.current().nextInt(8));
+            }
+        });
+
+        final List<Future<?>> queries = new ArrayList<>();
+
+        for (int i = 0 ; i < totalThreads ; i++) {
+            queries.add(executor.submit(() -> {
+                for (int j = 0 ; j < totalQueries ; j++) {
+                    manager.determineResponse("ON_ALIEN_DEATH");
+                }
+            }));
+        }
+
+        for (final Future<?> query : queries) {
+            query.get();
+        }
+
+        isQuerying.set(false);
+        writer.get();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        // Exactly one Rule is satisfied at any one time, so every query responds once:
+        assertEquals(totalThreads * totalQueries, responses.size());
+
+        manager.setInt("Score", 3);
+        manager.determineResponse("ON_ALIEN_DEATH");
+        assertEquals("3", responses.get(responses.size() - 1));
+    }
+
+    @Test
+    public void loadsManagerSavedInTheOriginalFormat() throws IOException, ClassNotFoundException {
+        /*
+         * Saved by the DDSManager that predates Event IDs and Context handles, with the Event "E",
+         * the response type "AUDIO", the Contexts BYTE "Lives" = 3 and INTEGER "Score" = 3, a Rule
+         * for "E" whose Criterion is Score == 3 with the AUDIO Response "Three", and a
+         * RecordingSubscriber of AUDIO.
+         */
+        final DDSManager manager;
+
+        try (final ObjectInputStream in = new ObjectInputStream(DDSManagerTest.class.getResourceAsStream("baseline-manager.ser"))) {
+            manager = (DDSManager) in.readObject();
+        }
+
+        assertEquals(0, manager.getEventId("E"));
+        assertEquals(0, manager.getPublisher().getResponseTypeId("AUDIO"));
+        assertEquals(-1, manager.getPublisher().getResponseTypeId("VIDEO"));
+
+        manager.getPublisher().addResponseSubscriber("VIDEO", (ddsManager, response) -> {});
+        assertEquals(1, manager.getPublisher().getResponseTypeId("VIDEO"));
+
+        assertEquals(3, manager.getLong(manager.handle("Lives")));
+        assertEquals(3, manager.getLong(manager.handle("Score")));
+
+        final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> responses.add(response.getValue()));
+        RecordingSubscriber.RECEIVED.clear();
+
+        manager.determineResponse("E");
+
+        // The saved subscriber is still subscribed:
+        assertEquals(Collections.singletonList("Three"), responses);
+        assertEquals(Collections.singletonList("Three"), RecordingSubscriber.RECEIVED);
+    }
+
+    private static void addRule(final DDSManager manager, final Rule rule, final Criterion criterion, final String line) {
+        final Response response = new Response("AUDIO", line);
+
+        manager.addRule(rule);
+        manager.addCriterion(criterion);
+        manager.addResponse(response);
+        manager.addRuleEventAssociation(rule.getEvent(), rule);
+        manager.addRuleCriterionAssociation(rule, criterion);
+        manager.addRuleResponseAssociation(rule, response);
+    }
+
+    /** A subscriber that was saved along with baseline-manager.ser. */
+    private static final class RecordingSubscriber implements Notifiable, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /** The values of the Responses handled by every RecordingSubscriber. */
+        private static final List<String> RECEIVED = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void handleResponse(final DDSManager ddsManager, final Response response) {
+            RECEIVED.add(response.getValue());
+        }
+    }
+}
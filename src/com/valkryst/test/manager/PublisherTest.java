@@ -0,0 +1,102 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.Notifiable;
+import com.valkryst.dds.manager.Publisher;
+import com.valkryst.dds.object.Response;
+import com.valkryst.test.TestManagers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PublisherTest {
+    @Test
+    public void notifiesSubscribersInOrder() {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        final Publisher publisher = manager.getPublisher();
+        final List<String> notified = new ArrayList<>();
+
+        final Notifiable first = (ddsManager, response) -> notified.add("first");
+        final Notifiable second = (ddsManager, response) -> notified.add("second");
+        final Notifiable third = (ddsManager, response) -> notified.add("third");
+
+        publisher.addResponseSubscriber("AUDIO", first);
+        publisher.addResponseSubscriber("AUDIO", second);
+        publisher.addResponseSubscriber("AUDIO", first);
+        publisher.addResponseSubscriber("AUDIO", third);
+        publisher.addResponseSubscriber("TEXT", first);
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        assertEquals(Arrays.asList("first", "second", "third"), notified);
+
+        notified.clear();
+        publisher.removeResponseSubscriber("AUDIO", second);
+        publisher.removeResponseSubscriber("AUDIO", second);
+        publisher.removeResponseSubscriber("IMAGE", first);
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        assertEquals(Arrays.asList("first", "third"), notified);
+    }
+
+    @Test
+    public void subscriptionsDuringPublicationApplyToTheNextPublication() {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        final Publisher publisher = manager.getPublisher();
+        final List<String> notified = new ArrayList<>();
+
+        final Notifiable late = (ddsManager, response) -> notified.add("late");
+        final AtomicReference<Notifiable> self = new AtomicReference<>();
+
+        self.set((ddsManager, response) -> {
+            notified.add("once");
+            publisher.removeResponseSubscriber("AUDIO", self.get());
+            publisher.addResponseSubscriber("AUDIO", late);
+        });
+
+        publisher.addResponseSubscriber("AUDIO", self.get());
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        assertEquals(Arrays.asList("once"), notified);
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        assertEquals(Arrays.asList("once", "late"), notified);
+    }
+
+    @Test
+    public void subscribesWhilePublishingConcurrently() throws Exception {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        final Publisher publisher = manager.getPublisher();
+        final AtomicBoolean isRunning = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        final Thread subscriberThread = new Thread(() -> {
+            try {
+                for (int i = 0 ; i < 2_000 ; i++) {
+                    final Notifiable subscriber = (ddsManager, response) -> {};
+                    publisher.addResponseSubscriber("AUDIO", subscriber);
+                    publisher.removeResponseSubscriber("AUDIO", subscriber);
+                }
+            } catch (final Throwable t) {
+                failure.set(t);
+            } finally {
+                isRunning.set(false);
+            }
+        });
+
+        subscriberThread.start();
+
+        while (isRunning.get()) {
+            manager.determineResponse("ON_ALIEN_DEATH");
+        }
+
+        subscriberThread.join();
+        assertNull(failure.get());
+    }
+}
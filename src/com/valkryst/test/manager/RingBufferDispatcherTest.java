@@ -0,0 +1,156 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.RingBufferDispatcher;
+import com.valkryst.dds.object.Response;
+import com.valkryst.dds.object.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferDispatcherTest {
+    private static final ThreadFactory THREAD_FACTORY = task -> {
+        final Thread thread = new Thread(task, "RingBufferDispatcherTest");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    @Test
+    public void deliversInPublicationOrder() throws Exception {
+        final List<String> audio = new ArrayList<>();
+        final List<String> text = new ArrayList<>();
+        final List<String> everything = new ArrayList<>();
+
+        // The capacity is far smaller than the number of Responses, so the publisher must wait for the consumers:
+        final RingBufferDispatcher dispatcher = new RingBufferDispatcher(8, THREAD_FACTORY);
+        dispatcher.addSubscriber("AUDIO", (ddsManager, response) -> audio.add(response.getValue()));
+        dispatcher.addSubscriber("TEXT", (ddsManager, response) -> text.add(response.getValue()));
+        dispatcher.addSubscriber(null, (ddsManager, response) -> everything.add(response.getValue()));
+        dispatcher.start();
+
+        final Response[] responses = new Response[1000];
+
+        for (int i = 0 ; i < responses.length ; i++) {
+            responses[i] = new Response(i % 2 == 0 ? "AUDIO" : "TEXT", String.valueOf(i));
+        }
+
+        for (final Response response : responses) {
+            dispatcher.handleResponse(null, response);
+        }
+
+        dispatcher.close();
+
+        assertEquals(500, audio.size());
+        assertEquals(500, text.size());
+        assertEquals(1000, everything.size());
+
+        for (int i = 0 ; i < responses.length ; i++) {
+            assertEquals(String.valueOf(i), everything.get(i));
+            assertEquals(String.valueOf(i), (i % 2 == 0 ? audio : text).get(i / 2));
+        }
+
+        assertEquals(0, dispatcher.getBacklog());
+    }
+
+    @Test
+    public void receivesResponsesFromPublisher() throws Exception {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Rule rule = new Rule("ON_ALIEN_DEATH", "Alien Death", 0);
+        final Response audio = new Response("AUDIO", "Scream");
+        final Response subtitle = new Response("TEXT", "Argh!");
+
+        manager.addEvent("ON_ALIEN_DEATH");
+        manager.addRule(rule);
+        manager.addResponse(audio);
+        manager.addResponse(subtitle);
+        manager.addRuleEventAssociation("ON_ALIEN_DEATH", rule);
+        manager.addRuleResponseAssociation(rule, audio);
+        manager.addRuleResponseAssociation(rule, subtitle);
+
+        final List<String> received = new ArrayList<>();
+        final RingBufferDispatcher dispatcher = new RingBufferDispatcher(16, THREAD_FACTORY);
+        dispatcher.addSubscriber(null, (ddsManager, response) -> received.add(response.getValue()));
+        dispatcher.start();
+
+        manager.getPublisher().addResponseSubscriber("AUDIO", dispatcher);
+        manager.getPublisher().addResponseSubscriber("TEXT", dispatcher);
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        manager.determineResponse("ON_ALIEN_DEATH");
+        dispatcher.close();
+
+        assertEquals(Arrays.asList("Scream", "Argh!", "Scream", "Argh!"), received);
+    }
+
+    @Test
+    public void countsFailures() throws Exception {
+        final RingBufferDispatcher dispatcher = new RingBufferDispatcher(4, THREAD_FACTORY);
+        dispatcher.addSubscriber(null, (ddsManager, response) -> {
+            throw new IllegalStateException();
+        });
+        dispatcher.start();
+
+        dispatcher.handleResponse(null, new Response("AUDIO", "A"));
+        dispatcher.handleResponse(null, new Response("AUDIO", "B"));
+        dispatcher.close();
+
+        assertEquals(2, dispatcher.getFailedCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void keepsConsumingAfterAnError() {
+        final RingBufferDispatcher dispatcher = new RingBufferDispatcher(2, THREAD_FACTORY);
+        dispatcher.addSubscriber(null, (ddsManager, response) -> {
+            throw new AssertionError();
+        });
+        dispatcher.start();
+
+        // More Responses than slots, so publishing would wait for room forever if the consumer had stopped.
+        for (int i = 0 ; i < 8 ; i++) {
+            dispatcher.handleResponse(null, new Response("AUDIO", String.valueOf(i)));
+        }
+
+        dispatcher.close();
+
+        assertEquals(8, dispatcher.getFailedCount());
+    }
+
+    @Test
+    public void closeRestoresTheInterrupt() {
+        final RingBufferDispatcher dispatcher = new RingBufferDispatcher(4, THREAD_FACTORY);
+        dispatcher.start();
+
+        Thread.currentThread().interrupt();
+        dispatcher.close();
+
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsResponsesBeforeStart() {
+        new RingBufferDispatcher(4, THREAD_FACTORY).handleResponse(null, new Response("AUDIO", "A"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsSubscribersAfterStart() throws Exception {
+        final RingBufferDispatcher dispatcher = new RingBufferDispatcher(4, THREAD_FACTORY);
+        dispatcher.start();
+
+        try {
+            dispatcher.addSubscriber(null, (ddsManager, response) -> {});
+        } finally {
+            dispatcher.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCapacityThatIsNotAPowerOfTwo() {
+        new RingBufferDispatcher(12, THREAD_FACTORY);
+    }
+}
@@ -0,0 +1,209 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.ContextHandle;
+import com.valkryst.dds.manager.ContextOverlay;
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.SelectionTrace;
+import com.valkryst.dds.manager.SelectionTracer;
+import com.valkryst.dds.metrics.SelectionCase;
+import com.valkryst.dds.object.*;
+import com.sun.management.ThreadMXBean;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SelectionTracerTest {
+    /**
+     * Builds a DDSManager whose Event triggers two used Rules, so that their
+     * scores are weighed against their last used times.
+     */
+    private static DDSManager createManager() {
+        final DDSManager manager = new DDSManager(new ArrayList<>(), new ArrayList<>());
+        final Context health = new Context("Health", ValueType.INTEGER, "50");
+        manager.addContext(health);
+
+        final Rule wounded = new Rule("ON_HIT", "Wounded", 1);
+        final Criterion isWounded = new Criterion(health, ComparisonType.GREATER_THAN, ValueType.INTEGER, "75", 1, false);
+        final Criterion isDying = new Criterion(health, ComparisonType.GREATER_THAN, ValueType.INTEGER, "10", 1, false);
+        final Response woundedResponse = new Response("AUDIO", "Ouch");
+
+        final Rule healthy = new Rule("ON_HIT", "Healthy", 2);
+        final Criterion isHealthy = new Criterion(health, ComparisonType.LESS_THAN_OR_EQUAL_TO, ValueType.INTEGER, "75", 1, false);
+        final Response healthyResponse = new Response("AUDIO", "Ha");
+
+        manager.addEvent("ON_HIT");
+        manager.addEvent("ON_DEATH");
+
+        manager.addRule(wounded);
+        manager.addCriterion(isWounded);
+        manager.addCriterion(isDying);
+        manager.addResponse(woundedResponse);
+        manager.addRuleEventAssociation("ON_HIT", wounded);
+        manager.addRuleCriterionAssociation(wounded, isWounded);
+        manager.addRuleCriterionAssociation(wounded, isDying);
+        manager.addRuleResponseAssociation(wounded, woundedResponse);
+
+        manager.addRule(healthy);
+        manager.addCriterion(isHealthy);
+        manager.addResponse(healthyResponse);
+        manager.addRuleEventAssociation("ON_HIT", healthy);
+        manager.addRuleCriterionAssociation(healthy, isHealthy);
+        manager.addRuleResponseAssociation(healthy, healthyResponse);
+        return manager;
+    }
+
+    @Test
+    public void explainsSelection() {
+        final DDSManager manager = createManager();
+        final SelectionTracer tracer = new SelectionTracer();
+        manager.setSelectionTracer(tracer);
+
+        manager.determineResponse("ON_HIT");
+
+        final List<SelectionTrace> traces = tracer.getTraces();
+        assertEquals(1, traces.size());
+
+        final SelectionTrace trace = traces.get(0);
+        assertEquals("ON_HIT", trace.getEvent());
+        assertEquals(SelectionCase.E, trace.getSelectionCase());
+        assertEquals("Wounded", trace.getChosenRule().getDescription());
+        assertEquals(2, trace.getTotalCandidates());
+        assertEquals(2, trace.getTotalRecordedCandidates());
+        assertFalse(trace.isTruncated());
+
+        assertEquals("Wounded", trace.getRule(0).getDescription());
+        assertEquals(0.5, trace.getCriterionScore(0), 0);
+        assertFalse(Double.isNaN(trace.getFinalScore(0)));
+        assertEquals(2, trace.getTotalConditions(0));
+        assertEquals("75", trace.getCriterion(0, 0).getComparisonValue());
+        assertEquals("50", trace.getValue(0, 0));
+        assertTrue(trace.isTrue(0, 0));
+        assertFalse(trace.isTrue(0, 1));
+
+        // The Healthy Rule scores zero, so it's never active, and never weighed:
+        assertEquals("Healthy", trace.getRule(1).getDescription());
+        assertEquals(0, trace.getCriterionScore(1), 0);
+        assertTrue(Double.isNaN(trace.getFinalScore(1)));
+        assertFalse(trace.isTrue(1, 0));
+
+        assertTrue(trace.toString().contains("FALSE 10 GREATER_THAN Health (value 50"));
+    }
+
+    @Test
+    public void recordsOverlaidValues() {
+        final DDSManager manager = createManager();
+        final SelectionTracer tracer = new SelectionTracer();
+        manager.setSelectionTracer(tracer);
+
+        final ContextHandle handle = manager.handle("Health");
+        final ContextOverlay overlay = new ContextOverlay();
+        overlay.put(handle, new Context("Health", ValueType.INTEGER, "90"));
+
+        manager.determineResponse("ON_HIT", overlay);
+
+        final SelectionTrace trace = tracer.getTraces().get(0);
+        assertEquals("Healthy", trace.getChosenRule().getDescription());
+        assertEquals("90", trace.getValue(1, 0));
+        assertTrue(trace.isTrue(1, 0));
+    }
+
+    @Test
+    public void samplesOnlyTheChosenEvent() {
+        final DDSManager manager = createManager();
+        final SelectionTracer tracer = new SelectionTracer();
+        tracer.setEvent("ON_DEATH");
+        manager.setSelectionTracer(tracer);
+
+        manager.determineResponse("ON_HIT");
+        manager.determineResponse("ON_DEATH");
+
+        final List<SelectionTrace> traces = tracer.getTraces();
+        assertEquals(1, traces.size());
+        assertEquals("ON_DEATH", traces.get(0).getEvent());
+        assertEquals(SelectionCase.A, traces.get(0).getSelectionCase());
+        assertNull(traces.get(0).getChosenRule());
+    }
+
+    @Test
+    public void keepsTheNewestTraces() {
+        final DDSManager manager = createManager();
+        final SelectionTracer tracer = new SelectionTracer(2, 1, 1);
+        manager.setSelectionTracer(tracer);
+
+        manager.determineResponse("ON_HIT");
+        manager.determineResponse("ON_HIT");
+        manager.determineResponse("ON_DEATH");
+
+        final List<SelectionTrace> traces = tracer.getTraces();
+        assertEquals(2, traces.size());
+        assertEquals("ON_HIT", traces.get(0).getEvent());
+        assertEquals("ON_DEATH", traces.get(1).getEvent());
+
+        // Only the first Rule and its first condition fit:
+        assertTrue(traces.get(0).isTruncated());
+        assertEquals(1, traces.get(0).getTotalRecordedCandidates());
+        assertEquals(1, traces.get(0).getTotalConditions(0));
+
+        tracer.clear();
+        assertTrue(tracer.getTraces().isEmpty());
+    }
+
+    @Test
+    public void samplesOneInN() {
+        final DDSManager manager = createManager();
+        final SelectionTracer tracer = new SelectionTracer(1024, 4, 8);
+        tracer.setSamplingInterval(10);
+        manager.setSelectionTracer(tracer);
+
+        for (int i = 0 ; i < 1000 ; i++) {
+            manager.determineResponse("ON_HIT");
+        }
+
+        final int totalTraces = tracer.getTraces().size();
+        assertTrue(totalTraces > 30 && totalTraces < 300);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveSamplingInterval() {
+        new SelectionTracer().setSamplingInterval(0);
+    }
+
+    @Test
+    public void tracingDoesNotAllocate() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+
+        final ThreadMXBean threadBean = (ThreadMXBean) bean;
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final DDSManager manager = createManager();
+        manager.setSelectionTracer(new SelectionTracer());
+
+        final ContextHandle handle = manager.handle("Health");
+        final int eventId = manager.getEventId("ON_HIT");
+        final int iterations = 20_000;
+
+        for (int pass = 0 ; pass < 2 ; pass++) {
+            final long threadId = Thread.currentThread().getId();
+            final long allocatedBytes = threadBean.getThreadAllocatedBytes(threadId);
+
+            for (int i = 0 ; i < iterations ; i++) {
+                manager.setLong(handle, i % 100);
+                manager.determineResponse(eventId);
+            }
+
+            // The first pass warms the path up, and the second must not allocate:
+            if (pass == 1) {
+                assertTrue(threadBean.getThreadAllocatedBytes(threadId) - allocatedBytes < iterations);
+            }
+        }
+    }
+}
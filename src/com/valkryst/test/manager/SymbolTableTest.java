@@ -0,0 +1,27 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.SymbolTable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SymbolTableTest {
+    @Test
+    public void intern() {
+        final SymbolTable symbolTable = new SymbolTable();
+
+        assertEquals(0, symbolTable.intern("ON_SPAWN"));
+        assertEquals(1, symbolTable.intern("ON_ALIEN_DEATH"));
+        assertEquals(0, symbolTable.intern("ON_SPAWN"));
+        assertEquals(2, symbolTable.size());
+
+        assertEquals(1, symbolTable.getId("ON_ALIEN_DEATH"));
+        assertEquals(-1, symbolTable.getId("ON_UNKNOWN"));
+        assertEquals("ON_ALIEN_DEATH", symbolTable.getName(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getNameOfUnknownId() {
+        new SymbolTable().getName(0);
+    }
+}
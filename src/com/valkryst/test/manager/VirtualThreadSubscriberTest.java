@@ -0,0 +1,163 @@
+package com.valkryst.test.manager;
+
+import com.valkryst.dds.manager.Notifiable;
+import com.valkryst.dds.manager.VirtualThreadSubscriber;
+import com.valkryst.dds.manager.VirtualThreads;
+import com.valkryst.dds.object.Response;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VirtualThreadSubscriberTest {
+    private static final ThreadFactory THREAD_FACTORY = task -> {
+        final Thread thread = new Thread(task, "VirtualThreadSubscriberTest");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    @Test
+    public void limitsConcurrency() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maximumRunning = new AtomicInteger();
+
+        final Notifiable blocking = (ddsManager, response) -> {
+            maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            running.decrementAndGet();
+        };
+
+        final VirtualThreadSubscriber subscriber = new VirtualThreadSubscriber(blocking, 2, 1, TimeUnit.MINUTES, THREAD_FACTORY);
+
+        final Thread publisher = new Thread(() -> {
+            for (int i = 0 ; i < 6 ; i++) {
+                subscriber.handleResponse(null, new Response("AUDIO", String.valueOf(i)));
+            }
+        });
+        publisher.start();
+
+        // The publisher starts two handlers, then waits for one of them to finish:
+        while (subscriber.getActiveCount() < 2) {
+            Thread.sleep(1);
+        }
+
+        publisher.join(50);
+        assertTrue(publisher.isAlive());
+
+        release.countDown();
+        publisher.join();
+
+        assertTrue(subscriber.awaitIdle(10, TimeUnit.SECONDS));
+        assertEquals(6, subscriber.getHandledCount());
+        assertEquals(2, maximumRunning.get());
+        assertEquals(0, subscriber.getActiveCount());
+    }
+
+    @Test
+    public void countsTimeoutsAndFailures() throws Exception {
+        final Notifiable notifiable = (ddsManager, response) -> {
+            switch (response.getValue()) {
+                case "Slow": {
+                    try {
+                        Thread.sleep(50);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    break;
+                }
+                case "Broken": {
+                    throw new IllegalStateException();
+                }
+            }
+        };
+
+        final VirtualThreadSubscriber subscriber = new VirtualThreadSubscriber(notifiable, 4, 20, TimeUnit.MILLISECONDS, THREAD_FACTORY);
+        subscriber.handleResponse(null, new Response("AUDIO", "Slow"));
+        subscriber.handleResponse(null, new Response("AUDIO", "Broken"));
+        subscriber.handleResponse(null, new Response("AUDIO", "Fast"));
+
+        assertTrue(subscriber.awaitIdle(10, TimeUnit.SECONDS));
+        assertEquals(3, subscriber.getHandledCount());
+        assertEquals(1, subscriber.getFailedCount());
+        assertEquals(1, subscriber.getTimedOutCount());
+        assertEquals(3, subscriber.getHandlerLatency().getCount());
+        assertTrue(subscriber.getHandlerLatency().getMaximum() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void countsHandlersThatAreStillRunningAsTimedOut() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Notifiable hanging = (ddsManager, response) -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        final VirtualThreadSubscriber subscriber = new VirtualThreadSubscriber(hanging, 2, 10, TimeUnit.MILLISECONDS, THREAD_FACTORY);
+        subscriber.handleResponse(null, new Response("AUDIO", "Hang"));
+
+        while (subscriber.getLongestRunningNanos() <= TimeUnit.MILLISECONDS.toNanos(20)) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(0, subscriber.getHandledCount());
+        assertEquals(1, subscriber.getOverdueCount());
+        assertEquals(1, subscriber.getTimedOutCount());
+
+        release.countDown();
+
+        assertTrue(subscriber.awaitIdle(10, TimeUnit.SECONDS));
+        assertEquals(0, subscriber.getOverdueCount());
+        assertEquals(1, subscriber.getTimedOutCount());
+        assertEquals(0, subscriber.getLongestRunningNanos());
+    }
+
+    @Test
+    public void usesVirtualThreadsWhereSupported() throws Exception {
+        final Notifiable notifiable = (ddsManager, response) -> {};
+
+        if (! VirtualThreads.isSupported()) {
+            try {
+                new VirtualThreadSubscriber(notifiable, 1, 1, TimeUnit.SECONDS);
+                fail();
+            } catch (final UnsupportedOperationException ignored) {}
+
+            return;
+        }
+
+        final AtomicBoolean isVirtual = new AtomicBoolean();
+        final VirtualThreadSubscriber subscriber = new VirtualThreadSubscriber((ddsManager, response) -> {
+            try {
+                isVirtual.set((Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+
+        subscriber.handleResponse(null, new Response("AUDIO", "Scream"));
+
+        assertTrue(subscriber.awaitIdle(10, TimeUnit.SECONDS));
+        assertTrue(isVirtual.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveConcurrency() {
+        new VirtualThreadSubscriber((ddsManager, response) -> {}, 0, 1, TimeUnit.SECONDS, THREAD_FACTORY);
+    }
+}
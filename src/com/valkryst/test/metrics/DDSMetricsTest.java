@@ -0,0 +1,135 @@
+package com.valkryst.test.metrics;
+
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.manager.Notifiable;
+import com.valkryst.dds.metrics.DDSMetrics;
+import com.valkryst.dds.metrics.LatencyHistogram;
+import com.valkryst.dds.metrics.SelectionCase;
+import com.valkryst.dds.object.Response;
+import com.valkryst.test.TestManagers;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DDSMetricsTest {
+    @Test
+    public void countsEvaluations() {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        manager.addEvent("ON_ALIEN_BIRTH");
+        final DDSMetrics metrics = new DDSMetrics();
+        manager.setMetricsListener(metrics);
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        manager.determineResponse("ON_ALIEN_DEATH");
+        manager.determineResponse("ON_ALIEN_BIRTH");
+        manager.determineResponse("ON_UNKNOWN_EVENT");
+
+        assertEquals(4, metrics.getEvaluationCount());
+        assertEquals(2, metrics.getNoMatchCount());
+        assertEquals(0.5, metrics.getNoMatchRate(), 0);
+        assertEquals(2, metrics.getSelectionCaseCount(SelectionCase.A));
+        assertEquals(2, metrics.getSelectionCaseCount(SelectionCase.B));
+        assertEquals(2, metrics.getScannedRuleCount());
+        assertEquals(2, metrics.getEventEvaluationCount("ON_ALIEN_DEATH"));
+        assertEquals(1, metrics.getEventEvaluationCount("ON_ALIEN_BIRTH"));
+        assertEquals(0, metrics.getEventEvaluationCount("ON_UNKNOWN_EVENT"));
+        assertEquals(4, metrics.getDetermineResponseLatency().getCount());
+    }
+
+    @Test
+    public void timesSubscribers() {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        final DDSMetrics metrics = new DDSMetrics();
+        final Notifiable subscriber = (ddsManager, response) -> {};
+
+        manager.getPublisher().addResponseSubscriber("AUDIO", subscriber);
+        manager.setMetricsListener(metrics);
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        manager.determineResponse("ON_ALIEN_DEATH");
+
+        assertEquals(2, metrics.getHandleResponseCount());
+        assertEquals(2, metrics.getHandleResponseLatency(subscriber).getCount());
+
+        manager.setMetricsListener(null);
+        manager.determineResponse("ON_ALIEN_DEATH");
+
+        assertEquals(2, metrics.getHandleResponseCount());
+        assertNull(manager.getMetricsListener());
+    }
+
+    @Test
+    public void forgetsRemovedSubscribers() {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        final DDSMetrics metrics = new DDSMetrics();
+        final Notifiable subscriber = (ddsManager, response) -> {};
+
+        manager.getPublisher().addResponseSubscriber("AUDIO", subscriber);
+        manager.getPublisher().addResponseSubscriber("SUBTITLE", subscriber);
+        manager.setMetricsListener(metrics);
+        manager.determineResponse("ON_ALIEN_DEATH");
+
+        // The subscriber is still subscribed to SUBTITLE:
+        manager.getPublisher().removeResponseSubscriber("AUDIO", subscriber);
+        assertEquals(1, metrics.getHandleResponseLatency(subscriber).getCount());
+
+        manager.getPublisher().removeResponseSubscriber("SUBTITLE", subscriber);
+        assertNull(metrics.getHandleResponseLatency(subscriber));
+    }
+
+    @Test
+    public void reset() {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        final DDSMetrics metrics = new DDSMetrics();
+        manager.setMetricsListener(metrics);
+
+        manager.determineResponse("ON_ALIEN_DEATH");
+        metrics.reset();
+
+        assertEquals(0, metrics.getEvaluationCount());
+        assertEquals(0, metrics.getCaseBCount());
+        assertEquals(0, metrics.getEventEvaluationCount("ON_ALIEN_DEATH"));
+        assertEquals(0, metrics.getDetermineResponseMaxNanos());
+    }
+
+    @Test
+    public void registersWithJmx() throws Exception {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        final DDSMetrics metrics = new DDSMetrics();
+        manager.setMetricsListener(metrics);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName objectName = metrics.register("DDSMetricsTest");
+
+        try {
+            manager.determineResponse("ON_ALIEN_DEATH");
+
+            assertEquals(1L, server.getAttribute(objectName, "EvaluationCount"));
+            assertEquals(1L, server.getAttribute(objectName, "CaseBCount"));
+        } finally {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 1 ; i <= 99 ; i++) {
+            histogram.record(100);
+        }
+
+        histogram.record(1_000_000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaximum());
+        assertTrue(histogram.getPercentile(50) >= 100 && histogram.getPercentile(50) < 256);
+        assertTrue(histogram.getPercentile(100) >= 1_000_000);
+    }
+}
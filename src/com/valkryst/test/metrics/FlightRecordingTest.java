@@ -0,0 +1,78 @@
+package com.valkryst.test.metrics;
+
+import com.valkryst.dds.manager.DDSManager;
+import com.valkryst.dds.metrics.FlightRecording;
+import com.valkryst.dds.object.Response;
+import com.valkryst.test.TestManagers;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FlightRecordingTest {
+    private static List<RecordedEvent> record(final Duration threshold) throws Exception {
+        final DDSManager manager = TestManagers.createManager("ON_ALIEN_DEATH", "Alien Death", new Response("AUDIO", "Scream"));
+        manager.getPublisher().addResponseSubscriber("AUDIO", (ddsManager, response) -> {});
+
+        final File file = File.createTempFile("dds", ".jfr");
+
+        try (final Recording recording = new Recording()) {
+            recording.enable("com.valkryst.dds.DialogQuery").withThreshold(threshold);
+            recording.enable("com.valkryst.dds.ResponseDispatch").withThreshold(threshold);
+            recording.start();
+
+            manager.determineResponse("ON_ALIEN_DEATH");
+
+            recording.stop();
+            recording.dump(file.toPath());
+            return RecordingFile.readAllEvents(file.toPath());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void recordsQueries() throws Exception {
+        Assume.assumeTrue(FlightRecording.IS_AVAILABLE);
+
+        final List<RecordedEvent> events = record(Duration.ZERO);
+        int totalQueries = 0;
+        int totalDispatches = 0;
+
+        for (final RecordedEvent event : events) {
+            final String name = event.getEventType().getName();
+
+            if (name.equals("com.valkryst.dds.DialogQuery")) {
+                totalQueries++;
+                assertEquals("ON_ALIEN_DEATH", event.getString("event"));
+                assertEquals(1, event.getInt("candidateRules"));
+                assertEquals("B", event.getString("selectionCase"));
+                assertEquals("Alien Death", event.getString("chosenRule"));
+            } else if (name.equals("com.valkryst.dds.ResponseDispatch")) {
+                totalDispatches++;
+                assertEquals("AUDIO", event.getString("responseType"));
+                assertEquals(1, event.getInt("subscribers"));
+            }
+        }
+
+        assertEquals(1, totalQueries);
+        assertEquals(1, totalDispatches);
+    }
+
+    @Test
+    public void skipsFastQueries() throws Exception {
+        Assume.assumeTrue(FlightRecording.IS_AVAILABLE);
+
+        for (final RecordedEvent event : record(Duration.ofMinutes(1))) {
+            assertTrue(! event.getEventType().getName().startsWith("com.valkryst.dds."));
+        }
+    }
+}
@@ -43,4 +43,53 @@ public class ContextTest {
         contextA.setValue("FALSE");
         assertEquals("FALSE", contextA.getValue());
     }
+
+    @Test
+    public void setLong() {
+        final Context contextA = new Context("TestA", ValueType.INTEGER, "3");
+        contextA.setLong(7);
+        assertEquals(7, contextA.getLong());
+        assertEquals("7", contextA.getValue());
+    }
+
+    @Test
+    public void setDouble() {
+        final Context contextA = new Context("TestA", ValueType.FLOAT, "1.0");
+        contextA.setDouble(0.1);
+        assertEquals(0.1f, contextA.getDouble(), 0);
+        assertEquals("0.1", contextA.getValue());
+    }
+
+    @Test
+    public void setBoolean() {
+        final Context contextA = new Context("TestA", ValueType.BOOLEAN, "TRUE");
+        contextA.setBoolean(false);
+        assertEquals(false, contextA.getBoolean());
+    }
+
+    @Test
+    public void setLongWithinRange() {
+        final Context contextA = new Context("TestA", ValueType.BYTE, "3");
+        contextA.setInt(Byte.MIN_VALUE);
+        assertEquals(Byte.MIN_VALUE, contextA.getLong());
+
+        contextA.setInt(Byte.MAX_VALUE);
+        assertEquals("127", contextA.getValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setIntOutsideOfByteRange() {
+        new Context("TestA", ValueType.BYTE, "3").setInt(1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setLongOutsideOfIntegerRange() {
+        new Context("TestA", ValueType.INTEGER, "3").setLong(Integer.MAX_VALUE + 1L);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setBooleanOnIntegral() {
+        final Context contextA = new Context("TestA", ValueType.INTEGER, "3");
+        contextA.setBoolean(false);
+    }
 }
@@ -0,0 +1,87 @@
+package com.valkryst.test.object;
+
+import com.valkryst.dds.object.ComparisonType;
+import com.valkryst.dds.object.Context;
+import com.valkryst.dds.object.Criterion;
+import com.valkryst.dds.object.ValueType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CriterionTest {
+    @Test
+    public void predicateFollowsContextChanges() {
+        final Context context = new Context("Score", ValueType.INTEGER, "10");
+        final Criterion criterion = new Criterion(context, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false);
+
+        assertTrue(criterion.getPredicate().test(context));
+
+        context.setValue("5");
+        assertFalse(criterion.getPredicate().test(context));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void updateIntegral() {
+        final Context context = new Context("Score", ValueType.INTEGER, "10");
+        final Criterion criterion = new Criterion(context, ComparisonType.LESS_THAN, ValueType.INTEGER, "5", 1, false);
+
+        criterion.update();
+        assertTrue(criterion.isTrue());
+
+        context.setValue("5");
+        criterion.update();
+        assertFalse(criterion.isTrue());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void updateDecimal() {
+        final Context context = new Context("Chance", ValueType.DOUBLE, "0.5");
+        final Criterion criterion = new Criterion(context, ComparisonType.EQUAL_TO, ValueType.DOUBLE, "0.5", 1, false);
+
+        criterion.update();
+        assertTrue(criterion.isTrue());
+
+        context.setValue("0.25");
+        criterion.update();
+        assertFalse(criterion.isTrue());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void updateBoolean() {
+        final Context context = new Context("IsPlayerFiring", ValueType.BOOLEAN, "TRUE");
+        final Criterion criterion = new Criterion(context, ComparisonType.NOT_EQUAL_TO, ValueType.BOOLEAN, "FALSE", 1, false);
+
+        criterion.update();
+        assertTrue(criterion.isTrue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructWithMismatchedValueType() {
+        final Context context = new Context("Score", ValueType.INTEGER, "10");
+        new Criterion(context, ComparisonType.EQUAL_TO, ValueType.LONG, "10", 1, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructWithUnsupportedComparisonType() {
+        final Context context = new Context("Name", ValueType.STRING, "Bob");
+        new Criterion(context, ComparisonType.LESS_THAN, ValueType.STRING, "Alice", 1, false);
+    }
+
+    @Test
+    public void predicateEquality() {
+        final Context context = new Context("Lives", ValueType.BYTE, "3");
+        final Criterion criterionA = new Criterion(context, ComparisonType.LESS_THAN_OR_EQUAL_TO, ValueType.BYTE, "1", 1, false);
+        final Criterion criterionB = new Criterion(context, ComparisonType.LESS_THAN_OR_EQUAL_TO, ValueType.BYTE, "01", 0.5, false);
+        final Criterion criterionC = new Criterion(context, ComparisonType.LESS_THAN, ValueType.BYTE, "1", 1, false);
+
+        assertEquals(criterionA.getPredicate(), criterionB.getPredicate());
+        assertEquals(criterionA.getPredicate().hashCode(), criterionB.getPredicate().hashCode());
+        assertNotEquals(criterionA.getPredicate(), criterionC.getPredicate());
+    }
+}